@@ -0,0 +1,92 @@
+package benchmarks;
+
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import server.websocket.Connection;
+import server.websocket.ConnectionManager;
+import websocket.messages.NotificationMessage;
+import websocket.messages.ServerMessage;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ConnectionManager fan-out with sessions that accept every message without sending it anywhere,
+ * so the numbers are the cost of finding the recipients and serializing the message.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BroadcastBenchmark {
+    private static final int CONNECTIONS_PER_GAME = 4;
+
+    @Param({"10", "100", "1000"})
+    public int connectionCount;
+
+    private ConnectionManager connections;
+    private Connection sender;
+    private NotificationMessage notification;
+    private long messagesSent;
+
+    @Setup
+    public void setup() {
+        connections = new ConnectionManager();
+        for (int i = 0; i < connectionCount; i++) {
+            String role = (i % CONNECTIONS_PER_GAME == 0) ? "white" : "observer";
+            connections.add(new Connection("user" + i, i / CONNECTIONS_PER_GAME, role, stubSession()));
+        }
+        sender = connections.connections.get("user0").get(0);
+        notification = new NotificationMessage(ServerMessage.ServerMessageType.NOTIFICATION, "user0 moved e2 to e4");
+    }
+
+    @Benchmark
+    public long broadcast() throws IOException {
+        connections.broadcast(sender, notification);
+        return messagesSent;
+    }
+
+    @Benchmark
+    public long broadcastToOthers() throws IOException {
+        connections.broadcastToOthers(sender.gameID, sender.userName, notification);
+        return messagesSent;
+    }
+
+    @Benchmark
+    public long broadcastAll() throws IOException {
+        connections.broadcastAll(sender.gameID, notification);
+        return messagesSent;
+    }
+
+    private Session stubSession() {
+        RemoteEndpoint remote = (RemoteEndpoint) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{RemoteEndpoint.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("sendString")) {
+                        messagesSent++;
+                    }
+                    return null;
+                });
+        return (Session) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Session.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "isOpen" -> true;
+                    case "getRemote" -> remote;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                });
+    }
+}
@@ -0,0 +1,89 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import chess.Perft;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ChessGame calls the server makes for every move: listing a piece's moves, playing a move
+ * and checking for the end of the game.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChessGameBenchmark {
+    @Param({"start", "kiwipete", "position 6"})
+    public String position;
+
+    private ChessGame game;
+    private List<ChessPosition> pieces;
+    private ChessMove move;
+
+    @Setup
+    public void setup() {
+        String fen = Perft.REFERENCE_POSITIONS.stream()
+                .filter(reference -> reference.name().equals(position))
+                .findFirst()
+                .orElseThrow()
+                .fen();
+        game = ChessGame.fromFen(fen);
+        pieces = new ArrayList<>();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = game.getBoard().getPiece(new ChessPosition(row, col));
+                if (piece != null && piece.getTeamColor() == game.getTeamTurn()) {
+                    pieces.add(new ChessPosition(row, col));
+                    if (move == null && !game.validMoves(new ChessPosition(row, col)).isEmpty()) {
+                        move = game.validMoves(new ChessPosition(row, col)).iterator().next();
+                    }
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void validMovesAllPieces(Blackhole blackhole) {
+        for (ChessPosition piece : pieces) {
+            blackhole.consume(game.validMoves(piece));
+        }
+    }
+
+    @Benchmark
+    public ChessGame makeMove() throws InvalidMoveException {
+        game.makeMove(move);
+        game.undoMove();
+        return game;
+    }
+
+    @Benchmark
+    public boolean isInCheckmate() {
+        return game.isInCheckmate(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public boolean isInStalemate() {
+        return game.isInStalemate(game.getTeamTurn());
+    }
+}
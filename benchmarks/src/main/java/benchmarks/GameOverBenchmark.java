@@ -0,0 +1,49 @@
+package benchmarks;
+
+import chess.ChessGame;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * isInCheckmate and isInStalemate on positions where the answer is yes, which is when every
+ * move of the losing side has to be ruled out.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameOverBenchmark {
+    private static final String CHECKMATE_FEN = "rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3";
+    private static final String STALEMATE_FEN = "7k/5Q2/6K1/8/8/8/8/8 b - - 0 1";
+
+    private ChessGame checkmate;
+    private ChessGame stalemate;
+
+    @Setup
+    public void setup() {
+        checkmate = ChessGame.fromFen(CHECKMATE_FEN);
+        stalemate = ChessGame.fromFen(STALEMATE_FEN);
+    }
+
+    @Benchmark
+    public boolean isInCheckmate() {
+        return checkmate.isInCheckmate(checkmate.getTeamTurn());
+    }
+
+    @Benchmark
+    public boolean isInStalemate() {
+        return stalemate.isInStalemate(stalemate.getTeamTurn());
+    }
+}
@@ -0,0 +1,71 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.Perft;
+import com.google.gson.Gson;
+import model.GameData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gson round trips of the objects the server stores in the database and sends over the websocket.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+    private final Gson gson = new Gson();
+    private ChessGame game;
+    private GameData gameData;
+    private String gameJson;
+    private String gameDataJson;
+
+    @Setup
+    public void setup() {
+        game = ChessGame.fromFen(Perft.REFERENCE_POSITIONS.get(1).fen());
+        gameData = new GameData(1234, "white", "black", "benchmark", game);
+        gameJson = gson.toJson(game);
+        gameDataJson = gson.toJson(gameData);
+    }
+
+    @Benchmark
+    public String chessGameToJson() {
+        return gson.toJson(game);
+    }
+
+    @Benchmark
+    public ChessGame chessGameFromJson() {
+        return gson.fromJson(gameJson, ChessGame.class);
+    }
+
+    @Benchmark
+    public GameData gameDataRoundTrip() {
+        return gson.fromJson(gson.toJson(gameData), GameData.class);
+    }
+
+    @Benchmark
+    public GameData gameDataFromJson() {
+        return gson.fromJson(gameDataJson, GameData.class);
+    }
+
+    /**
+     * What the server does today, building a new Gson for every call
+     */
+    @Benchmark
+    public ChessGame chessGameRoundTripNewGson() {
+        return new Gson().fromJson(new Gson().toJson(game), ChessGame.class);
+    }
+}
@@ -0,0 +1,103 @@
+package benchmarks;
+
+import dataaccess.DataAccessException;
+import dataaccess.MemoryAuthDAO;
+import dataaccess.MemoryGameDAO;
+import dataaccess.MemoryUserDAO;
+import model.AuthData;
+import model.GameData;
+import model.UserData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The memory DAOs behind the service tests, filled with a given number of users and games.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemoryDaoBenchmark {
+    /** MemoryGameDAO hands out IDs from 1000 to 9999, so stay well under 9000 games */
+    @Param({"100", "1000"})
+    public int size;
+
+    private final MemoryUserDAO userDAO = new MemoryUserDAO();
+    private final MemoryAuthDAO authDAO = new MemoryAuthDAO();
+    private final MemoryGameDAO gameDAO = new MemoryGameDAO();
+    private UserData user;
+    private String authToken;
+    private int gameID;
+
+    @Setup
+    public void setup() throws DataAccessException {
+        clear();
+        for (int i = 0; i < size; i++) {
+            userDAO.registerUser(new UserData("user" + i, "password" + i, "user" + i + "@mail.com"));
+            authToken = authDAO.generateAuthToken("user" + i);
+            gameID = gameDAO.createGame("game" + i);
+        }
+        user = new UserData("user" + (size / 2), "password" + (size / 2), null);
+    }
+
+    @TearDown
+    public void clear() {
+        userDAO.clearUserData();
+        authDAO.clearAuthData();
+        gameDAO.clearGameData();
+    }
+
+    @Benchmark
+    public boolean isUserInDB() {
+        return userDAO.isUserInDB(user.username());
+    }
+
+    @Benchmark
+    public boolean checkPassword() throws DataAccessException {
+        return userDAO.checkPassword(user);
+    }
+
+    @Benchmark
+    public AuthData getAuthData() {
+        return authDAO.getAuthDataByAuthToken(authToken);
+    }
+
+    @Benchmark
+    public String generateAndLogout() {
+        String token = authDAO.generateAuthToken(user.username());
+        authDAO.logout(token);
+        return token;
+    }
+
+    @Benchmark
+    public GameData getGameByID() {
+        return gameDAO.getGameByID(gameID);
+    }
+
+    @Benchmark
+    public int listGames() {
+        Collection<GameData> games = gameDAO.getGames();
+        int open = 0;
+        for (GameData game : games) {
+            if (game.whiteUsername() == null || game.blackUsername() == null) {
+                open++;
+            }
+        }
+        return open;
+    }
+}
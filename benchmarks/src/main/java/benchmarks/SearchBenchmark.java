@@ -0,0 +1,74 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.Perft;
+import chess.Search;
+import chess.TranspositionTable;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nodes per second of a fixed-time search with 1 to 8 threads, reported as the "nodes"
+ * counter, so how well the parallel search scales can be read off across the thread counts.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+    private static final long SEARCH_MILLIS = 200;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"start", "kiwipete"})
+    public String position;
+
+    private ChessGame game;
+    private TranspositionTable table;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Nodes {
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        String fen = Perft.REFERENCE_POSITIONS.stream()
+                .filter(reference -> reference.name().equals(position))
+                .findFirst()
+                .orElseThrow()
+                .fen();
+        game = ChessGame.fromFen(fen);
+        table = new TranspositionTable(Search.DEFAULT_TABLE_MEGABYTES);
+    }
+
+    @Benchmark
+    public Search.Result search(Nodes counter) {
+        table.clear();
+        Search.Result result = new Search(game, table).search(Search.Limits.ofMillis(SEARCH_MILLIS).withThreads(threads));
+        counter.nodes += result.nodes();
+        return result;
+    }
+}
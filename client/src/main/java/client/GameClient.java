@@ -112,16 +112,17 @@ public class GameClient {
                 server.updateGame(LoggedInClient.getAuthToken(), gameID, chessGame);
                 refreshGameState();
                 String result = "";
-                if (chessGame.isInCheck(chessGame.getTeamTurn())) {
-                    result = (getTeamTurn() + " is in check");
-                }
-                if (chessGame.isInStalemate(chessGame.getTeamTurn())) {
-                    result = ("It is a stalemate!");
-                    server.setGameOver(LoggedInClient.getAuthToken(), gameID, null, "stalemate");
-                }
-                if (chessGame.isInCheckmate(chessGame.getTeamTurn())) {
-                    result = ("CHECKMATE!\n" + getOppositeTeam() + " won");
-                    server.setGameOver(LoggedInClient.getAuthToken(), gameID, getOppositeTeam(), "checkmate");
+                switch (chessGame.getGameStatus(chessGame.getTeamTurn())) {
+                    case CHECK -> result = (getTeamTurn() + " is in check");
+                    case STALEMATE -> {
+                        result = ("It is a stalemate!");
+                        server.setGameOver(LoggedInClient.getAuthToken(), gameID, null, "stalemate");
+                    }
+                    case CHECKMATE -> {
+                        result = ("CHECKMATE!\n" + getOppositeTeam() + " won");
+                        server.setGameOver(LoggedInClient.getAuthToken(), gameID, getOppositeTeam(), "checkmate");
+                    }
+                    default -> { }
                 }
 //                return String.format(DrawChessBoard.drawBoard(LoggedInClient.getPlayerColor(), board, null)+
 //                        IN_GAME_COLOR + "Move made!\n" +result + RESET_TEXT_COLOR);
@@ -366,13 +367,9 @@ public class GameClient {
      */
     public void refreshGameState() {
         try {
-            List<GameData> gameList = server.listGames(LoggedInClient.getAuthToken());
-            for (GameData game : gameList) {
-                if (game.gameID() == gameID) {
-                    this.chessGame = game.game();
-                    this.board = chessGame.getBoard();
-                }
-            }
+            GameData game = server.getGame(LoggedInClient.getAuthToken(), gameID);
+            this.chessGame = game.game();
+            this.board = chessGame.getBoard();
         } catch (ResponseException e) {
             throw new RuntimeException("Could not refresh game state: " + e.getMessage());
         }
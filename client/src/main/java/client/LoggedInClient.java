@@ -22,6 +22,10 @@ public class LoggedInClient {
     private static final boolean DETAILED_ERROR_MSG = false;
     private static String errorMsg;
     private static final HashMap<Integer, Integer> ID_LOOKUP = new HashMap<>();
+    private static final int PAGE_SIZE = 20;
+    private static final GameQuery FIRST_PAGE = new GameQuery(null, PAGE_SIZE, false, null, null,
+            GameQuery.Sort.ID, false);
+    private static String nextCursor;
     private final NotificationHandler notificationHandler;
     private WebSocketFacade ws;
 
@@ -46,7 +50,7 @@ public class LoggedInClient {
             return switch (cmd) {
                 case "logout", "out" -> logout();
                 case "create", "c" -> create(params);
-                case "list", "ll", "ls", "l" -> list();
+                case "list", "ll", "ls", "l" -> list(params);
                 case "join", "j" -> join(params);
                 case "observe", "view", "ob", "o" -> observe(params);
                 case "db", "erase" -> clear(params);
@@ -103,8 +107,13 @@ public class LoggedInClient {
                 }
                 throw new ResponseException(400, "Unable to creat game: " + errorMsg);
             }
-            ID_LOOKUP.put(ID_LOOKUP.size() + 1, gameID);
-            return String.format("You created a game named " + params[0]);
+            reloadGameIDs();
+            int number = numberOf(gameID);
+            if (number == 0) {
+                number = ID_LOOKUP.size() + 1;
+                ID_LOOKUP.put(number, gameID);
+            }
+            return String.format("You created a game named " + params[0] + " (number " + number + ")");
         }
         if (Repl.getState().equals(State.LOGGEDOUT)) {
             throw new ResponseException(400, "please log in first");
@@ -117,22 +126,25 @@ public class LoggedInClient {
 
     /**
      *
+     * @param params nothing for the first page, "more" for the page after the last one shown
      * @return the status of getting the list
      * @throws ResponseException Used for bad inputs
      */
-    public String list() throws ResponseException {
+    public String list(String... params) throws ResponseException {
         if (Repl.getState().equals(State.LOGGEDIN)) {
-            List<GameData> gameList;
-            try {
-                gameList = server.listGames(authToken);
-            } catch (ResponseException e) {
-                if (DETAILED_ERROR_MSG) {
-                    errorMsg = "";
-                    errorMsg = e.getMessage();
-                }
-                throw new ResponseException(400, "Unable to generate list: " + errorMsg);
+            boolean more = params.length == 1
+                    && (params[0].equalsIgnoreCase("more") || params[0].equalsIgnoreCase("next"));
+            if (params.length > 0 && !more) {
+                throw new ResponseException(400, "Expected: [more]");
             }
-            return String.format(listFormater(gameList));
+            if (more && nextCursor == null) {
+                return "No more games";
+            }
+            GamePage page = loadPage(more ? FIRST_PAGE.after(nextCursor) : FIRST_PAGE);
+            if (!more) {
+                ID_LOOKUP.clear();
+            }
+            return listFormater(page);
         }
         if (Repl.getState().equals(State.INGAME)) {
             throw new ResponseException(400, "please exit game first");
@@ -151,25 +163,17 @@ public class LoggedInClient {
         if (params.length == 2 && Repl.getState().equals(State.LOGGEDIN) && isInteger(params[0])) {
             int game = Integer.parseInt(params[0]);
             String passedPlayerColor = params[1].toLowerCase();
-            if (game > ID_LOOKUP.size() || game < 1) {
-                throw new ResponseException(400, "Invalid game");
+            if (!ID_LOOKUP.containsKey(game)) {
+                reloadGameIDs();
             }
-            List<GameData> gameList;
-            try {
-                gameList = server.listGames(authToken);
-            } catch (ResponseException e) {
-                if (DETAILED_ERROR_MSG) {
-                    errorMsg = "";
-                    errorMsg = e.getMessage();
-                }
-                throw new ResponseException(400, "Unable to generate list " + errorMsg);
+            if (!ID_LOOKUP.containsKey(game)) {
+                throw new ResponseException(400, "Invalid game");
             }
-            reloadGameIDs();
             setPlayerColor(passedPlayerColor);
             debug("looking up gameID");
             int gameID = ID_LOOKUP.get(game);
             debug("checking if part of game: " + gameID);
-            if (alreadyPartOfGame(gameList, gameID, passedPlayerColor)) {
+            if (alreadyPartOfGame(gameID, passedPlayerColor)) {
                 if (ws != null) {
                     ws.close();
                 }
@@ -218,9 +222,11 @@ public class LoggedInClient {
      */
     public String observe(String... params) throws ResponseException, IOException {
         if (params.length == 1 && Repl.getState().equals(State.LOGGEDIN) && isInteger(params[0])) {
-            reloadGameIDs();
             int game = Integer.parseInt(params[0]);
-            if (game > ID_LOOKUP.size() || game < 1) {
+            if (!ID_LOOKUP.containsKey(game)) {
+                reloadGameIDs();
+            }
+            if (!ID_LOOKUP.containsKey(game)) {
                 throw new ResponseException(400, "Invalid game");
             }
             int gameID = ID_LOOKUP.get(game);
@@ -278,7 +284,8 @@ public class LoggedInClient {
                     Options:
                     - "help"
                     - "create" <game name> - Makes a new game
-                    - "list" - Shows a list of all games
+                    - "list" - Shows the first page of games
+                    - "list more" - Shows the next page of games
                     - "join" <ID> <Colour> - Joins a game from the list as specified colour
                     - "observe" <ID> - Lets you observe a game in progress
                     - "logout" - logs you out, returning to login prompt
@@ -286,13 +293,45 @@ public class LoggedInClient {
         }
 
     /**
-     * Keeps games up to date in ID_LOOKUP
+     * Numbers the first page of games in ID_LOOKUP
      * @throws ResponseException
      */
     public void reloadGameIDs() throws ResponseException {
-        List<GameData> list;
+        List<GameSummary> list = loadPage(FIRST_PAGE).games();
+        ID_LOOKUP.clear();
+        int i = 0;
+        while (i < list.size()) {
+            GameSummary gameData;
+            gameData = list.get(i);
+            i++;
+            debug("adding to ID_LOOKUP: " + i + " and " + gameData.gameID());
+            ID_LOOKUP.put(i , gameData.gameID());
+        }
+    }
+
+    /**
+     * @param gameID the game to look for
+     * @return the game's number in the last listing, or 0 if it is not listed
+     */
+    private static int numberOf(int gameID) {
+        for (var entry : ID_LOOKUP.entrySet()) {
+            if (entry.getValue() == gameID) {
+                return entry.getKey();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Gets a page of games and remembers where the next one starts
+     * @param query the page to get
+     * @return the page
+     * @throws ResponseException if the list cannot be loaded
+     */
+    private GamePage loadPage(GameQuery query) throws ResponseException {
+        GamePage page;
         try {
-            list = server.listGames(authToken);
+            page = server.listGames(authToken, query);
         } catch (ResponseException e) {
             if (DETAILED_ERROR_MSG) {
                 errorMsg = "";
@@ -300,18 +339,8 @@ public class LoggedInClient {
             }
             throw new ResponseException(400, "Unable to generate list: " + errorMsg);
         }
-        if (list.isEmpty()) {
-            return;
-        }
-        int i = 0;
-        ID_LOOKUP.clear();
-        while (i < list.size()) {
-            GameData gameData;
-            gameData = list.get(i);
-            i++;
-            debug("adding to ID_LOOKUP: " + i + " and " + gameData.gameID());
-            ID_LOOKUP.put(i , gameData.gameID());
-        }
+        nextCursor = page.nextCursor();
+        return page;
     }
 
     /**
@@ -330,60 +359,61 @@ public class LoggedInClient {
 
     /**
      *
-     * @param list list of games in DB
      * @param gameID game ID you are searching for
      * @param playerColour The color you are checking against
      * @return true if the current player is  playerColor in that game, else false
      */
-    private boolean alreadyPartOfGame(List<GameData> list, int gameID, String playerColour) {
+    private boolean alreadyPartOfGame(int gameID, String playerColour) throws ResponseException {
         if (playerColour == null) {
             return false;
         }
-        int i = 0;
-        while (i < list.size()) {
-            GameData gameData = list.get(i);
-            if (gameData.gameID() == gameID &&
-                    playerColour.equals("black") &&
-                    userName.equals(gameData.blackUsername())) {
-                return true;
-            } else if (gameData.gameID() == gameID &&
-                    playerColour.equals("white") &&
-                    userName.equals(gameData.whiteUsername())){
-                return true;
+        GameData gameData;
+        try {
+            gameData = server.getGame(authToken, gameID);
+        } catch (ResponseException e) {
+            if (DETAILED_ERROR_MSG) {
+                errorMsg = "";
+                errorMsg = e.getMessage();
             }
-            i++;
+            throw new ResponseException(400, "Unable to find game " + errorMsg);
         }
-        return false;
+        if (playerColour.equals("black")) {
+            return userName.equals(gameData.blackUsername());
+        }
+        return playerColour.equals("white") && userName.equals(gameData.whiteUsername());
     }
 
     /**
      *
-     * @param list list of game from the DB
+     * @param page a page of games from the DB, numbered after the games already listed
      * @return a formated list of game for the list method
      */
-    private String listFormater(List<GameData> list) throws ResponseException {
+    private String listFormater(GamePage page) {
+        List<GameSummary> list = page.games();
         if (list.isEmpty()) {
-            return "No Games";
+            return ID_LOOKUP.isEmpty() ? "No Games" : "No more games";
         }
         StringBuilder result = new StringBuilder();
 
+        int first = ID_LOOKUP.size();
         int i = 0;
-        ID_LOOKUP.clear();
         while (i < list.size()) {
-            GameData gameData;
+            GameSummary gameData;
             gameData = list.get(i);
             String finished = "";
-            WinnerData winnerData = server.getGameOver(authToken, gameData.gameID());
-            if (winnerData.gameIsOver()) {
+            if (gameData.gameIsOver()) {
                 finished = ", FINISHED";
             }
-            result.append(String.format(i+1 + ". Name: " + gameData.gameName() +
+            result.append(String.format(first + i + 1 + ". Name: " + gameData.gameName() +
                     ", Black username: " + nullToString(gameData.blackUsername()) +
                     ", White username: " + nullToString(gameData.whiteUsername()) +
                     finished + "\n"));
             i++;
-            debug("adding to ID_LOOKUP: " + i + " and " + gameData.gameID());
-            ID_LOOKUP.put(i , gameData.gameID());
+            debug("adding to ID_LOOKUP: " + (first + i) + " and " + gameData.gameID());
+            ID_LOOKUP.put(first + i, gameData.gameID());
+        }
+        if (page.nextCursor() != null) {
+            result.append("Type \"list more\" for more games\n");
         }
         return result.toString();
     }
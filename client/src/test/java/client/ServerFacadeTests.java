@@ -9,6 +9,7 @@ import dataaccess.DataAccessException;
 import exception.ResponseException;
 import model.AuthData;
 import model.GameData;
+import model.GameSummary;
 import model.UserData;
 import model.WinnerData;
 import org.junit.jupiter.api.*;
@@ -168,14 +169,13 @@ public class ServerFacadeTests {
         ChessPosition end = new ChessPosition(3, 5);
         chessGame.makeMove(new ChessMove(start, end, null));
         assertNull(chessGame.getBoard().getPiece(new ChessPosition(2, 5)));
-        Collection<GameData> gameDataCollection = serverFacade.listGames(existingAuth);
-        GameData gameDataBefore = gameDataCollection.iterator().next();
-        assertEquals(gameDataBefore.gameID(), gameID);
+        Collection<GameSummary> gameSummaries = serverFacade.listGames(existingAuth);
+        assertEquals(gameSummaries.iterator().next().gameID(), gameID);
+        GameData gameDataBefore = serverFacade.getGame(existingAuth, gameID);
 
         serverFacade.updateGame(existingAuth, gameID, chessGame);
 
-        Collection<GameData> gameDataC = serverFacade.listGames(existingAuth);
-        GameData gameDataAfter = gameDataC.iterator().next();
+        GameData gameDataAfter = serverFacade.getGame(existingAuth, gameID);
 
         assertNotEquals(gameDataBefore.game().getBoard().getPiece(new ChessPosition(2,5)),
                 gameDataAfter.game().getBoard().getPiece(new ChessPosition(2,5)));
@@ -0,0 +1,265 @@
+package dataaccess;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded pool of database connections.
+ * <p>
+ * {@link #getConnection} hands out a connection whose {@code close} returns it to the pool, so
+ * the DAOs' try-with-resources blocks work unchanged. At most {@code maxSize} connections are
+ * out or idle at once; a caller that finds them all in use waits up to the acquire timeout and
+ * then gets an exception. Idle connections are reused most recently returned first. A connection
+ * is closed instead of reused once it passes its maximum lifetime, after sitting idle longer
+ * than the idle timeout, or when it fails validation, which runs on connections that have been
+ * idle for more than a second. A background thread closes expired idle connections so a quiet
+ * server lets them go.
+ */
+public class ConnectionPool implements AutoCloseable {
+    /** How long a connection may sit idle before it is validated again on checkout */
+    private static final long VALIDATE_AFTER_IDLE_MILLIS = 1000;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    /**
+     * Opens a new physical connection
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection connect() throws SQLException;
+    }
+
+    /**
+     * @param maxSize the most connections open at once
+     * @param acquireTimeoutMillis how long a caller waits for a connection when all are in use
+     * @param idleTimeoutMillis how long a connection may sit idle before it is closed
+     * @param maxLifetimeMillis how long a connection is used before it is replaced
+     */
+    public record Settings(int maxSize, long acquireTimeoutMillis, long idleTimeoutMillis, long maxLifetimeMillis) {
+        public static final Settings DEFAULT = new Settings(10, 5_000, 600_000, 1_800_000);
+    }
+
+    /**
+     * @param open connections open now, in use or idle
+     * @param active connections handed out and not yet returned
+     * @param idle connections waiting in the pool
+     * @param waiting callers waiting for a connection
+     * @param created connections opened since the pool started
+     * @param closed connections closed since the pool started
+     * @param timeouts callers that gave up waiting
+     */
+    public record Stats(int open, int active, int idle, int waiting, long created, long closed, long timeouts) {
+    }
+
+    /**
+     * A physical connection and when it was opened and last returned
+     */
+    private record Pooled(Connection connection, long createdAt, long returnedAt) {
+    }
+
+    private final ConnectionFactory factory;
+    private final Settings settings;
+    private final Semaphore permits;
+    private final ConcurrentLinkedDeque<Pooled> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger open = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong closed = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final ScheduledExecutorService evictor;
+
+    public ConnectionPool(ConnectionFactory factory, Settings settings) {
+        if (settings.maxSize() <= 0) {
+            throw new IllegalArgumentException("Connection pool size must be positive: " + settings.maxSize());
+        }
+        this.factory = factory;
+        this.settings = settings;
+        this.permits = new Semaphore(settings.maxSize(), true);
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "db-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1_000, Math.min(settings.idleTimeoutMillis(), settings.maxLifetimeMillis()) / 2);
+        evictor.scheduleWithFixedDelay(this::evictExpired, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return a connection to return to the pool by closing it
+     * @throws SQLException if no connection frees up within the acquire timeout or a new one cannot be opened
+     */
+    public Connection getConnection() throws SQLException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(settings.acquireTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for a database connection");
+        }
+        if (!acquired) {
+            timeouts.incrementAndGet();
+            throw new SQLException("Timed out after " + settings.acquireTimeoutMillis()
+                    + " ms waiting for a database connection");
+        }
+        try {
+            Pooled pooled = takeIdle();
+            if (pooled == null) {
+                pooled = new Pooled(factory.connect(), System.currentTimeMillis(), 0);
+                open.incrementAndGet();
+                created.incrementAndGet();
+            }
+            active.incrementAndGet();
+            return wrap(pooled);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the pool's current counts
+     */
+    public Stats stats() {
+        return new Stats(open.get(), active.get(), idle.size(), permits.getQueueLength(),
+                created.get(), closed.get(), timeouts.get());
+    }
+
+    /**
+     * Closes the idle connections and stops the evictor; connections still out are closed as
+     * they are returned
+     */
+    @Override
+    public void close() {
+        evictor.shutdownNow();
+        Pooled pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+    }
+
+    /**
+     * @return the most recently returned idle connection that is still usable, or null if there is none
+     */
+    private Pooled takeIdle() {
+        Pooled pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            long now = System.currentTimeMillis();
+            if (isExpired(pooled, now)) {
+                discard(pooled);
+            } else if (now - pooled.returnedAt() > VALIDATE_AFTER_IDLE_MILLIS && !isValid(pooled.connection())) {
+                discard(pooled);
+            } else {
+                return pooled;
+            }
+        }
+        return null;
+    }
+
+    private void release(Pooled pooled) {
+        active.decrementAndGet();
+        try {
+            Connection connection = pooled.connection();
+            if (evictor.isShutdown() || connection.isClosed() || isExpired(pooled, System.currentTimeMillis())) {
+                discard(pooled);
+                return;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            connection.clearWarnings();
+            idle.offerFirst(new Pooled(connection, pooled.createdAt(), System.currentTimeMillis()));
+        } catch (SQLException e) {
+            discard(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void evictExpired() {
+        long now = System.currentTimeMillis();
+        for (Iterator<Pooled> it = idle.descendingIterator(); it.hasNext(); ) {
+            Pooled pooled = it.next();
+            if (isExpired(pooled, now) && idle.removeFirstOccurrence(pooled)) {
+                discard(pooled);
+            }
+        }
+    }
+
+    private boolean isExpired(Pooled pooled, long now) {
+        return now - pooled.createdAt() >= settings.maxLifetimeMillis()
+                || (pooled.returnedAt() != 0 && now - pooled.returnedAt() >= settings.idleTimeoutMillis());
+    }
+
+    private static boolean isValid(Connection connection) {
+        try {
+            return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void discard(Pooled pooled) {
+        open.decrementAndGet();
+        closed.incrementAndGet();
+        try {
+            pooled.connection().close();
+        } catch (SQLException ignored) {
+            // the connection is being thrown away either way
+        }
+    }
+
+    /**
+     * @return a connection that passes every call through except close, which returns the
+     * physical connection to the pool once
+     */
+    private Connection wrap(Pooled pooled) {
+        AtomicBoolean returned = new AtomicBoolean();
+        InvocationHandler handler = (proxy, method, args) -> invoke(pooled, returned, proxy, method, args);
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, handler);
+    }
+
+    private Object invoke(Pooled pooled, AtomicBoolean returned, Object proxy, Method method, Object[] args)
+            throws Throwable {
+        switch (method.getName()) {
+            case "close":
+                if (returned.compareAndSet(false, true)) {
+                    release(pooled);
+                }
+                return null;
+            case "isClosed":
+                if (returned.get()) {
+                    return true;
+                }
+                break;
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "Pooled " + pooled.connection();
+            default:
+                if (returned.get()) {
+                    throw new SQLException("Connection has been returned to the pool");
+                }
+        }
+        try {
+            return method.invoke(pooled.connection(), args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -8,6 +8,7 @@ public class DatabaseManager {
     private static final String USER;
     private static final String PASSWORD;
     private static final String CONNECTION_URL;
+    private static final ConnectionPool POOL;
 
     /*
      * Load the database information for the db.properties file.
@@ -27,6 +28,17 @@ public class DatabaseManager {
                 var host = props.getProperty("db.host");
                 var port = Integer.parseInt(props.getProperty("db.port"));
                 CONNECTION_URL = String.format("jdbc:mysql://%s:%d", host, port);
+
+                ConnectionPool.Settings defaults = ConnectionPool.Settings.DEFAULT;
+                ConnectionPool.Settings settings = new ConnectionPool.Settings(
+                        Integer.parseInt(props.getProperty("db.pool.maxSize", String.valueOf(defaults.maxSize()))),
+                        Long.parseLong(props.getProperty("db.pool.acquireTimeoutMillis",
+                                String.valueOf(defaults.acquireTimeoutMillis()))),
+                        Long.parseLong(props.getProperty("db.pool.idleTimeoutMillis",
+                                String.valueOf(defaults.idleTimeoutMillis()))),
+                        Long.parseLong(props.getProperty("db.pool.maxLifetimeMillis",
+                                String.valueOf(defaults.maxLifetimeMillis()))));
+                POOL = new ConnectionPool(DatabaseManager::openConnection, settings);
             }
         } catch (Exception ex) {
             throw new RuntimeException("unable to process db.properties. " + ex.getMessage());
@@ -49,9 +61,10 @@ public class DatabaseManager {
     }
 
     /**
-     * Create a connection to the database and sets the catalog based upon the
-     * properties specified in db.properties. Connections to the database should
-     * be short-lived, and you must close the connection when you are done with it.
+     * Gets a connection to the database from the pool, with the catalog set from
+     * the properties specified in db.properties. Connections to the database should
+     * be short-lived, and you must close the connection when you are done with it,
+     * which returns it to the pool.
      * The easiest way to do that is with a try-with-resource block.
      * <br/>
      * <code>
@@ -62,11 +75,22 @@ public class DatabaseManager {
      */
     static Connection getConnection() throws DataAccessException {
         try {
-            var conn = DriverManager.getConnection(CONNECTION_URL, USER, PASSWORD);
-            conn.setCatalog(DATABASE_NAME);
-            return conn;
+            return POOL.getConnection();
         } catch (SQLException e) {
             throw new DataAccessException(e.getMessage());
         }
     }
+
+    /**
+     * @return the connection pool's current counts, for monitoring
+     */
+    public static ConnectionPool.Stats poolStats() {
+        return POOL.stats();
+    }
+
+    private static Connection openConnection() throws SQLException {
+        var conn = DriverManager.getConnection(CONNECTION_URL, USER, PASSWORD);
+        conn.setCatalog(DATABASE_NAME);
+        return conn;
+    }
 }
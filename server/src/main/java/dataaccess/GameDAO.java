@@ -1,16 +1,64 @@
 package dataaccess;
 
 import model.GameData;
+import model.GameMove;
+import model.GamePage;
+import model.GameQuery;
+import model.GameSummary;
 import model.WinnerData;
+import java.io.IOException;
 import java.util.Collection;
+import java.util.List;
 
 public interface GameDAO {
+    /**
+     * Receives stored games one at a time from {@link #forEachGame}
+     */
+    @FunctionalInterface
+    interface GameConsumer {
+        void accept(GameData gameData, WinnerData winnerData) throws IOException;
+    }
+
     int createGame(String gameName) throws DataAccessException;
     GameData getGameByID(int gameID) throws DataAccessException;
     void addUserToGame(String userName, int gameID, String playerColor) throws DataAccessException;
     Collection<GameData> getGames() throws DataAccessException;
+    /**
+     * Passes every game, with its whole move history and its winner data, to the consumer in
+     * game ID order. The games are read a page at a time rather than all at once.
+     * @param consumer what to do with each game
+     * @throws IOException if the consumer throws it
+     */
+    void forEachGame(GameConsumer consumer) throws DataAccessException, IOException;
+    /**
+     * @return how many games are stored
+     */
+    int countGames() throws DataAccessException;
+    /**
+     * @return every game's listing details, without reading any game's board
+     */
+    Collection<GameSummary> getGameSummaries() throws DataAccessException;
+    /**
+     * @param query which games, in what order, and where the page starts
+     * @return one page of listing details
+     * @throws IllegalArgumentException if the query's cursor is malformed
+     */
+    GamePage getGameSummaries(GameQuery query) throws DataAccessException;
     void clearGameData() throws DataAccessException;
+    /**
+     * Saves the game's chess game. When its move history carries on from the saved one, only
+     * the new moves are added to the game's move log; where the history fits is found from the
+     * position it starts from. A game whose history ends in the saved position changes
+     * nothing; otherwise the log is cut back to where the history starts and written again.
+     * @param gameID the game to update
+     * @param gameData holds the new chess game
+     */
     void updateGame(int gameID, GameData gameData) throws DataAccessException;
+    /**
+     * @param gameID the game to look up
+     * @return the game's move log, first move first; empty if nothing has been played
+     */
+    List<GameMove> getMoves(int gameID) throws DataAccessException;
     void updateWinner(int gameID, WinnerData winnerData) throws DataAccessException;
     WinnerData getWinner(int gameID) throws DataAccessException;
 }
@@ -0,0 +1,110 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.ChessGameCodec;
+
+import java.util.Arrays;
+
+/**
+ * A stretch of a game's move log with the encoded position before and after each of its moves,
+ * used by the DAOs to work out where the history of a game being saved fits into the log.
+ * Positions are compared rather than single moves, so a game whose moves happen to repeat is
+ * not mistaken for one that carries on from the log.
+ */
+final class LoggedPositions {
+    private final int firstPly;
+    private final int[] moves;
+    private final byte[][] positions;
+
+    /**
+     * @param game the game as it stood after firstPly moves, which is played on to the end of the log
+     * @param firstPly how many logged moves come before the stretch
+     * @param moves the logged moves after firstPly, oldest first, packed by {@link ChessGameCodec#encodeMoves}
+     */
+    LoggedPositions(ChessGame game, int firstPly, int[] moves) {
+        this.firstPly = firstPly;
+        this.moves = moves;
+        positions = new byte[moves.length + 1][];
+        positions[0] = ChessGameCodec.encode(game);
+        for (int i = 0; i < moves.length; i++) {
+            ChessGameCodec.playMove(game, moves[i]);
+            positions[i + 1] = ChessGameCodec.encode(game);
+        }
+    }
+
+    /**
+     * @return how many moves are logged
+     */
+    int lastPly() {
+        return firstPly + moves.length;
+    }
+
+    /**
+     * @param ply from firstPly to {@link #lastPly}
+     * @return the position after that many logged moves
+     */
+    byte[] position(int ply) {
+        return positions[ply - firstPly];
+    }
+
+    /**
+     * @param history a game's history
+     * @param offset how many logged moves come before it
+     * @return true if the history holds every move of the stretch logged after the offset,
+     * where the offset puts them
+     */
+    boolean holds(int[] history, int offset) {
+        int from = Math.max(offset, firstPly);
+        if (history.length < lastPly() - offset) {
+            return false;
+        }
+        return Arrays.equals(history, from - offset, lastPly() - offset, moves, from - firstPly, moves.length);
+    }
+
+    /**
+     * Finds where a history carries on from the log: the ply whose position the history starts
+     * from, with every move logged after that ply at the front of the history. A history
+     * starting from the first position of the stretch is taken to start there, even if the
+     * position comes again later.
+     * @param start the position the history starts from
+     * @param history the history
+     * @return how many logged moves come before the history, or -1 if it does not carry on from the log
+     */
+    int continuation(byte[] start, int[] history) {
+        if (Arrays.equals(start, positions[0])) {
+            return holds(history, firstPly) ? firstPly : -1;
+        }
+        for (int ply = firstPly + 1; ply <= lastPly(); ply++) {
+            if (Arrays.equals(start, position(ply)) && holds(history, ply)) {
+                return ply;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param start the position a history starts from
+     * @return the ply to cut the log back to before logging the history: the first ply when
+     * the history starts from the first position, else the last ply with its start position,
+     * or -1 if the position is not in the stretch
+     */
+    int rewriteFrom(byte[] start) {
+        if (Arrays.equals(start, positions[0])) {
+            return firstPly;
+        }
+        for (int ply = lastPly(); ply > firstPly; ply--) {
+            if (Arrays.equals(start, position(ply))) {
+                return ply;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param game a game
+     * @return true if the game stands in the position the log ends at
+     */
+    boolean endsAt(ChessGame game) {
+        return Arrays.equals(ChessGameCodec.encode(game), positions[moves.length]);
+    }
+}
@@ -1,15 +1,28 @@
 package dataaccess;
 
 import chess.ChessGame;
+import chess.ChessGameCodec;
 import model.GameData;
+import model.GameMove;
+import model.GamePage;
+import model.GameQuery;
+import model.GameSummary;
 import model.WinnerData;
 
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
 import java.util.HashMap;
 import java.util.Random;
 
 public class MemoryGameDAO implements GameDAO {
     private static final HashMap<Integer, GameData> GAME_INFO = new HashMap<>();
+    private static final HashMap<Integer, WinnerData> WINNERS = new HashMap<>();
+    private static final HashMap<Integer, List<GameMove>> MOVES = new HashMap<>();
+    private static final HashMap<Integer, byte[]> LOG_STARTS = new HashMap<>();
     private final Random random = new Random();
 
     /**
@@ -24,6 +37,7 @@ public class MemoryGameDAO implements GameDAO {
         } while (GAME_INFO.containsKey(gameID));
         var gameData = new GameData(gameID, null, null, gameName, new ChessGame());
         GAME_INFO.put(gameID, gameData);
+        LOG_STARTS.put(gameID, ChessGameCodec.encode(gameData.game()));
         return gameID;
     }
 
@@ -57,30 +71,69 @@ public class MemoryGameDAO implements GameDAO {
     }
 
     /**
-     * not implemented for memory
-     * @param gameID
-     * @param gameData
+     * Replaces the game's chess game, keeping its name and players, and fits its history into
+     * the move log by the positions it passes through, as the SQL DAO does: new moves are added
+     * when the history carries on from the log, a game whose history ends in the stored
+     * position changes nothing, and any other game has the log cut back and written again.
+     * @param gameID the ID of the game to update
+     * @param gameData holds the new chess game
      */
     public void updateGame(int gameID, GameData gameData) {
+        GameData game = GAME_INFO.get(gameID);
+        if (game == null) {
+            return;
+        }
+        ChessGame chessGame = gameData.game();
+        if (chessGame != null) {
+            List<GameMove> log = MOVES.computeIfAbsent(gameID, id -> new ArrayList<>());
+            int[] logMoves = log.stream().mapToInt(gameMove -> ChessGameCodec.encodeMove(gameMove.move())).toArray();
+            byte[] logStart = LOG_STARTS.getOrDefault(gameID, ChessGameCodec.encode(new ChessGame()));
+            LoggedPositions logged = new LoggedPositions(ChessGameCodec.decode(logStart), 0, logMoves);
+            int[] moves = ChessGameCodec.encodeMoves(chessGame);
+            byte[] start = ChessGameCodec.encodeStart(chessGame);
+            int base = logged.continuation(start, moves);
+            if (base < 0) {
+                if (logged.endsAt(chessGame)) {
+                    return;
+                }
+                base = logged.rewriteFrom(start);
+                if (base < 0) {
+                    base = 0;
+                    LOG_STARTS.put(gameID, start);
+                }
+                log.subList(base, log.size()).clear();
+            }
+            Instant now = Instant.now();
+            for (int i = log.size() - base; i < moves.length; i++) {
+                log.add(new GameMove(base + i + 1, ChessGameCodec.decodeMove(moves[i]), now));
+            }
+        }
+        GAME_INFO.put(gameID, new GameData(gameID, game.whiteUsername(), game.blackUsername(), game.gameName(),
+                chessGame));
+    }
 
+    /**
+     * @param gameID the ID of the game
+     * @return the game's move log, first move first
+     */
+    public List<GameMove> getMoves(int gameID) {
+        return List.copyOf(MOVES.getOrDefault(gameID, List.of()));
     }
 
     /**
-     * not implemented for memory
-     * @param gameID
-     * @param winnerData
+     * @param gameID the ID of the game that ended
+     * @param winnerData who won and how
      */
     public void updateWinner(int gameID, WinnerData winnerData) {
-
+        WINNERS.put(gameID, winnerData);
     }
 
     /**
-     * not implemented for memory
-     * @param gameID
-     * @return
+     * @param gameID the ID of the game
+     * @return the winner data, or one saying the game is not over if none was stored
      */
     public WinnerData getWinner(int gameID) {
-        return new WinnerData(false, null, null);
+        return WINNERS.getOrDefault(gameID, new WinnerData(false, null, null));
     }
 
     /**
@@ -90,10 +143,76 @@ public class MemoryGameDAO implements GameDAO {
         return GAME_INFO.values();
     }
 
+    /**
+     * @param consumer what to do with each game, in game ID order
+     * @throws IOException if the consumer throws it
+     */
+    public void forEachGame(GameConsumer consumer) throws IOException {
+        for (int gameID : GAME_INFO.keySet().stream().sorted().toList()) {
+            consumer.accept(GAME_INFO.get(gameID), getWinner(gameID));
+        }
+    }
+
+    /**
+     * @return how many games are stored
+     */
+    public int countGames() {
+        return GAME_INFO.size();
+    }
+
+    /**
+     * @return every game's listing details
+     */
+    public Collection<GameSummary> getGameSummaries() {
+        var summaries = new ArrayList<GameSummary>(GAME_INFO.size());
+        for (GameData gameData : GAME_INFO.values()) {
+            summaries.add(new GameSummary(gameData.gameID(), gameData.whiteUsername(), gameData.blackUsername(),
+                    gameData.gameName(), getWinner(gameData.gameID()).gameIsOver()));
+        }
+        return summaries;
+    }
+
+    /**
+     * Filters and sorts every game, then skips to the cursor; the SQL DAO does the same with
+     * its indexes. Names compare ignoring case, as MySQL's default collation does, so a cursor
+     * pages the same way in both DAOs.
+     * @param query which games, in what order, and where the page starts
+     * @return one page of listing details
+     */
+    public GamePage getGameSummaries(GameQuery query) {
+        Comparator<GameSummary> order = (query.sort() == GameQuery.Sort.NAME)
+                ? Comparator.comparing(GameSummary::gameName, String.CASE_INSENSITIVE_ORDER)
+                        .thenComparingInt(GameSummary::gameID)
+                : Comparator.comparingInt(GameSummary::gameID);
+        if (query.descending()) {
+            order = order.reversed();
+        }
+        GameSummary cursor = (query.cursor() == null) ? null
+                : new GameSummary(query.cursorGameID(), null, null, query.cursorGameName(), false);
+        Comparator<GameSummary> finalOrder = order;
+        List<GameSummary> matches = getGameSummaries().stream()
+                .filter(game -> !query.openOnly() || game.whiteUsername() == null || game.blackUsername() == null)
+                .filter(game -> query.player() == null || query.player().equals(game.whiteUsername())
+                        || query.player().equals(game.blackUsername()))
+                .filter(game -> query.finished() == null || query.finished() == game.gameIsOver())
+                .filter(game -> cursor == null || finalOrder.compare(game, cursor) > 0)
+                .sorted(order)
+                .limit(query.limit() + 1L)
+                .toList();
+        if (matches.size() <= query.limit()) {
+            return new GamePage(matches, null);
+        }
+        List<GameSummary> page = matches.subList(0, query.limit());
+        return new GamePage(page, GameQuery.cursorAfter(page.get(page.size() - 1)));
+    }
+
     /**
      * removes all data from the authTokens hashMap
      */
     public void clearGameData() {
         GAME_INFO.clear();
+        WINNERS.clear();
+        MOVES.clear();
+        LOG_STARTS.clear();
     }
 }
@@ -37,11 +37,13 @@ public class MemoryUserDAO implements UserDAO {
 
     /**
      * @param userData the data for the user you are registering
-     * @return The data for the user
+     * @throws DataAccessException "Username already taken" if the username exists
      */
-    public void registerUser(UserData userData) {
+    public void registerUser(UserData userData) throws DataAccessException {
         userData = new UserData(userData.username(), userData.password(), userData.email());
-        USERS.put(userData.username(), userData);
+        if (USERS.putIfAbsent(userData.username(), userData) != null) {
+            throw new DataAccessException("Username already taken");
+        }
     }
 
     /**
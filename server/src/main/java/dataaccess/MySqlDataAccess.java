@@ -44,6 +44,8 @@ public class MySqlDataAccess {
               `blackUsername` varchar(256) DEFAULT NULL,
               `gameName` varchar(256) NOT NULL,
               `chessGame` TEXT DEFAULT NULL,
+              `snapshotPly` int NOT NULL DEFAULT 0,
+              `startGame` TEXT DEFAULT NULL,
               `winnerData` TEXT DEFAULT NULL,
               PRIMARY KEY (`gameID`),
               INDEX(`whiteUsername`),
@@ -51,6 +53,25 @@ public class MySqlDataAccess {
               INDEX(`gameName`)
             ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
             """,
+
+            """
+            CREATE TABLE IF NOT EXISTS GameMoves (
+              `gameID` int NOT NULL,
+              `ply` int NOT NULL,
+              `move` smallint NOT NULL,
+              `playedAt` timestamp(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+              PRIMARY KEY (`gameID`, `ply`)
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+            """,
+    };
+
+    /**
+     * Columns added to GameData after it was first created, with their definitions, so tables
+     * made by an older server are brought up to date
+     */
+    private final String[][] addedGameDataColumns = {
+            {"snapshotPly", "int NOT NULL DEFAULT 0"},
+            {"startGame", "TEXT DEFAULT NULL"},
     };
 
     /**
@@ -65,9 +86,37 @@ public class MySqlDataAccess {
                     preparedStatement.executeUpdate();
                 }
             }
+            for (var column : addedGameDataColumns) {
+                addColumnIfMissing(conn, "GameData", column[0], column[1]);
+            }
         } catch (SQLException ex) {
             System.err.println("Database configuration failed: " + ex.getMessage());
             throw new RuntimeException(String.format("Unable to configure database: %s", ex.getMessage()));
         }
     }
+
+    /**
+     * @param conn the connection to use
+     * @param table the table to alter
+     * @param column the column's name
+     * @param definition the column's type and default
+     * @throws SQLException
+     */
+    private void addColumnIfMissing(Connection conn, String table, String column, String definition)
+            throws SQLException {
+        var statement = "SELECT COUNT(*) FROM information_schema.COLUMNS "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ?";
+        try (var ps = conn.prepareStatement(statement)) {
+            ps.setString(1, table);
+            ps.setString(2, column);
+            try (var rs = ps.executeQuery()) {
+                if (rs.next() && rs.getInt(1) > 0) {
+                    return;
+                }
+            }
+        }
+        try (var ps = conn.prepareStatement("ALTER TABLE " + table + " ADD COLUMN `" + column + "` " + definition)) {
+            ps.executeUpdate();
+        }
+    }
 }
@@ -1,41 +1,273 @@
 package dataaccess;
 
 import chess.ChessGame;
+import chess.ChessGameCodec;
 import com.google.gson.Gson;
 import model.AuthData;
 import model.GameData;
+import model.GameMove;
+import model.GamePage;
+import model.GameQuery;
+import model.GameSummary;
 import model.WinnerData;
+import java.io.IOException;
+import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Random;
 
 import static java.sql.Types.NULL;
 
+/**
+ * Games live in two tables. GameData holds each game's players, name, winner, the position its
+ * moves start from and a snapshot of its current position, both in the binary codec without
+ * any history, with the number of moves the snapshot was taken after. GameMoves is an
+ * append-only log of every move, one small row per move keyed by game and ply, so saving a move
+ * is an insert rather than a rewrite of the game. A game is read back by decoding its snapshot
+ * and playing the logged moves that came after it, so its history holds only those moves. The
+ * snapshot is written again every {@value #SNAPSHOT_INTERVAL} moves to keep that tail short.
+ */
 public class SQLGameDAO implements GameDAO {
+    /** How many moves may be logged after a game's snapshot before the snapshot is written again */
+    static final int SNAPSHOT_INTERVAL = 20;
+    /** How many games {@link #forEachGame} reads at a time */
+    static final int EXPORT_PAGE_SIZE = 100;
+
     private final Random random = new Random();
 
     /**
      * @throws DataAccessException
      */
     public void clearGameData() throws DataAccessException{
-        String statement = "DELETE FROM GameData";
-        updateData(statement);
+        updateData("DELETE FROM GameMoves");
+        updateData("DELETE FROM GameData");
     }
 
     /**
-     *
-     * @return all the games in the DB
+     * Reads the games a page at a time, as {@link #forEachGame} does, so each page takes two
+     * queries however many games it holds
+     * @return all the games in the DB, with their whole histories
      * @throws DataAccessException
      */
     public Collection<GameData> getGames() throws DataAccessException {
-        return getAllGamesFromDatabase();
+        var games = new ArrayList<GameData>();
+        var winners = new ArrayList<WinnerData>();
+        int read;
+        do {
+            int after = games.isEmpty() ? 0 : games.get(games.size() - 1).gameID();
+            read = readGamePage(after, games, winners);
+        } while (read == EXPORT_PAGE_SIZE);
+        return games;
+    }
+
+    /**
+     * Reads a page of {@value #EXPORT_PAGE_SIZE} games at a time, keyed on gameID, and hands the
+     * page on only after its connection is back in the pool
+     * @param consumer what to do with each game, in game ID order
+     * @throws DataAccessException
+     * @throws IOException if the consumer throws it
+     */
+    public void forEachGame(GameConsumer consumer) throws DataAccessException, IOException {
+        int after = 0;
+        var games = new ArrayList<GameData>();
+        var winners = new ArrayList<WinnerData>();
+        do {
+            games.clear();
+            winners.clear();
+            readGamePage(after, games, winners);
+            for (int i = 0; i < games.size(); i++) {
+                consumer.accept(games.get(i), winners.get(i));
+            }
+            if (!games.isEmpty()) {
+                after = games.get(games.size() - 1).gameID();
+            }
+        } while (games.size() == EXPORT_PAGE_SIZE);
+    }
+
+    /**
+     * Counts the rows from the primary key alone, so no game is read
+     * @return how many games are stored
+     * @throws DataAccessException
+     */
+    public int countGames() throws DataAccessException {
+        try (var conn = DatabaseManager.getConnection()) {
+            try (var ps = conn.prepareStatement("SELECT COUNT(*) FROM GameData")) {
+                try (var rs = ps.executeQuery()) {
+                    rs.next();
+                    return rs.getInt(1);
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException(String.format("unable to read data: %s", e.getMessage()));
+        }
+    }
+
+    /**
+     * Lists games from the small columns only, so the chessGame column is never read
+     * @return every game's listing details
+     * @throws DataAccessException
+     */
+    public Collection<GameSummary> getGameSummaries() throws DataAccessException {
+        var result = new ArrayList<GameSummary>();
+        try (var conn = DatabaseManager.getConnection()) {
+            var statement = "SELECT gameID, whiteUsername, blackUsername, gameName, winnerData FROM GameData";
+            try (var ps = conn.prepareStatement(statement)) {
+                try (var rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        result.add(readGameSummary(rs));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException(String.format("unable to read data: %s", e.getMessage()));
+        }
+        return result;
+    }
+
+    /**
+     * Reads one keyset page. The WHERE clause starts after the cursor's sort key and game ID, so
+     * the gameName index, or the primary key when sorting by ID, seeks straight to the page;
+     * the player filter uses the whiteUsername and blackUsername indexes. One row past the
+     * page is read to learn whether there is a next page.
+     * @param query which games, in what order, and where the page starts
+     * @return one page of listing details
+     * @throws DataAccessException
+     */
+    public GamePage getGameSummaries(GameQuery query) throws DataAccessException {
+        var where = new StringBuilder("WHERE 1 = 1");
+        var params = new ArrayList<Object>();
+        if (query.openOnly()) {
+            where.append(" AND (whiteUsername IS NULL OR blackUsername IS NULL)");
+        }
+        if (query.player() != null) {
+            where.append(" AND (whiteUsername = ? OR blackUsername = ?)");
+            params.add(query.player());
+            params.add(query.player());
+        }
+        if (query.finished() != null) {
+            where.append(query.finished() ? " AND " : " AND NOT ")
+                    .append("COALESCE(winnerData->>'$.gameIsOver', 'false') = 'true'");
+        }
+        String after = query.descending() ? "<" : ">";
+        String direction = query.descending() ? " DESC" : "";
+        String orderBy;
+        if (query.sort() == GameQuery.Sort.NAME) {
+            if (query.cursor() != null) {
+                where.append(" AND (gameName ").append(after).append(" ? OR (gameName = ? AND gameID ")
+                        .append(after).append(" ?))");
+                params.add(query.cursorGameName());
+                params.add(query.cursorGameName());
+                params.add(query.cursorGameID());
+            }
+            orderBy = "gameName" + direction + ", gameID" + direction;
+        } else {
+            if (query.cursor() != null) {
+                where.append(" AND gameID ").append(after).append(" ?");
+                params.add(query.cursorGameID());
+            }
+            orderBy = "gameID" + direction;
+        }
+        var statement = "SELECT gameID, whiteUsername, blackUsername, gameName, winnerData FROM GameData "
+                + where + " ORDER BY " + orderBy + " LIMIT ?";
+        params.add(query.limit() + 1);
+
+        var result = new ArrayList<GameSummary>();
+        try (var conn = DatabaseManager.getConnection()) {
+            try (var ps = conn.prepareStatement(statement)) {
+                for (var i = 0; i < params.size(); i++) {
+                    var param = params.get(i);
+                    if (param instanceof String p) {ps.setString(i + 1, p);}
+                    else if (param instanceof Integer p) {ps.setInt(i + 1, p);}
+                }
+                try (var rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        result.add(readGameSummary(rs));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException(String.format("unable to read data: %s", e.getMessage()));
+        }
+        if (result.size() <= query.limit()) {
+            return new GamePage(result, null);
+        }
+        List<GameSummary> page = result.subList(0, query.limit());
+        return new GamePage(page, GameQuery.cursorAfter(page.get(page.size() - 1)));
     }
 
+    /**
+     * Saves the game from the end of its log alone: the snapshot, the ply it was taken at and
+     * the fewer than {@value #SNAPSHOT_INTERVAL} moves logged after it, which give the position
+     * at every ply from the snapshot on. Where the game's history fits into the log is worked
+     * out from the position it starts from. It starts at the game's start position for a game
+     * kept in memory since it began, at the snapshot for a game read back from this DAO, or
+     * at a later ply for a game a client played a move in. When the history carries on from
+     * the log, which is the case after each move of a game in play, only the new moves are
+     * inserted, and the snapshot is written again once {@value #SNAPSHOT_INTERVAL} moves have
+     * been logged after it. A game whose history ends in the stored position, as a client's
+     * game does once the server has logged its move, changes nothing. Any other game, such as
+     * one taken back or replaced, has its log cut back and written again in one transaction.
+     * @param gameID the game to update
+     * @param gameData holds the new chess game
+     * @throws DataAccessException
+     */
     public void updateGame(int gameID, GameData gameData) throws DataAccessException {
-        String statement = "UPDATE GameData SET chessGame = ? WHERE gameID = ?";
-        updateData(statement, new Gson().toJson(gameData.game()), gameID);
+        ChessGame game = gameData.game();
+        int[] moves = ChessGameCodec.encodeMoves(game);
+        try (var conn = DatabaseManager.getConnection()) {
+            LogTail tail = readLogTail(conn, gameID);
+            if (tail == null) {
+                return;
+            }
+            LoggedPositions logged = new LoggedPositions(readChessGame(tail.snapshot()), tail.snapshotPly(),
+                    tail.moves());
+            byte[] start = ChessGameCodec.encodeStart(game);
+            int base = historyStart(game, moves, start, tail, logged);
+            if (base >= 0) {
+                insertMoves(conn, gameID, moves, logged.lastPly() - base, base);
+                if (base + moves.length - tail.snapshotPly() >= SNAPSHOT_INTERVAL) {
+                    writeSnapshot(conn, gameID, game, base + moves.length,
+                            (tail.startGame() == null) ? encodeColumn(start) : null);
+                }
+                return;
+            }
+            if (logged.endsAt(game)) {
+                return;
+            }
+            rewriteLog(conn, gameID, game, moves, start, tail, logged);
+        } catch (SQLException e) {
+            throw new DataAccessException(String.format("unable to update database: %s", e.getMessage()));
+        }
+    }
+
+    /**
+     * @param gameID the game to look up
+     * @return the game's move log, first move first
+     * @throws DataAccessException
+     */
+    public List<GameMove> getMoves(int gameID) throws DataAccessException {
+        var result = new ArrayList<GameMove>();
+        try (var conn = DatabaseManager.getConnection()) {
+            var statement = "SELECT ply, move, playedAt FROM GameMoves WHERE gameID = ? ORDER BY ply";
+            try (var ps = conn.prepareStatement(statement)) {
+                ps.setInt(1, gameID);
+                try (var rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        result.add(new GameMove(rs.getInt("ply"), ChessGameCodec.decodeMove(rs.getInt("move")),
+                                rs.getTimestamp("playedAt").toInstant()));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException(String.format("unable to read data: %s", e.getMessage()));
+        }
+        return result;
     }
 
     public void updateWinner(int gameID, WinnerData winnerData) throws DataAccessException {
@@ -89,9 +321,10 @@ public class SQLGameDAO implements GameDAO {
         do {
             gameID = 1000 + random.nextInt(9000);
         } while (isGameIDInDatabase(gameID));
-        String statement = "INSERT INTO GameData (gameID, whiteUsername, blackUsername, gameName, chessGame) VALUES (?, ?, ?, ?, ?)";
-        var chessGame = new Gson().toJson(new ChessGame());
-        updateData(statement, gameID, null, null, gameName, chessGame);
+        String statement = "INSERT INTO GameData (gameID, whiteUsername, blackUsername, gameName, chessGame, "
+                + "startGame) VALUES (?, ?, ?, ?, ?, ?)";
+        var chessGame = writeChessGame(new ChessGame());
+        updateData(statement, gameID, null, null, gameName, chessGame, chessGame);
         return gameID;
     }
 
@@ -106,47 +339,314 @@ public class SQLGameDAO implements GameDAO {
         var whiteUsername = rs.getString("whiteUsername");
         var blackUsername = rs.getString("blackUsername");
         var gameName = rs.getString("gameName");
-        var chessGameJson = rs.getString("chessGame");
-        var chessGame = new Gson().fromJson(chessGameJson, ChessGame.class);
+        var chessGame = readChessGame(rs.getString("chessGame"));
         return new GameData(gameID, whiteUsername, blackUsername, gameName, chessGame);
     }
 
     /**
      *
-     * @param rs DB response
-     * @return The winnerData if it is there, else makes one
+     * @param rs the resultSet, without the chessGame column
+     * @return a GameSummary made from the rs
      * @throws SQLException
      */
-    private WinnerData readWinner(ResultSet rs) throws SQLException {
-        if (rs.next()) {
-            var winnerDataJson = rs.getString("winnerData");
-            if (winnerDataJson != null) {
-                return new Gson().fromJson(winnerDataJson, WinnerData.class);
+    private GameSummary readGameSummary(ResultSet rs) throws SQLException {
+        var winnerDataJson = rs.getString("winnerData");
+        boolean gameIsOver = winnerDataJson != null && new Gson().fromJson(winnerDataJson, WinnerData.class).gameIsOver();
+        return new GameSummary(rs.getInt("gameID"), rs.getString("whiteUsername"), rs.getString("blackUsername"),
+                rs.getString("gameName"), gameIsOver);
+    }
+
+    /**
+     * A game's snapshot and the moves logged after it
+     * @param snapshot the chessGame column
+     * @param startGame the startGame column, null for rows written before it existed
+     * @param snapshotPly how many moves the snapshot was taken after
+     * @param moves the moves logged after the snapshot, oldest first
+     */
+    private record LogTail(String snapshot, String startGame, int snapshotPly, int[] moves) {
+    }
+
+    /**
+     * Reads the game's row and the moves logged after its snapshot in one query, which walks
+     * the GameMoves primary key from the snapshot's ply
+     * @param conn the connection to read with
+     * @param gameID the game to look up
+     * @return the game's snapshot and the log after it, or null if there is no such game
+     * @throws SQLException
+     */
+    private LogTail readLogTail(Connection conn, int gameID) throws SQLException {
+        var statement = "SELECT d.chessGame, d.startGame, d.snapshotPly, m.move FROM GameData d "
+                + "LEFT JOIN GameMoves m ON m.gameID = d.gameID AND m.ply > d.snapshotPly "
+                + "WHERE d.gameID = ? ORDER BY m.ply";
+        try (var ps = conn.prepareStatement(statement)) {
+            ps.setInt(1, gameID);
+            try (var rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                String snapshot = rs.getString("chessGame");
+                String startGame = rs.getString("startGame");
+                int snapshotPly = rs.getInt("snapshotPly");
+                var moves = new ArrayList<Integer>();
+                do {
+                    int move = rs.getInt("move");
+                    if (!rs.wasNull()) {
+                        moves.add(move);
+                    }
+                } while (rs.next());
+                return new LogTail(snapshot, startGame, snapshotPly, moves.stream().mapToInt(Integer::intValue).toArray());
             }
         }
-        return new WinnerData(false, null, null);
     }
 
     /**
-     *
-     * @return all the games from the DB
+     * A history from the game's start position carries on from the log when it holds the moves
+     * after the snapshot where the log has them and passes through the snapshot's position on
+     * the way. Any other history must start from a position of the log at or after the snapshot.
+     * @param game the game being saved
+     * @param moves its history
+     * @param start the position its history starts from
+     * @param tail the game's snapshot and the moves after it
+     * @param logged the positions from the snapshot on
+     * @return how many logged moves come before the history, or -1 if it does not carry on
+     * from the log
+     */
+    private static int historyStart(ChessGame game, int[] moves, byte[] start, LogTail tail,
+                                    LoggedPositions logged) {
+        int snapshotPly = tail.snapshotPly();
+        if (snapshotPly > 0 && Arrays.equals(start, logStart(tail)) && logged.holds(moves, 0)
+                && Arrays.equals(ChessGameCodec.encodeAt(game, snapshotPly), logged.position(snapshotPly))) {
+            return 0;
+        }
+        return logged.continuation(start, moves);
+    }
+
+    /**
+     * @param tail the game's snapshot and the moves after it
+     * @return the position the game's log starts from; a row written before startGame existed
+     * has logged nothing before its snapshot, so the snapshot is its start
+     */
+    private static byte[] logStart(LogTail tail) {
+        if (tail.startGame() != null) {
+            return Base64.getDecoder().decode(tail.startGame());
+        }
+        return (tail.snapshotPly() == 0) ? ChessGameCodec.encode(readChessGame(tail.snapshot())) : null;
+    }
+
+    /**
+     * Cuts the log back to the last ply from the snapshot on whose position the game's history
+     * starts from, or else to nothing, then logs the history and writes the snapshot
+     * @param conn the connection to write with
+     * @param gameID the game to save
+     * @param game the game as it is now
+     * @param moves its history
+     * @param start the position its history starts from
+     * @param tail the game's snapshot and the moves after it
+     * @param logged the positions from the snapshot on
+     * @throws SQLException
+     */
+    private void rewriteLog(Connection conn, int gameID, ChessGame game, int[] moves, byte[] start, LogTail tail,
+                            LoggedPositions logged) throws SQLException {
+        int base = Math.max(logged.rewriteFrom(start), 0);
+        conn.setAutoCommit(false);
+        try (var ps = conn.prepareStatement("DELETE FROM GameMoves WHERE gameID = ? AND ply > ?")) {
+            ps.setInt(1, gameID);
+            ps.setInt(2, base);
+            ps.executeUpdate();
+        }
+        insertMoves(conn, gameID, moves, 0, base);
+        writeSnapshot(conn, gameID, game, base + moves.length, (base == 0) ? encodeColumn(start) : null);
+        conn.commit();
+    }
+
+    /**
+     * Reads one page of games with their whole histories in two queries: the rows, each game
+     * decoded from the position its log starts at, then every logged move of the page's games
+     * through the GameMoves primary key. A row written before startGame existed has logged
+     * nothing before its snapshot, so it starts from its chessGame column.
+     * @param after the last game ID of the previous page, or 0
+     * @param games where the page's games are added
+     * @param winners where their winner data is added, in the same order
+     * @return how many games the page held
      * @throws DataAccessException
      */
-    private Collection<GameData> getAllGamesFromDatabase() throws DataAccessException {
-        var result = new ArrayList<GameData>();
+    private int readGamePage(int after, List<GameData> games, List<WinnerData> winners)
+            throws DataAccessException {
+        int first = games.size();
+        var chessGames = new HashMap<Integer, ChessGame>();
         try (var conn = DatabaseManager.getConnection()) {
-            var statement = "SELECT gameID, whiteUsername, blackUsername, gameName, chessGame FROM GameData";
+            var statement = "SELECT gameID, whiteUsername, blackUsername, gameName, chessGame, startGame, winnerData "
+                    + "FROM GameData WHERE gameID > ? ORDER BY gameID LIMIT ?";
+            try (var ps = conn.prepareStatement(statement)) {
+                ps.setInt(1, after);
+                ps.setInt(2, EXPORT_PAGE_SIZE);
+                try (var rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        var gameID = rs.getInt("gameID");
+                        var start = rs.getString("startGame");
+                        var chessGame = readChessGame((start != null) ? start : rs.getString("chessGame"));
+                        games.add(new GameData(gameID, rs.getString("whiteUsername"), rs.getString("blackUsername"),
+                                rs.getString("gameName"), chessGame));
+                        winners.add(parseWinner(rs.getString("winnerData")));
+                        if (chessGame != null) {
+                            chessGames.put(gameID, chessGame);
+                        }
+                    }
+                }
+            }
+            if (games.size() == first) {
+                return 0;
+            }
+            statement = "SELECT gameID, ply, move FROM GameMoves WHERE gameID BETWEEN ? AND ? ORDER BY gameID, ply";
             try (var ps = conn.prepareStatement(statement)) {
+                ps.setInt(1, games.get(first).gameID());
+                ps.setInt(2, games.get(games.size() - 1).gameID());
                 try (var rs = ps.executeQuery()) {
                     while (rs.next()) {
-                        result.add(readGame(rs));
+                        ChessGame chessGame = chessGames.get(rs.getInt("gameID"));
+                        if (chessGame != null) {
+                            ChessGameCodec.playMove(chessGame, rs.getInt("move"));
+                        }
                     }
                 }
             }
         } catch (SQLException e) {
             throw new DataAccessException(String.format("unable to read data: %s", e.getMessage()));
         }
-        return result;
+        return games.size() - first;
+    }
+
+    /**
+     * @param conn the connection to read with
+     * @param gameID the game whose log to read
+     * @param ply how many moves to skip
+     * @return the logged moves after the ply, in order
+     * @throws SQLException
+     */
+    private int[] readMovesAfter(Connection conn, int gameID, int ply) throws SQLException {
+        var moves = new ArrayList<Integer>();
+        try (var ps = conn.prepareStatement("SELECT move FROM GameMoves WHERE gameID = ? AND ply > ? ORDER BY ply")) {
+            ps.setInt(1, gameID);
+            ps.setInt(2, ply);
+            try (var rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    moves.add(rs.getInt("move"));
+                }
+            }
+        }
+        return moves.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Brings a game read from its snapshot up to date by playing the moves logged after it
+     * @param conn the connection to read with
+     * @param gameID the game whose log to read
+     * @param game the game as its snapshot left it
+     * @param snapshotPly how many moves the snapshot was taken after
+     * @throws SQLException
+     */
+    private void playLoggedMoves(Connection conn, int gameID, ChessGame game, int snapshotPly) throws SQLException {
+        for (int move : readMovesAfter(conn, gameID, snapshotPly)) {
+            ChessGameCodec.playMove(game, move);
+        }
+    }
+
+    /**
+     * @param conn the connection to write with
+     * @param gameID the game whose log to add to
+     * @param moves the game's history
+     * @param from how many of the moves are logged already
+     * @param base how many logged moves come before the history
+     * @throws SQLException
+     */
+    private void insertMoves(Connection conn, int gameID, int[] moves, int from, int base) throws SQLException {
+        if (from >= moves.length) {
+            return;
+        }
+        try (var ps = conn.prepareStatement("INSERT INTO GameMoves (gameID, ply, move) VALUES (?, ?, ?)")) {
+            for (int i = from; i < moves.length; i++) {
+                ps.setInt(1, gameID);
+                ps.setInt(2, base + i + 1);
+                ps.setInt(3, moves[i]);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    /**
+     * @param conn the connection to write with
+     * @param gameID the game whose snapshot to replace
+     * @param game the game as it is now
+     * @param ply how many moves have been played in the game
+     * @param start the position the game's log starts from, or null to keep the stored one
+     * @throws SQLException
+     */
+    private void writeSnapshot(Connection conn, int gameID, ChessGame game, int ply, String start)
+            throws SQLException {
+        var statement = "UPDATE GameData SET chessGame = ?, snapshotPly = ?, startGame = COALESCE(?, startGame) "
+                + "WHERE gameID = ?";
+        try (var ps = conn.prepareStatement(statement)) {
+            ps.setString(1, writeChessGame(game));
+            ps.setInt(2, ply);
+            ps.setString(3, start);
+            ps.setInt(4, gameID);
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * @param game the game to store
+     * @return the game's current position in the binary codec's format, Base64 encoded for the
+     * TEXT column; its history is kept in GameMoves
+     */
+    static String writeChessGame(ChessGame game) {
+        return encodeColumn(ChessGameCodec.encode(game));
+    }
+
+    /**
+     * @param bytes a position encoded by the binary codec
+     * @return the position Base64 encoded for a TEXT column, as {@link #writeChessGame} stores it
+     */
+    private static String encodeColumn(byte[] bytes) {
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+
+    /**
+     * Reads a stored game, which is either Base64 of the binary codec or, for rows written
+     * before the codec, the game's JSON
+     * @param stored the chessGame column
+     * @return the game, or null if the column is null
+     */
+    static ChessGame readChessGame(String stored) {
+        if (stored == null) {
+            return null;
+        }
+        if (stored.startsWith("{")) {
+            return ChessGameCodec.fromJson(stored);
+        }
+        return ChessGameCodec.decode(Base64.getDecoder().decode(stored));
+    }
+
+    /**
+     *
+     * @param rs DB response
+     * @return The winnerData if it is there, else makes one
+     * @throws SQLException
+     */
+    private WinnerData readWinner(ResultSet rs) throws SQLException {
+        return parseWinner(rs.next() ? rs.getString("winnerData") : null);
+    }
+
+    /**
+     * @param winnerDataJson the winnerData column
+     * @return the winnerData if it is there, else one saying the game is not over
+     */
+    private static WinnerData parseWinner(String winnerDataJson) {
+        if (winnerDataJson != null) {
+            return new Gson().fromJson(winnerDataJson, WinnerData.class);
+        }
+        return new WinnerData(false, null, null);
     }
 
     /**
@@ -160,16 +660,22 @@ public class SQLGameDAO implements GameDAO {
             var statement = "SELECT * FROM GameData WHERE gameID = ?";
             try (var ps = conn.prepareStatement(statement)) {
                 ps.setInt(1, gameID);
+                GameData gameData = null;
+                int snapshotPly = 0;
                 try (var rs = ps.executeQuery()) {
                     if (rs.next()) {
-                        return readGame(rs);
+                        gameData = readGame(rs);
+                        snapshotPly = rs.getInt("snapshotPly");
                     }
                 }
+                if (gameData != null && gameData.game() != null) {
+                    playLoggedMoves(conn, gameID, gameData.game(), snapshotPly);
+                }
+                return gameData;
             }
         } catch (SQLException e) {
             throw new DataAccessException(String.format("unable to read data: %s", e.getMessage()));
         }
-        return null;
     }
 
     /**
@@ -10,6 +10,8 @@ import java.sql.*;
 import static java.sql.Types.NULL;
 
 public class SQLUserDAO implements UserDAO {
+    /** MySQL's error code for a duplicate primary or unique key; other integrity errors are not a taken name */
+    private static final int DUPLICATE_KEY = 1062;
 
     /**
      * Clears users from UserData
@@ -21,17 +23,31 @@ public class SQLUserDAO implements UserDAO {
     }
 
     /**
+     * Inserts the user, letting the primary key on username reject a name that is taken, so
+     * checking and inserting is one round trip
      * @param userData the data for the user you are registering
-     * @return The data for the user
+     * @throws DataAccessException "Username already taken" if the username exists
      */
     public void registerUser(UserData userData) throws DataAccessException {
         String hashedPassword = BCrypt.hashpw(userData.password(), BCrypt.gensalt());
         String statement = "INSERT INTO UserData (username, password, email) VALUES (?, ?, ?)";
-        updateData(statement, userData.username(), hashedPassword, userData.email());
+        try (var conn = DatabaseManager.getConnection()) {
+            try (var ps = conn.prepareStatement(statement)) {
+                ps.setString(1, userData.username());
+                ps.setString(2, hashedPassword);
+                ps.setString(3, userData.email());
+                ps.executeUpdate();
+            }
+        } catch (SQLException e) {
+            if (e.getErrorCode() == DUPLICATE_KEY) {
+                throw new DataAccessException("Username already taken");
+            }
+            throw new DataAccessException(String.format("unable to update database: %s, %s", statement, e.getMessage()));
+        }
     }
 
     /**
-     *
+     * Reads every user, so it is for tests and tools rather than request handling
      * @return a list of users
      * @throws DataAccessException
      */
@@ -46,13 +62,17 @@ public class SQLUserDAO implements UserDAO {
      * @throws DataAccessException
      */
     public boolean isUserInDB(String userName) throws DataAccessException {
-        Collection<UserData> userData = listUsers();
-        for (UserData user : userData) {
-            if (user.username().equals(userName)) {
-                return true;
+        try (var conn = DatabaseManager.getConnection()) {
+            var statement = "SELECT 1 FROM UserData WHERE username = ?";
+            try (var ps = conn.prepareStatement(statement)) {
+                ps.setString(1, userName);
+                try (var rs = ps.executeQuery()) {
+                    return rs.next();
+                }
             }
+        } catch (SQLException e) {
+            throw new DataAccessException(String.format("unable to read data: %s", e.getMessage()));
         }
-        return false;
     }
 
     /**
@@ -5,6 +5,9 @@ import model.UserData;
 import java.util.Collection;
 
 public interface UserDAO {
+    /**
+     * @throws DataAccessException "Username already taken" if the username exists
+     */
     void registerUser(UserData u) throws DataAccessException;
     boolean isUserInDB(String userName) throws DataAccessException;
     boolean checkPassword(UserData u) throws DataAccessException;
@@ -1,27 +1,64 @@
 package server;
 
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.OpeningBook;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import dataaccess.*;
 import model.GameData;
+import model.GamePage;
+import model.GameQuery;
 import model.UserData;
 import model.WinnerData;
+import server.websocket.ConnectionManager;
 import spark.Request;
 import spark.Response;
 import service.AuthService;
 import service.UserService;
 import service.GameService;
-import java.util.Collection;
+import service.PgnService;
+import websocket.messages.NotificationMessage;
+import websocket.messages.ServerMessage;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Properties;
 
 public class Handler {
+    private static final long DEFAULT_BOT_THINK_MILLIS = 200;
+    private static final long MAX_BOT_THINK_MILLIS = 5000;
+    private static final int MAX_BOT_THREADS = Runtime.getRuntime().availableProcessors();
+    /** The system property naming the opening book file bot moves come from, if any */
+    private static final String OPENING_BOOK_PROPERTY = "chess.book";
+    /** The property, set on the command line or in db.properties, sizing the bot's transposition table in megabytes */
+    private static final String BOT_TABLE_PROPERTY = "bot.tt.megabytes";
 
     private final UserService userService;
     private final GameService gameService;
     private final AuthService authService;
+    private final PgnService pgnService;
+    private final boolean useSQL;
+    private final ConnectionManager connections;
 
     public Handler(boolean useSQL) {
+        this(useSQL, new ConnectionManager());
+    }
+
+    /**
+     * @param connections the game connections bot moves are sent to
+     */
+    public Handler(boolean useSQL, ConnectionManager connections) {
+        this.useSQL = useSQL;
+        this.connections = connections;
         //System.out.println("start");
         AuthDAO authDAO;
         UserDAO userDAO;
@@ -40,8 +77,9 @@ public class Handler {
         //System.out.println("Using DAO: " + userDAO.getClass().getSimpleName());
 
         this.userService = new UserService(authDAO, userDAO);
-        this.gameService = new GameService(authDAO, gameDAO);
+        this.gameService = new GameService(authDAO, gameDAO, loadOpeningBook(), loadBotTableMegabytes());
         this.authService = new AuthService(authDAO, userDAO, gameDAO);
+        this.pgnService = new PgnService(authDAO, gameDAO);
 
         if (useSQL) {
             new MySqlDataAccess();
@@ -209,20 +247,92 @@ public class Handler {
     /**
      * @param req the incoming request
      * @param res the response, including status code
-     * @return a list of all games
+     * @return one page of games; a request without paging parameters gets the first
+     * {@value GameQuery#DEFAULT_LIMIT}, and a page that leaves games out says so with
+     * "truncated": true and an X-Next-Cursor header as well as its nextCursor
      */
     public Object getGames(Request req, Response res) {
         try {
             String authToken = req.headers("Authorization");
-            Collection<GameData> gameData = gameService.getGames(authToken);
+            GamePage page = gameService.getGames(authToken, readGameQuery(req));
+            if (page.truncated()) {
+                res.header("X-Next-Cursor", page.nextCursor());
+            }
             res.status(200);
-            return new Gson().toJson(Map.of("games", gameData));
+            return new Gson().toJson(page);
         }
         catch(DataAccessException error) {
             if (error.getMessage().equals("Unauthorized to Get Game")) {
                 res.status(401);
+            } else if (error.getMessage().equals("bad request")) {
+                res.status(400);
             } return new Gson().toJson(Map.of("message","Error: "+ error.getMessage()));
         }
+        catch (IllegalArgumentException error) {
+            res.status(400);
+            return new Gson().toJson(Map.of("message", "Error: bad request"));
+        }
+        catch (Exception error) {
+            res.status(500);
+            return new Gson().toJson(Map.of("message", "Error: Internal Server Error"));
+        }
+    }
+
+    /**
+     * Reads the listing query parameters: cursor, limit, open=true, player, status=active|finished,
+     * sort=id|name and order=asc|desc; any that are missing take the first page's defaults
+     * @throws IllegalArgumentException if a parameter has a value that is not allowed
+     */
+    private static GameQuery readGameQuery(Request req) {
+        String limit = req.queryParams("limit");
+        String status = req.queryParams("status");
+        Boolean finished = null;
+        if ("finished".equalsIgnoreCase(status)) {
+            finished = true;
+        } else if ("active".equalsIgnoreCase(status)) {
+            finished = false;
+        } else if (status != null) {
+            throw new IllegalArgumentException("Unknown status " + status);
+        }
+        String sort = req.queryParams("sort");
+        String order = req.queryParams("order");
+        if (order != null && !order.equalsIgnoreCase("asc") && !order.equalsIgnoreCase("desc")) {
+            throw new IllegalArgumentException("Unknown order " + order);
+        }
+        return new GameQuery(req.queryParams("cursor"),
+                (limit == null) ? GameQuery.DEFAULT_LIMIT : Integer.parseInt(limit),
+                Boolean.parseBoolean(req.queryParams("open")),
+                req.queryParams("player"),
+                finished,
+                (sort == null) ? GameQuery.Sort.ID : GameQuery.Sort.valueOf(sort.toUpperCase()),
+                "desc".equalsIgnoreCase(order));
+    }
+
+    /**
+     * @param req the incoming request, with the game ID in the path
+     * @param res the response, including status code
+     * @return the game with its players and board
+     */
+    public Object getGame(Request req, Response res) {
+        try {
+            String authToken = req.headers("Authorization");
+            int gameID = Integer.parseInt(req.params("id"));
+            GameData gameData = gameService.getGame(authToken, gameID);
+            res.status(200);
+            return new Gson().toJson(gameData);
+        }
+        catch(DataAccessException error) {
+            if (error.getMessage().equals("Unauthorized to Get Game")) {
+                res.status(401);
+            } else if (error.getMessage().equals("Game not found")) {
+                res.status(404);
+            }
+            return new Gson().toJson(Map.of("message","Error: "+ error.getMessage()));
+        }
+        catch (NumberFormatException error) {
+            res.status(400);
+            return new Gson().toJson(Map.of("message", "Error: bad request"));
+        }
         catch (Exception error) {
             res.status(500);
             return new Gson().toJson(Map.of("message", "Error: Internal Server Error"));
@@ -287,4 +397,197 @@ public class Handler {
             return new Gson().toJson(Map.of("message", "Error: Internal Server Error"));
         }
     }
+
+    /**
+     * Streams the request body as PGN into new games
+     * @param req the incoming request, its body PGN text
+     * @param res the response, including status code
+     * @return how many games were imported and skipped
+     */
+    public Object importGames(Request req, Response res) {
+        try {
+            String authToken = req.headers("Authorization");
+            var pgn = new InputStreamReader(req.raw().getInputStream(), StandardCharsets.UTF_8);
+            PgnService.ImportResult result = pgnService.importGames(authToken, pgn);
+            res.status(200);
+            return new Gson().toJson(result);
+        }
+        catch(DataAccessException error) {
+            if (error.getMessage().equals("Unauthorized to Import Games")) {
+                res.status(401);
+            } return new Gson().toJson(Map.of("message","Error: "+ error.getMessage()));
+        }
+        catch (Exception error) {
+            res.status(500);
+            return new Gson().toJson(Map.of("message", "Error: Internal Server Error"));
+        }
+    }
+
+    /**
+     * Streams every game out as PGN
+     * @param req the incoming request
+     * @param res the response, including status code; its body is written here
+     * @return empty string once the PGN has been written
+     */
+    public Object exportGames(Request req, Response res) {
+        try {
+            String authToken = req.headers("Authorization");
+            res.status(200);
+            res.type("application/x-chess-pgn");
+            Writer out = new BufferedWriter(new OutputStreamWriter(res.raw().getOutputStream(), StandardCharsets.UTF_8));
+            pgnService.exportGames(authToken, out);
+            return "";
+        }
+        catch(DataAccessException error) {
+            if (error.getMessage().equals("Unauthorized to Export Games")) {
+                res.status(401);
+            } return new Gson().toJson(Map.of("message","Error: "+ error.getMessage()));
+        }
+        catch (Exception error) {
+            res.status(500);
+            return new Gson().toJson(Map.of("message", "Error: Internal Server Error"));
+        }
+    }
+
+    /**
+     * @param req the incoming request
+     * @param res the response, including status code
+     * @return the bot's transposition table size and fill rate, and the connection pool's counts
+     * when the server uses the database
+     */
+    public Object getStats(Request req, Response res) {
+        try {
+            String authToken = req.headers("Authorization");
+            var stats = new LinkedHashMap<String, Object>();
+            stats.put("botTable", gameService.botTableStats(authToken));
+            if (useSQL) {
+                stats.put("connectionPool", DatabaseManager.poolStats());
+            }
+            res.status(200);
+            return new Gson().toJson(stats);
+        }
+        catch(DataAccessException error) {
+            if (error.getMessage().equals("Unauthorized to Get Stats")) {
+                res.status(401);
+            } return new Gson().toJson(Map.of("message","Error: "+ error.getMessage()));
+        }
+        catch (Exception error) {
+            res.status(500);
+            return new Gson().toJson(Map.of("message", "Error: Internal Server Error"));
+        }
+    }
+
+    /**
+     * @return the bot table size from the bot.tt.megabytes system property, else from
+     * db.properties, else the default
+     */
+    private static int loadBotTableMegabytes() {
+        String megabytes = System.getProperty(BOT_TABLE_PROPERTY);
+        if (megabytes == null) {
+            try (var propStream = Thread.currentThread().getContextClassLoader().getResourceAsStream("db.properties")) {
+                if (propStream != null) {
+                    Properties props = new Properties();
+                    props.load(propStream);
+                    megabytes = props.getProperty(BOT_TABLE_PROPERTY);
+                }
+            } catch (IOException ex) {
+                throw new RuntimeException("unable to read db.properties. " + ex.getMessage());
+            }
+        }
+        if (megabytes == null || megabytes.isBlank()) {
+            return GameService.DEFAULT_BOT_TABLE_MEGABYTES;
+        }
+        try {
+            return Integer.parseInt(megabytes.trim());
+        } catch (NumberFormatException ex) {
+            throw new RuntimeException("bad " + BOT_TABLE_PROPERTY + ": " + megabytes);
+        }
+    }
+
+    /**
+     * Sends the board after a bot move to everyone connected to the game, as the WebSocket
+     * handler does after a player's move, with a notification of the move and of check or the
+     * end of the game. The move is already saved, so a connection that cannot be reached only
+     * misses the update.
+     */
+    private void sendBotMove(String authToken, int gameID, ChessMove move) throws DataAccessException {
+        ChessGame game = gameService.getGame(authToken, gameID).game();
+        try {
+            connections.loadGameForAll(gameID, game);
+            connections.broadcastAll(gameID, new NotificationMessage(ServerMessage.ServerMessageType.NOTIFICATION,
+                    String.format("The computer moved from %s to %s",
+                            squareName(move.getStartPosition()), squareName(move.getEndPosition()))));
+            ChessGame.TeamColor turn = game.getTeamTurn();
+            String status = switch (game.getGameStatus(turn)) {
+                case STALEMATE -> "Stalemate!";
+                case CHECKMATE -> "Checkmate!";
+                case CHECK -> turn + " is in check";
+                default -> null;
+            };
+            if (status != null) {
+                connections.broadcastAll(gameID,
+                        new NotificationMessage(ServerMessage.ServerMessageType.NOTIFICATION, status));
+            }
+        } catch (IOException ex) {
+            System.err.println("Unable to send bot move for game " + gameID + ": " + ex.getMessage());
+        }
+    }
+
+    private static String squareName(ChessPosition position) {
+        return "" + (char) ('a' + position.getColumn() - 1) + position.getRow();
+    }
+
+    private static OpeningBook loadOpeningBook() {
+        String path = System.getProperty(OPENING_BOOK_PROPERTY);
+        if (path == null || path.isBlank()) {
+            return null;
+        }
+        try {
+            return OpeningBook.open(Path.of(path));
+        } catch (IOException ex) {
+            throw new RuntimeException("unable to open opening book " + path + ". " + ex.getMessage());
+        }
+    }
+
+    /**
+     * @param req the incoming request, its body optionally holding thinkMillis and threads
+     * @param res the response, including status code
+     * @return the move the engine played
+     */
+    public Object makeBotMove(Request req, Response res) {
+        try {
+            String authToken = req.headers("Authorization");
+            int gameID = Integer.parseInt(req.params("id"));
+            long thinkMillis = DEFAULT_BOT_THINK_MILLIS;
+            int threads = 1;
+            if (req.body() != null && !req.body().isBlank()) {
+                JsonObject jsonObject = JsonParser.parseString(req.body()).getAsJsonObject();
+                if (jsonObject.has("thinkMillis")) {
+                    thinkMillis = Math.min(jsonObject.get("thinkMillis").getAsLong(), MAX_BOT_THINK_MILLIS);
+                }
+                if (jsonObject.has("threads")) {
+                    threads = Math.min(jsonObject.get("threads").getAsInt(), MAX_BOT_THREADS);
+                }
+            }
+            ChessMove move = gameService.makeBotMove(authToken, gameID, thinkMillis, threads);
+            sendBotMove(authToken, gameID, move);
+            res.status(200);
+            return new Gson().toJson(Map.of("move", move));
+        }
+        catch(DataAccessException error) {
+            if (error.getMessage().equals("Unauthorized to Make Bot Move")) {
+                res.status(401);
+            } else if (error.getMessage().equals("bad request")) {
+                res.status(400);
+            } else if (error.getMessage().equals("Game is over")
+                    || error.getMessage().equals("Not allowed to move for this side")) {
+                res.status(403);
+            }
+            return new Gson().toJson(Map.of("message","Error: "+ error.getMessage()));
+        }
+        catch (Exception error) {
+            res.status(500);
+            return new Gson().toJson(Map.of("message", "Error: Internal Server Error"));
+        }
+    }
 }
@@ -4,17 +4,20 @@ import dataaccess.*;
 import dataaccess.SQLAuthDAO;
 import dataaccess.SQLGameDAO;
 import spark.*;
+import server.websocket.ConnectionManager;
 import server.websocket.WebSocketHandler;
 
 public class Server {
     private static final boolean USE_SQL = true;
-    private final Handler handler = new Handler(USE_SQL);
+    private final Handler handler;
     private final WebSocketHandler webSocketHandler;
 
     public Server() {
+        ConnectionManager connections = new ConnectionManager();
+        handler = new Handler(USE_SQL, connections);
         AuthDAO authDAO = new SQLAuthDAO();
         GameDAO gameDAO = new SQLGameDAO();
-        webSocketHandler = new WebSocketHandler(authDAO, gameDAO);
+        webSocketHandler = new WebSocketHandler(authDAO, gameDAO, connections);
     }
 
     public int run(int desiredPort) {
@@ -31,9 +34,14 @@ public class Server {
         Spark.post("/game", handler::createGame);
         Spark.put("/game", handler::joinGame);
         Spark.get("/game", handler::getGames);
+        Spark.post("/game/pgn", handler::importGames);
+        Spark.get("/game/pgn", handler::exportGames);
+        Spark.get("/game/:id", handler::getGame);
         Spark.put("/game/:id/end", handler::updateWinner);
         Spark.get("/game/:id/status", handler::getWinner);
+        Spark.put("/game/:id/bot", handler::makeBotMove);
         Spark.put("/game/:id", handler::updateGame);
+        Spark.get("/stats", handler::getStats);
 
 
         Spark.awaitInitialization();
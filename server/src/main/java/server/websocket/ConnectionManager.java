@@ -1,6 +1,8 @@
 package server.websocket;
 
+import chess.ChessGame;
 import com.google.gson.Gson;
+import websocket.messages.LoadGameMessage;
 import websocket.messages.NotificationMessage;
 
 import java.io.IOException;
@@ -138,6 +140,19 @@ public class ConnectionManager {
         }
     }
 
+    /**
+     * sends the game's board to everyone connected to it
+     * @param gameID game to send the board to
+     * @param game the game as it is now
+     * @throws IOException
+     */
+    public void loadGameForAll(int gameID, ChessGame game) throws IOException {
+        String loadGame = new Gson().toJson(new LoadGameMessage(game));
+        for (Connection c : getConnectionsInGame(gameID)) {
+            c.send(loadGame);
+        }
+    }
+
     /**
      * little debugging
      * @param input
@@ -17,13 +17,21 @@ import java.io.IOException;
 @WebSocket
 public class WebSocketHandler {
     private boolean detailedErrorMsg;
-    private final ConnectionManager connections = new ConnectionManager();
+    private final ConnectionManager connections;
     private final AuthDAO authDAO;
     private final GameDAO gameDAO;
 
     public WebSocketHandler(AuthDAO authDAO, GameDAO gameDAO) {
+        this(authDAO, gameDAO, new ConnectionManager());
+    }
+
+    /**
+     * @param connections the game connections, shared with the HTTP handler so it can send bot moves
+     */
+    public WebSocketHandler(AuthDAO authDAO, GameDAO gameDAO, ConnectionManager connections) {
         this.authDAO = authDAO;
         this.gameDAO = gameDAO;
+        this.connections = connections;
         detailedErrorMsg = false;
     }
 
@@ -153,10 +161,7 @@ public class WebSocketHandler {
 
             gameDAO.updateGame(gameID, gameData);
 
-            LoadGameMessage loadGame = new LoadGameMessage(chessGame);
-            for (Connection conn : connections.getConnectionsInGame(gameID)) {
-                conn.send(new Gson().toJson(loadGame));
-            }
+            connections.loadGameForAll(gameID, chessGame);
 
             String moveDesc = String.format("%s moved from %s to %s", username,
                     posToString(move.getStartPosition()), posToString(move.getEndPosition()));
@@ -165,13 +170,14 @@ public class WebSocketHandler {
 
             ChessGame.TeamColor turn = chessGame.getTeamTurn();
 
-            if (chessGame.isInStalemate(turn)) {
-                connections.broadcastAll(gameID, new NotificationMessage(ServerMessage.ServerMessageType.NOTIFICATION, "Stalemate!"));
-            }
-            if (chessGame.isInCheckmate(turn)) {
-                connections.broadcastAll(gameID, new NotificationMessage(ServerMessage.ServerMessageType.NOTIFICATION, "Checkmate!"));
-            }else if (chessGame.isInCheck(turn)) {
-                connections.broadcastAll(gameID, new NotificationMessage(ServerMessage.ServerMessageType.NOTIFICATION, turn + " is in check"));
+            switch (chessGame.getGameStatus(turn)) {
+                case STALEMATE -> connections.broadcastAll(gameID,
+                        new NotificationMessage(ServerMessage.ServerMessageType.NOTIFICATION, "Stalemate!"));
+                case CHECKMATE -> connections.broadcastAll(gameID,
+                        new NotificationMessage(ServerMessage.ServerMessageType.NOTIFICATION, "Checkmate!"));
+                case CHECK -> connections.broadcastAll(gameID,
+                        new NotificationMessage(ServerMessage.ServerMessageType.NOTIFICATION, turn + " is in check"));
+                default -> { }
             }
 
         } catch (InvalidMoveException | DataAccessException e) {
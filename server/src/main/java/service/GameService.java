@@ -1,16 +1,51 @@
 package service;
 
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.InvalidMoveException;
+import chess.OpeningBook;
+import chess.Search;
+import chess.TranspositionTable;
 import dataaccess.*;
 import model.*;
 
 import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+
 public class GameService {
+        /** The default memory for the engine's transposition table, shared by every bot game of a service */
+        public static final int DEFAULT_BOT_TABLE_MEGABYTES = 64;
+
         private final GameDAO gameDAO;
         private final AuthDAO authDAO;
+        private final OpeningBook openingBook;
+        private final int botTableMegabytes;
+        private TranspositionTable botTable;
 
         public GameService(AuthDAO authDAO, GameDAO gameDAO) {
+            this(authDAO, gameDAO, null);
+        }
+
+        /**
+         * @param openingBook where bot moves come from while a game is in the book, or null to always search
+         */
+        public GameService(AuthDAO authDAO, GameDAO gameDAO, OpeningBook openingBook) {
+            this(authDAO, gameDAO, openingBook, DEFAULT_BOT_TABLE_MEGABYTES);
+        }
+
+        /**
+         * @param openingBook where bot moves come from while a game is in the book, or null to always search
+         * @param botTableMegabytes the memory for the engine's transposition table, which is only
+         * allocated when the first bot move is asked for
+         */
+        public GameService(AuthDAO authDAO, GameDAO gameDAO, OpeningBook openingBook, int botTableMegabytes) {
+            if (botTableMegabytes <= 0) {
+                throw new IllegalArgumentException("Bot table size must be positive: " + botTableMegabytes);
+            }
             this.authDAO = authDAO;
             this.gameDAO = gameDAO;
+            this.openingBook = openingBook;
+            this.botTableMegabytes = botTableMegabytes;
         }
 
     public int createGame(String authToken, String gameName) throws DataAccessException {
@@ -60,11 +95,50 @@ public class GameService {
         }
     }
 
-    public Collection<GameData> getGames(String authToken) throws DataAccessException{
+    /**
+     * @param authToken the token of the user listing games
+     * @return the first page of games by ID, without the games themselves
+     * @throws DataAccessException if the token is bad
+     */
+    public Collection<GameSummary> getGames(String authToken) throws DataAccessException{
+        return getGames(authToken, GameQuery.firstPage()).games();
+    }
+
+    /**
+     * @param authToken the token of the user listing games
+     * @param query which games, in what order, and where the page starts
+     * @return one page of listing details, without the games themselves
+     * @throws DataAccessException if the token is bad, or "bad request" if the query is
+     */
+    public GamePage getGames(String authToken, GameQuery query) throws DataAccessException{
         if (!authDAO.authTokenExists(authToken)) {
             throw new DataAccessException("Unauthorized to Get Game");
         }
-        return gameDAO.getGames();
+        if (query.limit() <= 0 || query.limit() > GameQuery.MAX_LIMIT || query.sort() == null) {
+            throw new DataAccessException("bad request");
+        }
+        try {
+            return gameDAO.getGameSummaries(query);
+        } catch (IllegalArgumentException e) {
+            throw new DataAccessException("bad request");
+        }
+    }
+
+    /**
+     * @param authToken the token of the user loading the game
+     * @param gameID the game to load
+     * @return the game with its players and board
+     * @throws DataAccessException if the token is bad or the game does not exist
+     */
+    public GameData getGame(String authToken, int gameID) throws DataAccessException {
+        if (!authDAO.authTokenExists(authToken)) {
+            throw new DataAccessException("Unauthorized to Get Game");
+        }
+        GameData gameData = gameDAO.getGameByID(gameID);
+        if (gameData == null) {
+            throw new DataAccessException("Game not found");
+        }
+        return gameData;
     }
 
     public void updateGame(String authToken, int gameID, GameData gameData) throws DataAccessException {
@@ -88,6 +162,85 @@ public class GameService {
         return gameDAO.getWinner(gameID);
     }
 
+    /**
+     * Lets the built-in engine play the next move of a game, for games against the computer.
+     * The caller must have a seat in the game, and the side to move must be the bot's, an empty
+     * seat, or the caller's own; no one can have the engine move for another player. While the
+     * position is in the opening book the move is a book move and no search runs. A move that
+     * ends the game records checkmate or stalemate as the winner data.
+     * @param authToken the token of the player asking for the move
+     * @param gameID the game to move in
+     * @param thinkMillis how long the engine may search
+     * @param threads how many threads the engine searches with
+     * @return the move the engine played
+     * @throws DataAccessException if the token is bad, the game does not exist or is over, or
+     * the caller may not move for the side to move
+     */
+    public ChessMove makeBotMove(String authToken, int gameID, long thinkMillis, int threads) throws DataAccessException {
+        AuthData authData = authDAO.getAuthDataByAuthToken(authToken);
+        if (authData == null) {
+            throw new DataAccessException("Unauthorized to Make Bot Move");
+        }
+        GameData gameData = gameDAO.getGameByID(gameID);
+        if (gameData == null || thinkMillis <= 0 || threads <= 0) {
+            throw new DataAccessException("bad request");
+        }
+        if (gameDAO.getWinner(gameID).gameIsOver()) {
+            throw new DataAccessException("Game is over");
+        }
+        ChessGame game = gameData.game();
+        String username = authData.username();
+        String seatToMove = (game.getTeamTurn() == ChessGame.TeamColor.WHITE)
+                ? gameData.whiteUsername() : gameData.blackUsername();
+        boolean seated = username.equals(gameData.whiteUsername()) || username.equals(gameData.blackUsername());
+        if (!seated || (seatToMove != null && !seatToMove.equals(username))) {
+            throw new DataAccessException("Not allowed to move for this side");
+        }
+        ChessMove move = (openingBook == null) ? null : openingBook.pick(game, ThreadLocalRandom.current());
+        if (move == null) {
+            move = new Search(game, botTable())
+                    .search(Search.Limits.ofMillis(thinkMillis).withThreads(threads))
+                    .bestMove();
+        }
+        if (move == null) {
+            throw new DataAccessException("Game is over");
+        }
+        try {
+            game.makeMove(move);
+        } catch (InvalidMoveException e) {
+            throw new DataAccessException("Engine chose an invalid move: " + e.getMessage());
+        }
+        gameDAO.updateGame(gameID, gameData);
+        switch (game.getGameStatus(game.getTeamTurn())) {
+            case CHECKMATE -> gameDAO.updateWinner(gameID, new WinnerData(true,
+                    (game.getTeamTurn() == ChessGame.TeamColor.WHITE) ? "black" : "white", "checkmate"));
+            case STALEMATE -> gameDAO.updateWinner(gameID, new WinnerData(true, null, "stalemate"));
+            default -> { }
+        }
+        return move;
+    }
+
+    /**
+     * The table is shared by every bot game of this service, so its fill rate and the age of
+     * its entries are counted over all their searches, not per game
+     * @param authToken the token of the user asking
+     * @return the engine's transposition table size and fill rate; all zero until the first bot move allocates it
+     * @throws DataAccessException if the token is bad
+     */
+    public synchronized TranspositionTable.Stats botTableStats(String authToken) throws DataAccessException {
+        if (!authDAO.authTokenExists(authToken)) {
+            throw new DataAccessException("Unauthorized to Get Stats");
+        }
+        return (botTable == null) ? new TranspositionTable.Stats(0, 0, 0) : botTable.stats();
+    }
+
+    private synchronized TranspositionTable botTable() {
+        if (botTable == null) {
+            botTable = new TranspositionTable(botTableMegabytes);
+        }
+        return botTable;
+    }
+
     public void clearGameData() throws DataAccessException {
         gameDAO.clearGameData();
     }
@@ -0,0 +1,144 @@
+package service;
+
+import chess.PgnGame;
+import chess.PgnReader;
+import chess.PgnWriter;
+import dataaccess.*;
+import model.GameData;
+import model.WinnerData;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bulk loads games from PGN and exports stored games as PGN. Both directions stream, one game
+ * at a time, so the size of the PGN is not limited by memory.
+ */
+public class PgnService {
+    /** Game IDs are four digits, so at most this many games can be stored */
+    private static final int MAX_GAMES = 9000;
+    private static final int MAX_GAME_NAME = 256;
+
+    private final GameDAO gameDAO;
+    private final AuthDAO authDAO;
+
+    public PgnService(AuthDAO authDAO, GameDAO gameDAO) {
+        this.authDAO = authDAO;
+        this.gameDAO = gameDAO;
+    }
+
+    /**
+     * @param imported how many games were stored
+     * @param skipped how many games had a bad FEN or a move that could not be played
+     */
+    public record ImportResult(int imported, int skipped) {
+    }
+
+    /**
+     * Stores every readable game of the PGN as a new game named after its players, with its
+     * moves as the game's history and its result as the winner data
+     * @param authToken the importing user's token
+     * @param pgn the PGN text
+     * @return how many games were imported and skipped
+     * @throws DataAccessException if the token is bad, the games cannot be stored or there are no game IDs left
+     * @throws IOException if the PGN cannot be read
+     */
+    public ImportResult importGames(String authToken, Reader pgn) throws DataAccessException, IOException {
+        if (!authDAO.authTokenExists(authToken)) {
+            throw new DataAccessException("Unauthorized to Import Games");
+        }
+        int freeIDs = MAX_GAMES - gameDAO.countGames();
+        PgnReader reader = new PgnReader(pgn);
+        int imported = 0;
+        int skipped = 0;
+        while (true) {
+            PgnGame pgnGame;
+            try {
+                pgnGame = reader.next();
+            } catch (IllegalArgumentException e) {
+                skipped++;
+                continue;
+            }
+            if (pgnGame == null) {
+                break;
+            }
+            if (imported == freeIDs) {
+                throw new DataAccessException("No game IDs left after importing " + imported + " games");
+            }
+            String gameName = gameName(pgnGame.tags());
+            int gameID = gameDAO.createGame(gameName);
+            gameDAO.updateGame(gameID, new GameData(gameID, null, null, gameName, pgnGame.game()));
+            WinnerData winnerData = winnerData(pgnGame);
+            if (winnerData != null) {
+                gameDAO.updateWinner(gameID, winnerData);
+            }
+            imported++;
+        }
+        return new ImportResult(imported, skipped);
+    }
+
+    /**
+     * Writes every stored game as PGN, with the game name as the Event and the players as
+     * White and Black. The DAO hands the games over a page at a time with their winner data, so
+     * neither the games nor a query per game are needed up front.
+     * @param authToken the exporting user's token
+     * @param out where the PGN goes
+     * @throws DataAccessException if the token is bad or the games cannot be read
+     * @throws IOException if the PGN cannot be written
+     */
+    public void exportGames(String authToken, Writer out) throws DataAccessException, IOException {
+        if (!authDAO.authTokenExists(authToken)) {
+            throw new DataAccessException("Unauthorized to Export Games");
+        }
+        PgnWriter writer = new PgnWriter(out);
+        gameDAO.forEachGame((gameData, winnerData) -> {
+            Map<String, String> tags = new LinkedHashMap<>();
+            tags.put("Event", gameData.gameName());
+            tags.put("White", gameData.whiteUsername() == null ? "?" : gameData.whiteUsername());
+            tags.put("Black", gameData.blackUsername() == null ? "?" : gameData.blackUsername());
+            writer.write(new PgnGame(tags, gameData.game(), result(winnerData)));
+        });
+        writer.flush();
+    }
+
+    private static String gameName(Map<String, String> tags) {
+        String white = tags.get("White");
+        String black = tags.get("Black");
+        String name;
+        if (white != null || black != null) {
+            name = (white == null ? "?" : white) + " vs " + (black == null ? "?" : black);
+        } else {
+            name = tags.getOrDefault("Event", "Imported game");
+        }
+        return name.length() > MAX_GAME_NAME ? name.substring(0, MAX_GAME_NAME) : name;
+    }
+
+    /**
+     * @return the winner data for a finished game, or null if the game is unfinished
+     */
+    private static WinnerData winnerData(PgnGame pgnGame) {
+        String method = pgnGame.tags().getOrDefault("Termination", "result");
+        return switch (pgnGame.result()) {
+            case PgnGame.WHITE_WINS -> new WinnerData(true, "white", method);
+            case PgnGame.BLACK_WINS -> new WinnerData(true, "black", method);
+            case PgnGame.DRAW -> new WinnerData(true, null, method);
+            default -> null;
+        };
+    }
+
+    private static String result(WinnerData winnerData) {
+        if (winnerData == null || !winnerData.gameIsOver()) {
+            return PgnGame.UNFINISHED;
+        }
+        if ("white".equalsIgnoreCase(winnerData.winningColor())) {
+            return PgnGame.WHITE_WINS;
+        }
+        if ("black".equalsIgnoreCase(winnerData.winningColor())) {
+            return PgnGame.BLACK_WINS;
+        }
+        return PgnGame.DRAW;
+    }
+}
@@ -22,10 +22,6 @@ public class UserService {
             throw new DataAccessException("Bad request");
         }
 
-        if (userDAO.isUserInDB(u.username())) {
-            throw new DataAccessException("Username already taken");
-        }
-
         userDAO.registerUser(u);
         String authToken = authDAO.generateAuthToken(u.username());
         return new AuthData(authToken, u.username());
@@ -0,0 +1,123 @@
+package dataaccess;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConnectionPoolTest {
+    private final List<FakeConnection> opened = new ArrayList<>();
+
+    @Test
+    public void testReusesReturnedConnection() throws SQLException {
+        try (ConnectionPool pool = new ConnectionPool(this::connect, settings(2, 100, 60_000, 60_000))) {
+            try (Connection conn = pool.getConnection()) {
+                assertFalse(conn.isClosed());
+                assertEquals(1, pool.stats().active());
+            }
+            try (Connection conn = pool.getConnection()) {
+                assertNotNull(conn);
+            }
+            assertEquals(1, opened.size());
+            assertFalse(opened.get(0).closed.get());
+            ConnectionPool.Stats stats = pool.stats();
+            assertEquals(1, stats.open());
+            assertEquals(0, stats.active());
+            assertEquals(1, stats.idle());
+            assertEquals(1, stats.created());
+        }
+        assertTrue(opened.get(0).closed.get());
+    }
+
+    @Test
+    public void testTimesOutWhenExhausted() throws SQLException {
+        try (ConnectionPool pool = new ConnectionPool(this::connect, settings(1, 50, 60_000, 60_000))) {
+            Connection held = pool.getConnection();
+            SQLException exception = assertThrows(SQLException.class, pool::getConnection);
+            assertTrue(exception.getMessage().contains("Timed out"));
+            assertEquals(1, pool.stats().timeouts());
+            held.close();
+            pool.getConnection().close();
+        }
+    }
+
+    @Test
+    public void testClosedConnectionRejectsCalls() throws SQLException {
+        try (ConnectionPool pool = new ConnectionPool(this::connect, settings(1, 50, 60_000, 60_000))) {
+            Connection conn = pool.getConnection();
+            conn.close();
+            conn.close();
+            assertTrue(conn.isClosed());
+            assertThrows(SQLException.class, conn::createStatement);
+            assertEquals(1, pool.stats().idle());
+        }
+    }
+
+    @Test
+    public void testReplacesExpiredAndInvalidConnections() throws Exception {
+        try (ConnectionPool pool = new ConnectionPool(this::connect, settings(1, 50, 60_000, 30))) {
+            pool.getConnection().close();
+            Thread.sleep(50);
+            pool.getConnection().close();
+            assertEquals(2, opened.size());
+            assertTrue(opened.get(0).closed.get());
+        }
+        opened.clear();
+        try (ConnectionPool pool = new ConnectionPool(this::connect, settings(1, 50, 60_000, 60_000))) {
+            pool.getConnection().close();
+            opened.get(0).valid.set(false);
+            Thread.sleep(1100);
+            pool.getConnection().close();
+            assertEquals(2, opened.size());
+            assertEquals(1, pool.stats().closed());
+        }
+    }
+
+    @Test
+    public void testFailedConnectReleasesSlot() {
+        ConnectionPool pool = new ConnectionPool(() -> {
+            throw new SQLException("no database");
+        }, settings(1, 50, 60_000, 60_000));
+        assertThrows(SQLException.class, pool::getConnection);
+        SQLException exception = assertThrows(SQLException.class, pool::getConnection);
+        assertEquals("no database", exception.getMessage());
+        pool.close();
+    }
+
+    private static ConnectionPool.Settings settings(int maxSize, long acquireTimeout, long idleTimeout, long maxLifetime) {
+        return new ConnectionPool.Settings(maxSize, acquireTimeout, idleTimeout, maxLifetime);
+    }
+
+    private Connection connect() {
+        FakeConnection fake = new FakeConnection();
+        opened.add(fake);
+        return fake.connection;
+    }
+
+    /**
+     * A connection that only tracks whether it is closed and valid
+     */
+    private static class FakeConnection {
+        final AtomicBoolean closed = new AtomicBoolean();
+        final AtomicBoolean valid = new AtomicBoolean(true);
+        final Connection connection = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "close" -> {
+                        closed.set(true);
+                        yield null;
+                    }
+                    case "isClosed" -> closed.get();
+                    case "isValid" -> valid.get() && !closed.get();
+                    case "getAutoCommit" -> true;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                });
+    }
+}
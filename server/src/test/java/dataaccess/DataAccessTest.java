@@ -1,11 +1,14 @@
 package dataaccess;
 
 import chess.ChessGame;
+import chess.ChessGameCodec;
 import chess.ChessMove;
 import chess.ChessPosition;
 import chess.InvalidMoveException;
 import org.junit.jupiter.api.*;
 import model.*;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.Test;
@@ -61,8 +64,10 @@ public class DataAccessTest {
     public void testClearGameDataVeryGood() throws DataAccessException {
         int gameID = gameService.createGame(existingAuth, "NewGame");
         assertNotEquals(0, gameID);
+        assertEquals(1, gameDAO.countGames());
         gameService.clearGameData();
         assertTrue(gameDAO.getGames().isEmpty());
+        assertEquals(0, gameDAO.countGames());
     }
 
     @Test
@@ -92,6 +97,17 @@ public class DataAccessTest {
         assertEquals("ExistingUser", existingUser.username());
     }
 
+    @Test
+    public void testRegisterTakenBad() throws DataAccessException {
+        Exception exception = assertThrows(DataAccessException.class, () -> {
+            userService.register(existingUser);
+        });
+
+        assertEquals("Username already taken", exception.getMessage());
+        assertTrue(userDAO.isUserInDB(existingUser.username()));
+        assertFalse(userDAO.isUserInDB("NoSuchUser"));
+    }
+
     @Test
     public void testRegisterNullPasswordBad() throws DataAccessException {
         UserData user = new UserData("NewUser", null, "e@email.com");
@@ -213,10 +229,10 @@ public class DataAccessTest {
     public void testGetGamesGood() throws DataAccessException {
         assertTrue(gameDAO.getGames().isEmpty());
         gameService.createGame(existingAuth, "testGame");
-        Collection<GameData> game1Data = gameService.getGames(existingAuth);
+        Collection<GameSummary> game1Data = gameService.getGames(existingAuth);
         assertEquals(1, game1Data.size());
         gameService.createGame(existingAuth, "testGame");
-        Collection<GameData> game2Data = gameService.getGames(existingAuth);
+        Collection<GameSummary> game2Data = gameService.getGames(existingAuth);
         assertEquals(2, game2Data.size());
     }
 
@@ -264,17 +280,82 @@ public class DataAccessTest {
         ChessPosition end = new ChessPosition(3, 5);
         chessGame.makeMove(new ChessMove(start, end, null));
         assertNull(chessGame.getBoard().getPiece(new ChessPosition(2, 5)));
-        Collection<GameData> gameDataCollection = gameService.getGames(existingAuth);
-        GameData gameDataBefore = gameDataCollection.iterator().next();
+        Collection<GameSummary> gameSummaries = gameService.getGames(existingAuth);
+        GameData gameDataBefore = gameService.getGame(existingAuth, gameSummaries.iterator().next().gameID());
         //System.out.println(chessGame.getBoard().getPiece(new ChessPosition(2,5)).getPieceType());
         //System.out.println("Game before ID: " + gameDataBefore.gameID());
         gameService.updateGame(existingAuth, gameDataBefore.gameID(), new GameData(gameDataBefore.gameID(), null, null, null, chessGame));
-        Collection<GameData> gameDataC = gameService.getGames(existingAuth);
-        GameData gameDataAfter = gameDataC.iterator().next();
+        GameData gameDataAfter = gameService.getGame(existingAuth, gameDataBefore.gameID());
         assertNotEquals(gameDataBefore.game().getBoard().getPiece(new ChessPosition(2,5)),
                 gameDataAfter.game().getBoard().getPiece(new ChessPosition(2,5)));
     }
 
+    @Test
+    public void testUpdateGameLogsMovesAndRebuilds() throws DataAccessException, InvalidMoveException, IOException {
+        int gameID = gameService.createGame(existingAuth, "loggedGame");
+        ChessGame chessGame = new ChessGame();
+        ChessMove[] knightShuffle = {
+                new ChessMove(new ChessPosition(1, 2), new ChessPosition(3, 3), null),
+                new ChessMove(new ChessPosition(8, 2), new ChessPosition(6, 3), null),
+                new ChessMove(new ChessPosition(3, 3), new ChessPosition(1, 2), null),
+                new ChessMove(new ChessPosition(6, 3), new ChessPosition(8, 2), null)
+        };
+        int plies = SQLGameDAO.SNAPSHOT_INTERVAL + 3;
+        for (int i = 0; i < plies; i++) {
+            chessGame.makeMove(knightShuffle[i % knightShuffle.length]);
+            gameDAO.updateGame(gameID, new GameData(gameID, null, null, null, chessGame));
+        }
+        assertEquals(plies, gameDAO.getMoves(gameID).size());
+        ChessGame stored = gameDAO.getGameByID(gameID).game();
+        assertEquals(chessGame, stored);
+        assertEquals(chessGame.getMoveHistory().subList(SQLGameDAO.SNAPSHOT_INTERVAL, plies), stored.getMoveHistory());
+
+        stored.makeMove(knightShuffle[plies % knightShuffle.length]);
+        gameDAO.updateGame(gameID, new GameData(gameID, null, null, null, stored));
+        assertEquals(plies + 1, gameDAO.getMoves(gameID).size());
+
+        ChessGame withoutHistory = ChessGameCodec.decode(ChessGameCodec.encode(stored));
+        gameDAO.updateGame(gameID, new GameData(gameID, null, null, null, withoutHistory));
+        assertEquals(plies + 1, gameDAO.getMoves(gameID).size());
+
+        stored.undoMove();
+        stored.undoMove();
+        gameDAO.updateGame(gameID, new GameData(gameID, null, null, null, stored));
+        assertEquals(plies - 1, gameDAO.getMoves(gameID).size());
+        assertEquals(stored, gameDAO.getGameByID(gameID).game());
+
+        var exported = new ArrayList<ChessGame>();
+        gameDAO.forEachGame((exportedGame, winnerData) -> exported.add(exportedGame.game()));
+        assertEquals(chessGame.getMoveHistory().subList(0, plies - 1), exported.get(0).getMoveHistory());
+    }
+
+    @Test
+    public void testUpdateGameKeepsLogForClientMove() throws DataAccessException, InvalidMoveException {
+        int gameID = gameService.createGame(existingAuth, "clientGame");
+        ChessMove[] knightShuffle = {
+                new ChessMove(new ChessPosition(1, 2), new ChessPosition(3, 3), null),
+                new ChessMove(new ChessPosition(8, 2), new ChessPosition(6, 3), null),
+                new ChessMove(new ChessPosition(3, 3), new ChessPosition(1, 2), null),
+                new ChessMove(new ChessPosition(6, 3), new ChessPosition(8, 2), null)
+        };
+        int plies = SQLGameDAO.SNAPSHOT_INTERVAL + 6;
+        ChessGame clientGame = null;
+        for (int i = 0; i < plies; i++) {
+            ChessGame serverGame = gameDAO.getGameByID(gameID).game();
+            clientGame = ChessGameCodec.decode(ChessGameCodec.encode(serverGame));
+            serverGame.makeMove(knightShuffle[i % knightShuffle.length]);
+            gameDAO.updateGame(gameID, new GameData(gameID, null, null, null, serverGame));
+        }
+        clientGame.makeMove(knightShuffle[(plies - 1) % knightShuffle.length]);
+        gameDAO.updateGame(gameID, new GameData(gameID, null, null, null, clientGame));
+        var moves = gameDAO.getMoves(gameID);
+        assertEquals(plies, moves.size());
+        for (int i = 0; i < plies; i++) {
+            assertEquals(knightShuffle[i % knightShuffle.length], moves.get(i).move());
+        }
+        assertEquals(clientGame, gameDAO.getGameByID(gameID).game());
+    }
+
     @Test
     public void testUpdateGameBadAuth() {
         Exception exception = assertThrows(DataAccessException.class, () -> {
@@ -1,9 +1,20 @@
 package service;
 
+import chess.ChessGame;
+import chess.ChessGameCodec;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
 import dataaccess.*;
 import org.junit.jupiter.api.*;
 import model.*;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.Test;
 
@@ -11,6 +22,7 @@ public class ServiceTests {
     private final UserService userService = new UserService(new MemoryAuthDAO(), new MemoryUserDAO());
     private final GameService gameService = new GameService(new MemoryAuthDAO(), new MemoryGameDAO());
     private final AuthService authService = new AuthService(new MemoryAuthDAO(), new MemoryUserDAO(), new MemoryGameDAO());
+    private final PgnService pgnService = new PgnService(new MemoryAuthDAO(), new MemoryGameDAO());
     private final GameDAO gameDAO = new MemoryGameDAO();
     private final AuthDAO authDAO = new MemoryAuthDAO();
     private final UserDAO userDAO = new MemoryUserDAO();
@@ -62,10 +74,12 @@ public class ServiceTests {
         int gameID = gameService.createGame(existingAuth, "NewGame");
         assertNotEquals(0, gameID);
         assertFalse(gameDAO.getGames().isEmpty());
+        assertEquals(1, gameDAO.countGames());
 
         gameService.clearGameData();
 
         assertTrue(gameDAO.getGames().isEmpty());
+        assertEquals(0, gameDAO.countGames());
     }
 
     @Test
@@ -95,6 +109,17 @@ public class ServiceTests {
         assertEquals("ExistingUser", existingUser.username());
     }
 
+    @Test
+    public void testRegisterTaken() throws DataAccessException {
+        Exception exception = assertThrows(DataAccessException.class, () -> {
+            userService.register(existingUser);
+        });
+
+        assertEquals("Username already taken", exception.getMessage());
+        assertTrue(userDAO.isUserInDB(existingUser.username()));
+        assertFalse(userDAO.isUserInDB("NoSuchUser"));
+    }
+
     @Test
     public void testRegisterNullPassword() throws DataAccessException {
         UserData user = new UserData("User", null, "e@email.com");
@@ -242,14 +267,172 @@ public class ServiceTests {
     public void testGetGamesSuccess() throws DataAccessException {
         assertTrue(gameDAO.getGames().isEmpty());
         gameService.createGame(existingAuth, "testGame");
-        Collection<GameData> game1Data = gameService.getGames(existingAuth);
+        Collection<GameSummary> game1Data = gameService.getGames(existingAuth);
         assertEquals(1, game1Data.size());
         gameService.createGame(existingAuth, "testGame");
-        Collection<GameData> game2Data = gameService.getGames(existingAuth);
+        Collection<GameSummary> game2Data = gameService.getGames(existingAuth);
         assertEquals(2, game2Data.size());
         //System.out.println("Games: " + game1Data);
     }
 
+    @Test
+    public void testGetGamesSummarizes() throws DataAccessException {
+        int gameID = gameService.createGame(existingAuth, "summaryGame");
+        gameService.joinGame(existingAuth, "WHITE", gameID, false);
+        gameService.updateWinner(existingAuth, gameID, new WinnerData(true, "white", "resign"));
+        GameSummary summary = gameService.getGames(existingAuth).iterator().next();
+        assertEquals(new GameSummary(gameID, "ExistingUser", null, "summaryGame", true), summary);
+
+        GameData gameData = gameService.getGame(existingAuth, gameID);
+        assertEquals("summaryGame", gameData.gameName());
+        assertNotNull(gameData.game());
+    }
+
+    @Test
+    public void testGetGameMissing() {
+        Exception exception = assertThrows(DataAccessException.class, () -> {
+            gameService.getGame(existingAuth, 1);
+        });
+        assertEquals("Game not found", exception.getMessage());
+        exception = assertThrows(DataAccessException.class, () -> {
+            gameService.getGame(null, 1);
+        });
+        assertEquals("Unauthorized to Get Game", exception.getMessage());
+    }
+
+    @Test
+    public void testGetGamesPages() throws DataAccessException {
+        int one = gameService.createGame(existingAuth, "first");
+        int other = gameService.createGame(existingAuth, "second");
+        int first = Math.min(one, other);
+        int second = Math.max(one, other);
+        GameQuery query = new GameQuery(null, 1, false, null, null, GameQuery.Sort.ID, false);
+
+        GamePage page = gameService.getGames(existingAuth, query);
+        assertEquals(List.of(first), ids(page));
+        assertNotNull(page.nextCursor());
+
+        page = gameService.getGames(existingAuth, query.after(page.nextCursor()));
+        assertEquals(List.of(second), ids(page));
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    public void testGetGamesFiltersAndSorts() throws DataAccessException {
+        int open = gameService.createGame(existingAuth, "b-open");
+        int joined = gameService.createGame(existingAuth, "c-joined");
+        int finished = gameService.createGame(existingAuth, "a-finished");
+        gameService.joinGame(existingAuth, "WHITE", joined, false);
+        gameService.joinGame(existingAuth, "WHITE", finished, false);
+        gameService.joinGame(existingAuth, "BLACK", finished, false);
+        gameService.updateWinner(existingAuth, finished, new WinnerData(true, "white", "resign"));
+
+        GameQuery openOnly = new GameQuery(null, 10, true, null, null, GameQuery.Sort.ID, false);
+        assertEquals(sorted(open, joined), ids(gameService.getGames(existingAuth, openOnly)));
+        GameQuery player = new GameQuery(null, 10, false, "ExistingUser", null, GameQuery.Sort.ID, false);
+        assertEquals(sorted(joined, finished), ids(gameService.getGames(existingAuth, player)));
+        GameQuery done = new GameQuery(null, 10, false, null, true, GameQuery.Sort.ID, false);
+        assertEquals(List.of(finished), ids(gameService.getGames(existingAuth, done)));
+        GameQuery active = new GameQuery(null, 10, false, null, false, GameQuery.Sort.ID, false);
+        assertEquals(sorted(open, joined), ids(gameService.getGames(existingAuth, active)));
+
+        GameQuery byName = new GameQuery(null, 2, false, null, null, GameQuery.Sort.NAME, true);
+        GamePage page = gameService.getGames(existingAuth, byName);
+        assertEquals(List.of(joined, open), ids(page));
+        assertEquals(List.of(finished), ids(gameService.getGames(existingAuth, byName.after(page.nextCursor()))));
+    }
+
+    @Test
+    public void testGetGamesSortsNamesIgnoringCase() throws DataAccessException {
+        int lower = gameService.createGame(existingAuth, "alpha");
+        int upper = gameService.createGame(existingAuth, "Alpha");
+        int last = gameService.createGame(existingAuth, "beta");
+        int first = gameService.createGame(existingAuth, "Aardvark");
+        List<Integer> expected = new ArrayList<>(List.of(first));
+        expected.addAll(sorted(lower, upper));
+        expected.add(last);
+
+        GameQuery byName = new GameQuery(null, 1, false, null, null, GameQuery.Sort.NAME, false);
+        List<Integer> paged = new ArrayList<>();
+        GamePage page = gameService.getGames(existingAuth, byName);
+        paged.addAll(ids(page));
+        while (page.nextCursor() != null) {
+            assertTrue(page.truncated());
+            page = gameService.getGames(existingAuth, byName.after(page.nextCursor()));
+            paged.addAll(ids(page));
+        }
+        assertFalse(page.truncated());
+        assertEquals(expected, paged);
+    }
+
+    @Test
+    public void testGetGamesBadQuery() {
+        GameQuery badCursor = new GameQuery("not a cursor!", 10, false, null, null, GameQuery.Sort.ID, false);
+        Exception exception = assertThrows(DataAccessException.class, () -> {
+            gameService.getGames(existingAuth, badCursor);
+        });
+        assertEquals("bad request", exception.getMessage());
+        GameQuery tooMany = new GameQuery(null, GameQuery.MAX_LIMIT + 1, false, null, null, GameQuery.Sort.ID, false);
+        exception = assertThrows(DataAccessException.class, () -> {
+            gameService.getGames(existingAuth, tooMany);
+        });
+        assertEquals("bad request", exception.getMessage());
+    }
+
+    private static List<Integer> ids(GamePage page) {
+        return page.games().stream().map(GameSummary::gameID).toList();
+    }
+
+    private static List<Integer> sorted(Integer... gameIDs) {
+        return Arrays.stream(gameIDs).sorted().toList();
+    }
+
+    @Test
+    public void testUpdateGameLogsMoves() throws DataAccessException, InvalidMoveException {
+        int gameID = gameService.createGame(existingAuth, "loggedGame");
+        ChessGame chessGame = gameService.getGame(existingAuth, gameID).game();
+        ChessMove first = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        ChessMove second = new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null);
+        chessGame.makeMove(first);
+        gameService.updateGame(existingAuth, gameID, new GameData(gameID, null, null, null, chessGame));
+        chessGame.makeMove(second);
+        gameService.updateGame(existingAuth, gameID, new GameData(gameID, null, null, null, chessGame));
+        List<GameMove> moves = gameDAO.getMoves(gameID);
+        assertEquals(List.of(1, 2), moves.stream().map(GameMove::ply).toList());
+        assertEquals(List.of(first, second), moves.stream().map(GameMove::move).toList());
+
+        ChessGame withoutHistory = ChessGameCodec.decode(ChessGameCodec.encode(chessGame));
+        gameService.updateGame(existingAuth, gameID, new GameData(gameID, null, null, null, withoutHistory));
+        assertEquals(2, gameDAO.getMoves(gameID).size());
+
+        chessGame.undoMove();
+        chessGame.undoMove();
+        ChessMove other = new ChessMove(new ChessPosition(2, 4), new ChessPosition(4, 4), null);
+        chessGame.makeMove(other);
+        gameService.updateGame(existingAuth, gameID, new GameData(gameID, null, null, null, chessGame));
+        assertEquals(List.of(other), gameDAO.getMoves(gameID).stream().map(GameMove::move).toList());
+    }
+
+    @Test
+    public void testUpdateGameKeepsLogForClientMove() throws DataAccessException, InvalidMoveException {
+        int gameID = gameService.createGame(existingAuth, "clientGame");
+        List<ChessMove> played = List.of(
+                new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null),
+                new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null),
+                new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null),
+                new ChessMove(new ChessPosition(8, 2), new ChessPosition(6, 3), null));
+        ChessGame clientGame = null;
+        for (ChessMove move : played) {
+            ChessGame serverGame = gameService.getGame(existingAuth, gameID).game();
+            clientGame = ChessGameCodec.decode(ChessGameCodec.encode(serverGame));
+            serverGame.makeMove(move);
+            gameService.updateGame(existingAuth, gameID, new GameData(gameID, null, null, null, serverGame));
+        }
+        clientGame.makeMove(played.get(played.size() - 1));
+        gameService.updateGame(existingAuth, gameID, new GameData(gameID, null, null, null, clientGame));
+        assertEquals(played, gameDAO.getMoves(gameID).stream().map(GameMove::move).toList());
+    }
+
     @Test
     public void testGameGetNoAuth() throws DataAccessException {
         Exception exception = assertThrows(DataAccessException.class, () -> {
@@ -258,4 +441,129 @@ public class ServiceTests {
         assertEquals("Unauthorized to Get Game", exception.getMessage());
 
     }
+
+    @Test
+    public void testImportAndExportPgn() throws DataAccessException, IOException {
+        String pgn = """
+                [White "Anderssen"]
+                [Black "Kieseritzky"]
+                [Result "1-0"]
+
+                1. e4 e5 2. f4 exf4 3. Bc4 Qh4+ 4. Kf1 1-0
+
+                [Event "broken"]
+
+                1. e4 e4 *
+                """;
+        PgnService.ImportResult result = pgnService.importGames(existingAuth, new StringReader(pgn));
+        assertEquals(new PgnService.ImportResult(1, 1), result);
+
+        GameData game = gameDAO.getGames().iterator().next();
+        assertEquals("Anderssen vs Kieseritzky", game.gameName());
+        assertEquals(7, game.game().getMoveCount());
+        assertEquals("white", gameDAO.getWinner(game.gameID()).winningColor());
+
+        StringWriter out = new StringWriter();
+        pgnService.exportGames(existingAuth, out);
+        assertTrue(out.toString().contains("[Event \"Anderssen vs Kieseritzky\"]"), out.toString());
+        assertTrue(out.toString().contains("1. e4 e5 2. f4 exf4 3. Bc4 Qh4+ 4. Kf1 1-0"), out.toString());
+    }
+
+    @Test
+    public void testImportPgnNoAuth() {
+        Exception exception = assertThrows(DataAccessException.class, () -> {
+            pgnService.importGames(null, new StringReader(""));
+        });
+        assertEquals("Unauthorized to Import Games", exception.getMessage());
+    }
+
+    @Test
+    public void testMakeBotMove() throws DataAccessException {
+        int gameID = gameService.createGame(existingAuth, "botGame");
+        gameService.joinGame(existingAuth, "BLACK", gameID, false);
+        assertNotNull(gameService.makeBotMove(existingAuth, gameID, 50, 2));
+        GameData gameData = gameDAO.getGameByID(gameID);
+        assertEquals(1, gameData.game().getMoveCount());
+        assertEquals(chess.ChessGame.TeamColor.BLACK, gameData.game().getTeamTurn());
+    }
+
+    @Test
+    public void testMakeBotMoveOnlyForOwnOrBotSide() throws DataAccessException {
+        int gameID = gameService.createGame(existingAuth, "humanGame");
+        Exception exception = assertThrows(DataAccessException.class, () -> {
+            gameService.makeBotMove(existingAuth, gameID, 50, 1);
+        });
+        assertEquals("Not allowed to move for this side", exception.getMessage());
+
+        String otherAuth = userService.register(newUser).authToken();
+        gameService.joinGame(otherAuth, "WHITE", gameID, false);
+        gameService.joinGame(existingAuth, "BLACK", gameID, false);
+        exception = assertThrows(DataAccessException.class, () -> {
+            gameService.makeBotMove(existingAuth, gameID, 50, 1);
+        });
+        assertEquals("Not allowed to move for this side", exception.getMessage());
+        assertNotNull(gameService.makeBotMove(otherAuth, gameID, 50, 1));
+    }
+
+    @Test
+    public void testMakeBotMoveRecordsCheckmate() throws DataAccessException, InvalidMoveException {
+        int gameID = gameService.createGame(existingAuth, "matingGame");
+        gameService.joinGame(existingAuth, "WHITE", gameID, false);
+        ChessGame chessGame = gameService.getGame(existingAuth, gameID).game();
+        chessGame.makeMove(new ChessMove(new ChessPosition(2, 6), new ChessPosition(3, 6), null));
+        chessGame.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+        chessGame.makeMove(new ChessMove(new ChessPosition(2, 7), new ChessPosition(4, 7), null));
+        gameService.updateGame(existingAuth, gameID, new GameData(gameID, null, null, null, chessGame));
+
+        ChessMove mate = new ChessMove(new ChessPosition(8, 4), new ChessPosition(4, 8), null);
+        assertEquals(mate, gameService.makeBotMove(existingAuth, gameID, 50, 1));
+        assertEquals(new WinnerData(true, "black", "checkmate"), gameService.getWinner(existingAuth, gameID));
+    }
+
+    @Test
+    public void testBotTableSizedAndReported() throws DataAccessException {
+        GameService smallTableService = new GameService(new MemoryAuthDAO(), new MemoryGameDAO(), null, 1);
+        assertEquals(0, smallTableService.botTableStats(existingAuth).sizeInBytes());
+        int gameID = smallTableService.createGame(existingAuth, "botGame");
+        smallTableService.joinGame(existingAuth, "BLACK", gameID, false);
+        smallTableService.makeBotMove(existingAuth, gameID, 50, 1);
+        chess.TranspositionTable.Stats stats = smallTableService.botTableStats(existingAuth);
+        assertEquals(1 << 20, stats.sizeInBytes());
+        assertTrue(stats.hashfull() > 0);
+        assertThrows(IllegalArgumentException.class, () -> new GameService(new MemoryAuthDAO(), new MemoryGameDAO(), null, 0));
+    }
+
+    @Test
+    public void testBotTableStatsBadAuth() {
+        Exception exception = assertThrows(DataAccessException.class, () -> {
+            gameService.botTableStats("badAuth");
+        });
+        assertEquals("Unauthorized to Get Stats", exception.getMessage());
+    }
+
+    @Test
+    public void testMakeBotMoveFromBook() throws Exception {
+        chess.ChessMove d4 = new chess.ChessMove(chess.ChessPosition.of(2, 4), chess.ChessPosition.of(4, 4), null);
+        chess.OpeningBookWriter writer = new chess.OpeningBookWriter();
+        writer.add(new chess.ChessGame(), d4, 1);
+        java.nio.file.Path path = java.nio.file.Files.createTempFile("book", ".bin");
+        try {
+            writer.write(path);
+            GameService bookService = new GameService(new MemoryAuthDAO(), new MemoryGameDAO(), chess.OpeningBook.open(path));
+            int gameID = bookService.createGame(existingAuth, "bookGame");
+            bookService.joinGame(existingAuth, "BLACK", gameID, false);
+            assertEquals(d4, bookService.makeBotMove(existingAuth, gameID, 50, 1));
+            assertNotNull(bookService.makeBotMove(existingAuth, gameID, 50, 1));
+        } finally {
+            java.nio.file.Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void testMakeBotMoveNoAuth() {
+        Exception exception = assertThrows(DataAccessException.class, () -> {
+            gameService.makeBotMove(null, 1234, 50, 1);
+        });
+        assertEquals("Unauthorized to Make Bot Move", exception.getMessage());
+    }
 }
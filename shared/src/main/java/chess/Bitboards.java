@@ -0,0 +1,91 @@
+package chess;
+
+/**
+ * Square numbering and precomputed attack tables for the bitboard board representation.
+ * Squares are numbered 0 (row 1, column 1) through 63 (row 8, column 8), so bit n of a
+ * bitboard is set when square n is part of the set.
+ */
+final class Bitboards {
+    static final long RANK_1 = 0xFFL;
+    static final long RANK_8 = 0xFFL << 56;
+
+    static final long[] KNIGHT_ATTACKS = new long[64];
+    static final long[] KING_ATTACKS = new long[64];
+    /** Squares a pawn of the given color ordinal attacks from each square */
+    static final long[][] PAWN_ATTACKS = new long[2][64];
+    /** Squares strictly between two squares on the same row, column or diagonal, otherwise empty */
+    static final long[][] BETWEEN = new long[64][64];
+
+    private static final int[][] KNIGHT_OFFSETS = {
+            {2, 1}, {1, 2}, {-1, 2}, {-2, 1}, {-2, -1}, {-1, -2}, {1, -2}, {2, -1}
+    };
+    private static final int[][] KING_OFFSETS = {
+            {1, 0}, {1, 1}, {0, 1}, {-1, 1}, {-1, 0}, {-1, -1}, {0, -1}, {1, -1}
+    };
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            KNIGHT_ATTACKS[square] = hopTargets(square, KNIGHT_OFFSETS);
+            KING_ATTACKS[square] = hopTargets(square, KING_OFFSETS);
+            PAWN_ATTACKS[0][square] = hopTargets(square, new int[][]{ {1, 1}, {1, -1} });
+            PAWN_ATTACKS[1][square] = hopTargets(square, new int[][]{ {-1, 1}, {-1, -1} });
+            for (int[] direction : KING_OFFSETS) {
+                long between = 0L;
+                int row = row(square) + direction[0];
+                int col = column(square) + direction[1];
+                while (isOnBoard(row, col)) {
+                    BETWEEN[square][square(row, col)] = between;
+                    between |= 1L << square(row, col);
+                    row += direction[0];
+                    col += direction[1];
+                }
+            }
+        }
+    }
+
+    private Bitboards() {
+    }
+
+    /**
+     * @param row 1 through 8
+     * @param col 1 through 8
+     * @return the square index of the row and column
+     */
+    static int square(int row, int col) {
+        return (row - 1) * 8 + (col - 1);
+    }
+
+    static int square(ChessPosition position) {
+        return square(position.getRow(), position.getColumn());
+    }
+
+    /**
+     * @return the row (1 through 8) of the square
+     */
+    static int row(int square) {
+        return (square >>> 3) + 1;
+    }
+
+    /**
+     * @return the column (1 through 8) of the square
+     */
+    static int column(int square) {
+        return (square & 7) + 1;
+    }
+
+    static boolean isOnBoard(int row, int col) {
+        return row >= 1 && row <= 8 && col >= 1 && col <= 8;
+    }
+
+    private static long hopTargets(int square, int[][] offsets) {
+        long targets = 0L;
+        for (int[] offset : offsets) {
+            int row = row(square) + offset[0];
+            int col = column(square) + offset[1];
+            if (isOnBoard(row, col)) {
+                targets |= 1L << square(row, col);
+            }
+        }
+        return targets;
+    }
+}
@@ -1,19 +1,51 @@
 package chess;
 
 import java.util.Arrays;
-import java.util.Objects;
 
 /**
  * A chessboard that can hold and rearrange chess pieces.
  * <p>
+ * Pieces are stored as bitboards, one 64-bit mask per team and piece type plus an
+ * occupancy mask per team. A 64-square mailbox backs {@link #getPiece} so lookups
+ * by position stay constant time.
+ * <p>
+ * The board also keeps the running totals {@link Evaluation} scores positions from, updated
+ * with the Zobrist key whenever a piece is placed or removed.
+ * <p>
+ * Castling needs to know whether the kings and rooks have left their starting squares, so the
+ * board keeps an "unmoved" flag for each of e1, a1, h1, e8, a8 and h8. Placing a piece on one
+ * of those squares with {@link #addPiece} sets its flag and moving a piece from or onto it clears it.
+ * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
 public class ChessBoard {
-    private final ChessPiece[][] chessBoard;
+    private final long[] pieceBitboards;
+    private final long[] teamBitboards;
+    private final ChessPiece[] squares;
+    private long zobristKey;
+    private int middlegameScore;
+    private int endgameScore;
+    private int phase;
+    private int unmoved;
+
+    /** The squares with an unmoved flag: e1, a1, h1, e8, a8 and h8 */
+    private static final int[] CASTLING_SQUARES = {4, 0, 7, 60, 56, 63};
+    /** FEN letters indexed like {@link #pieceBitboards}: white K Q B N R P, then black */
+    private static final String FEN_PIECES = "KQBNRPkqbnrp";
+    /** The flag bit of each square in {@code unmoved}, 0 for squares without a flag */
+    private static final int[] UNMOVED_BITS = new int[64];
+
+    static {
+        for (int i = 0; i < CASTLING_SQUARES.length; i++) {
+            UNMOVED_BITS[CASTLING_SQUARES[i]] = 1 << i;
+        }
+    }
 
     public ChessBoard() {
-        this.chessBoard = new ChessPiece[9][9];
+        this.pieceBitboards = new long[12];
+        this.teamBitboards = new long[2];
+        this.squares = new ChessPiece[64];
     }
 
     @Override
@@ -22,12 +54,20 @@ public class ChessBoard {
             return false;
         }
         ChessBoard that = (ChessBoard) o;
-        return Objects.deepEquals(chessBoard, that.chessBoard);
+        return Arrays.equals(pieceBitboards, that.pieceBitboards);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(chessBoard);
+        return Long.hashCode(zobristKey);
+    }
+
+    /**
+     * @return the Zobrist key of the piece placement, kept up to date as pieces are added,
+     * moved and removed
+     */
+    public long getZobristKey() {
+        return zobristKey;
     }
 
     /**
@@ -37,7 +77,13 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        chessBoard[position.getRow()][position.getColumn()] = piece;
+        int square = Bitboards.square(position);
+        if (piece == null) {
+            clearSquare(square);
+        } else {
+            setSquare(square, piece);
+        }
+        setUnmoved(square, piece != null);
     }
 
     /**
@@ -48,7 +94,266 @@ public class ChessBoard {
      * position
      */
     public ChessPiece getPiece(ChessPosition position) {
-        return chessBoard[position.getRow()][position.getColumn()];
+        if (!isInBounds(position)) {
+            return null;
+        }
+        return squares[Bitboards.square(position)];
+    }
+
+    /**
+     * @param square the square index, 0 through 63
+     * @return the piece on the square, or null if it is empty
+     */
+    ChessPiece pieceAt(int square) {
+        return squares[square];
+    }
+
+    /**
+     * Places a piece on a square, replacing whatever was there
+     * @param square the square index, 0 through 63
+     * @param piece the piece to place, must not be null
+     */
+    void setSquare(int square, ChessPiece piece) {
+        clearSquare(square);
+        long bit = 1L << square;
+        int index = index(piece.getTeamColor(), piece.getPieceType());
+        pieceBitboards[index] |= bit;
+        teamBitboards[piece.getTeamColor().ordinal()] |= bit;
+        squares[square] = piece;
+        zobristKey ^= Zobrist.pieceKey(piece.getTeamColor(), piece.getPieceType(), square);
+        middlegameScore += Evaluation.middlegame(index, square);
+        endgameScore += Evaluation.endgame(index, square);
+        phase += Evaluation.phaseWeight(piece.getPieceType());
+    }
+
+    /**
+     * Removes whatever piece is on a square
+     * @param square the square index, 0 through 63
+     */
+    void clearSquare(int square) {
+        ChessPiece piece = squares[square];
+        if (piece == null) {
+            return;
+        }
+        long mask = ~(1L << square);
+        int index = index(piece.getTeamColor(), piece.getPieceType());
+        pieceBitboards[index] &= mask;
+        teamBitboards[piece.getTeamColor().ordinal()] &= mask;
+        squares[square] = null;
+        zobristKey ^= Zobrist.pieceKey(piece.getTeamColor(), piece.getPieceType(), square);
+        middlegameScore -= Evaluation.middlegame(index, square);
+        endgameScore -= Evaluation.endgame(index, square);
+        phase -= Evaluation.phaseWeight(piece.getPieceType());
+    }
+
+    /**
+     * @param square the square index, 0 through 63
+     * @return true if the square is one of e1, a1, h1, e8, a8 or h8 and no piece has moved
+     * from or onto it since its piece was placed
+     */
+    boolean isUnmoved(int square) {
+        return (unmoved & UNMOVED_BITS[square]) != 0;
+    }
+
+    /**
+     * Sets or clears a square's unmoved flag; squares other than e1, a1, h1, e8, a8 and h8 are ignored
+     * @param square the square index, 0 through 63
+     * @param isUnmoved the new flag
+     */
+    void setUnmoved(int square, boolean isUnmoved) {
+        if (isUnmoved) {
+            unmoved |= UNMOVED_BITS[square];
+        } else {
+            unmoved &= ~UNMOVED_BITS[square];
+        }
+    }
+
+    /**
+     * @return every unmoved flag packed into 6 bits, for saving and restoring with {@link #setUnmovedState}
+     */
+    int unmovedState() {
+        return unmoved;
+    }
+
+    void setUnmovedState(int unmovedState) {
+        unmoved = unmovedState;
+    }
+
+    /**
+     * @return the summed middlegame scores of every piece, positive when white is ahead
+     */
+    int middlegameScore() {
+        return middlegameScore;
+    }
+
+    /**
+     * @return the summed endgame scores of every piece, positive when white is ahead
+     */
+    int endgameScore() {
+        return endgameScore;
+    }
+
+    /**
+     * @return the summed phase weights of every piece
+     */
+    int phase() {
+        return phase;
+    }
+
+    /**
+     * @return the squares holding pieces of the given team and type
+     */
+    long bitboard(ChessGame.TeamColor teamColor, ChessPiece.PieceType type) {
+        return pieceBitboards[index(teamColor, type)];
+    }
+
+    /**
+     * @return the squares holding any piece of the given team
+     */
+    long occupancy(ChessGame.TeamColor teamColor) {
+        return teamBitboards[teamColor.ordinal()];
+    }
+
+    /**
+     * @return every occupied square on the board
+     */
+    long occupied() {
+        return teamBitboards[0] | teamBitboards[1];
+    }
+
+    /**
+     * @param teamColor the team whose king to find
+     * @return the square of the team's king, or -1 if the team has no king on the board
+     */
+    int kingSquare(ChessGame.TeamColor teamColor) {
+        long king = pieceBitboards[index(teamColor, ChessPiece.PieceType.KING)];
+        return (king == 0) ? -1 : Long.numberOfTrailingZeros(king);
+    }
+
+    /**
+     * Looks outward from a square for pieces that attack it: knight jumps, pawn diagonals,
+     * the adjacent king and the first piece along each rook and bishop ray
+     * @param square the square being attacked
+     * @param attackingTeam the team whose pieces are attacking
+     * @param occupied the occupancy used to block slider rays, normally {@link #occupied()}
+     * @return the squares of every attacking piece
+     */
+    long attackersTo(int square, ChessGame.TeamColor attackingTeam, long occupied) {
+        int base = attackingTeam.ordinal() * 6;
+        int defender = 1 - attackingTeam.ordinal();
+        long queens = pieceBitboards[base + ChessPiece.PieceType.QUEEN.ordinal()];
+        long rooks = pieceBitboards[base + ChessPiece.PieceType.ROOK.ordinal()] | queens;
+        long bishops = pieceBitboards[base + ChessPiece.PieceType.BISHOP.ordinal()] | queens;
+        return (Bitboards.KNIGHT_ATTACKS[square] & pieceBitboards[base + ChessPiece.PieceType.KNIGHT.ordinal()])
+                | (Bitboards.KING_ATTACKS[square] & pieceBitboards[base + ChessPiece.PieceType.KING.ordinal()])
+                | (Bitboards.PAWN_ATTACKS[defender][square] & pieceBitboards[base + ChessPiece.PieceType.PAWN.ordinal()])
+                | (MagicBitboards.rookAttacks(square, occupied) & rooks)
+                | (MagicBitboards.bishopAttacks(square, occupied) & bishops);
+    }
+
+    /**
+     * @param square the square being attacked
+     * @param attackingTeam the team whose pieces are attacking
+     * @return true if any piece of the attacking team attacks the square
+     */
+    boolean isSquareAttacked(int square, ChessGame.TeamColor attackingTeam) {
+        return attackersTo(square, attackingTeam, occupied()) != 0;
+    }
+
+    private static int index(ChessGame.TeamColor teamColor, ChessPiece.PieceType type) {
+        return teamColor.ordinal() * 6 + type.ordinal();
+    }
+
+    /**
+     * Reads a board from the piece placement field of a FEN string, such as
+     * {@code rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR}. Anything after the first space is ignored.
+     * Kings and rooks on their home squares count as unmoved; {@link ChessGame#fromFen} narrows
+     * that down using the castling field.
+     * @param fen a FEN string or just its placement field
+     * @return the board
+     * @throws IllegalArgumentException if the placement cannot be read
+     */
+    public static ChessBoard fromFen(String fen) {
+        ChessBoard board = new ChessBoard();
+        board.readFenPlacement(fen);
+        return board;
+    }
+
+    /**
+     * Places the pieces of a FEN placement field on this empty board
+     * @param fen the FEN string, starting with the placement field
+     * @return the index just past the placement field
+     * @throws IllegalArgumentException if the placement cannot be read
+     */
+    int readFenPlacement(String fen) {
+        int row = 8;
+        int col = 1;
+        int i = 0;
+        for (; i < fen.length() && fen.charAt(i) != ' '; i++) {
+            char c = fen.charAt(i);
+            if (c == '/') {
+                if (col != 9 || row == 1) {
+                    throw new IllegalArgumentException("FEN row " + row + " does not have 8 squares: " + fen);
+                }
+                row--;
+                col = 1;
+            } else if (c >= '1' && c <= '8') {
+                col += c - '0';
+            } else {
+                int piece = FEN_PIECES.indexOf(c);
+                if (piece < 0) {
+                    throw new IllegalArgumentException("Bad FEN piece '" + c + "': " + fen);
+                }
+                if (col > 8) {
+                    throw new IllegalArgumentException("FEN row " + row + " does not have 8 squares: " + fen);
+                }
+                int square = Bitboards.square(row, col);
+                setSquare(square, ChessPiece.of(ChessGame.TeamColor.values()[piece / 6],
+                        ChessPiece.PieceType.values()[piece % 6]));
+                setUnmoved(square, true);
+                col++;
+            }
+            if (col > 9) {
+                throw new IllegalArgumentException("FEN row " + row + " does not have 8 squares: " + fen);
+            }
+        }
+        if (row != 1 || col != 9) {
+            throw new IllegalArgumentException("FEN placement does not cover the board: " + fen);
+        }
+        return i;
+    }
+
+    /**
+     * @return the piece placement field of this board in FEN, rank 8 first
+     */
+    public String toFen() {
+        StringBuilder fen = new StringBuilder(72);
+        appendFenPlacement(fen);
+        return fen.toString();
+    }
+
+    void appendFenPlacement(StringBuilder fen) {
+        for (int row = 8; row >= 1; row--) {
+            int empty = 0;
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = squares[Bitboards.square(row, col)];
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                fen.append(FEN_PIECES.charAt(index(piece.getTeamColor(), piece.getPieceType())));
+            }
+            if (empty > 0) {
+                fen.append((char) ('0' + empty));
+            }
+            if (row > 1) {
+                fen.append('/');
+            }
+        }
     }
 
     /**
@@ -56,38 +361,41 @@ public class ChessBoard {
      * (How the game of chess normally starts)
      */
     public void resetBoard() {
-        for (int col = 0; col <= 8; col++) {
-            for (int row = 0; row <= 8; row++) {
-                chessBoard[row][col] = null;
-            }
-        }
+        Arrays.fill(pieceBitboards, 0L);
+        Arrays.fill(teamBitboards, 0L);
+        Arrays.fill(squares, null);
+        zobristKey = 0L;
+        middlegameScore = 0;
+        endgameScore = 0;
+        phase = 0;
+        unmoved = 0;
 
         int column = 1;
         while (column <= 8) {
-            addPiece(new ChessPosition(2, column), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.pieceType.PAWN));
-            addPiece(new ChessPosition(7, column), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.pieceType.PAWN));
+            addPiece(ChessPosition.of(2, column), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.pieceType.PAWN));
+            addPiece(ChessPosition.of(7, column), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.pieceType.PAWN));
             column++;
         }
 
         //WhitePieces
-        addPiece(new ChessPosition(1, 1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.pieceType.ROOK));
-        addPiece(new ChessPosition(1, 2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.pieceType.KNIGHT));
-        addPiece(new ChessPosition(1, 3), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.pieceType.BISHOP));
-        addPiece(new ChessPosition(1, 4), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.pieceType.QUEEN));
-        addPiece(new ChessPosition(1, 5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.pieceType.KING));
-        addPiece(new ChessPosition(1, 6), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.pieceType.BISHOP));
-        addPiece(new ChessPosition(1, 7), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.pieceType.KNIGHT));
-        addPiece(new ChessPosition(1, 8), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.pieceType.ROOK));
+        addPiece(ChessPosition.of(1, 1), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.pieceType.ROOK));
+        addPiece(ChessPosition.of(1, 2), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.pieceType.KNIGHT));
+        addPiece(ChessPosition.of(1, 3), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.pieceType.BISHOP));
+        addPiece(ChessPosition.of(1, 4), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.pieceType.QUEEN));
+        addPiece(ChessPosition.of(1, 5), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.pieceType.KING));
+        addPiece(ChessPosition.of(1, 6), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.pieceType.BISHOP));
+        addPiece(ChessPosition.of(1, 7), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.pieceType.KNIGHT));
+        addPiece(ChessPosition.of(1, 8), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.pieceType.ROOK));
 
         //BlackPieces
-        addPiece(new ChessPosition(8, 1), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.pieceType.ROOK));
-        addPiece(new ChessPosition(8, 2), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.pieceType.KNIGHT));
-        addPiece(new ChessPosition(8, 3), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.pieceType.BISHOP));
-        addPiece(new ChessPosition(8, 4), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.pieceType.QUEEN));
-        addPiece(new ChessPosition(8, 5), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.pieceType.KING));
-        addPiece(new ChessPosition(8, 6), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.pieceType.BISHOP));
-        addPiece(new ChessPosition(8, 7), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.pieceType.KNIGHT));
-        addPiece(new ChessPosition(8, 8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.pieceType.ROOK));
+        addPiece(ChessPosition.of(8, 1), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.pieceType.ROOK));
+        addPiece(ChessPosition.of(8, 2), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.pieceType.KNIGHT));
+        addPiece(ChessPosition.of(8, 3), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.pieceType.BISHOP));
+        addPiece(ChessPosition.of(8, 4), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.pieceType.QUEEN));
+        addPiece(ChessPosition.of(8, 5), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.pieceType.KING));
+        addPiece(ChessPosition.of(8, 6), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.pieceType.BISHOP));
+        addPiece(ChessPosition.of(8, 7), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.pieceType.KNIGHT));
+        addPiece(ChessPosition.of(8, 8), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.pieceType.ROOK));
     }
 
     /**
@@ -110,11 +418,7 @@ public class ChessBoard {
      * @return True if the piece is a different color or if the space is empty
      */
     public boolean isOccupiedByEnemy(ChessPosition checkPosition, ChessPiece myPiece) {
-        if (getPiece(checkPosition) == null) {
-            return true;
-        }
-        ChessPiece occupiedPiece = getPiece(checkPosition);
-        return occupiedPiece.getTeamColor() != myPiece.getTeamColor();
+        return (occupancy(myPiece.getTeamColor()) & (1L << Bitboards.square(checkPosition))) == 0;
     }
 
     /**
@@ -123,7 +427,7 @@ public class ChessBoard {
      * @return returns true if occupied
      */
     public boolean isOccupied(ChessPosition checkPosition) {
-        return getPiece(checkPosition) != null;
+        return (occupied() & (1L << Bitboards.square(checkPosition))) != 0;
     }
 
     /**
@@ -143,11 +447,8 @@ public class ChessBoard {
      * @return Ture only if the space is occupied by an enemy piece, else false
      */
     public boolean pawnIsOccupiedByEnemy(ChessPosition checkPosition, ChessPiece myPiece) {
-        if (getPiece(checkPosition) == null) {
-            return false;
-        }
-        ChessPiece occupiedPiece = getPiece(checkPosition);
-        return occupiedPiece.getTeamColor() != myPiece.getTeamColor();
+        long enemies = occupied() & ~occupancy(myPiece.getTeamColor());
+        return (enemies & (1L << Bitboards.square(checkPosition))) != 0;
     }
 
     /**
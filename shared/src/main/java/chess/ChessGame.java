@@ -3,7 +3,9 @@ package chess;
 import chess.ChessPiece.PieceType;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -19,6 +21,26 @@ public class ChessGame {
     private boolean canEnPassant;
     private int enPassantCol;
 
+    // Undo records pushed by doMove, packed as described by the UNDO_* constants below
+    private static final int UNDO_TO_SHIFT = 6;
+    private static final int UNDO_KIND_SHIFT = 12;
+    private static final long UNDO_CAN_EN_PASSANT = 1L << 14;
+    private static final int UNDO_EN_PASSANT_COL_SHIFT = 15;
+    private static final int UNDO_UNMOVED_SHIFT = 19;
+    private static final int UNDO_PROMOTION_SHIFT = 25;
+    private static final int KIND_NORMAL = 0;
+    private static final int KIND_CASTLE = 1;
+    private static final int KIND_EN_PASSANT = 2;
+    private static final int KIND_PROMOTION = 3;
+
+    private transient long[] undoRecords = new long[64];
+    private transient ChessPiece[] undoMovers = new ChessPiece[64];
+    private transient ChessPiece[] undoCaptures = new ChessPiece[64];
+    private transient int undoCount;
+
+    private final transient LegalMoveGenerator moveGenerator = new LegalMoveGenerator(this);
+    private final transient MoveList moveBuffer = new MoveList();
+
     public ChessGame() {
         teamTurn = TeamColor.WHITE;
         chessBoard = new ChessBoard();
@@ -38,7 +60,145 @@ public class ChessGame {
 
     @Override
     public int hashCode() {
-        return Objects.hash(teamTurn, chessBoard);
+        return Long.hashCode(chessBoard.getZobristKey() ^ (teamTurn == TeamColor.BLACK ? Zobrist.BLACK_TO_MOVE : 0L));
+    }
+
+    /**
+     * The board's piece placement key combined with the side to move, the castling rights and
+     * the en passant column. Two games with the same key are, barring collisions, the same position.
+     * @return the Zobrist key of the current position
+     */
+    public long getZobristKey() {
+        long key = chessBoard.getZobristKey() ^ Zobrist.CASTLING[Zobrist.castlingRights(chessBoard)];
+        if (teamTurn == TeamColor.BLACK) {
+            key ^= Zobrist.BLACK_TO_MOVE;
+        }
+        if (canEnPassant) {
+            key ^= Zobrist.EN_PASSANT_COLUMN[enPassantCol];
+        }
+        return key;
+    }
+
+    /**
+     * Reads a position in Forsyth-Edwards Notation. The halfmove clock and fullmove number are
+     * optional and, since the game does not keep them, only checked to be numbers.
+     * Kings and rooks count as moved unless the castling field says otherwise. The en passant
+     * square only counts when a pawn of the side to move stands beside the pawn that passed it,
+     * as after a played move, so the game is the same, key included, as one reached by moves.
+     * @param fen such as {@code rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1}
+     * @return a game set up in that position
+     * @throws IllegalArgumentException if the FEN cannot be read
+     */
+    public static ChessGame fromFen(String fen) {
+        ChessBoard board = new ChessBoard();
+        int i = nextFenField(fen, board.readFenPlacement(fen));
+        TeamColor turn = switch (fen.charAt(i)) {
+            case 'w' -> TeamColor.WHITE;
+            case 'b' -> TeamColor.BLACK;
+            default -> throw new IllegalArgumentException("Bad FEN side to move: " + fen);
+        };
+
+        i = nextFenField(fen, i + 1);
+        board.setUnmovedState(0);
+        if (fen.charAt(i) == '-') {
+            i++;
+        } else {
+            for (; i < fen.length() && fen.charAt(i) != ' '; i++) {
+                switch (fen.charAt(i)) {
+                    case 'K' -> restoreCastling(board, 1, 8);
+                    case 'Q' -> restoreCastling(board, 1, 1);
+                    case 'k' -> restoreCastling(board, 8, 8);
+                    case 'q' -> restoreCastling(board, 8, 1);
+                    default -> throw new IllegalArgumentException("Bad FEN castling field: " + fen);
+                }
+            }
+        }
+
+        i = nextFenField(fen, i);
+        int enPassantCol = 0;
+        if (fen.charAt(i) == '-') {
+            i++;
+        } else {
+            char rank = (turn == TeamColor.WHITE) ? '6' : '3';
+            if (i + 1 >= fen.length() || fen.charAt(i) < 'a' || fen.charAt(i) > 'h' || fen.charAt(i + 1) != rank) {
+                throw new IllegalArgumentException("Bad FEN en passant field: " + fen);
+            }
+            enPassantCol = fen.charAt(i) - 'a' + 1;
+            i += 2;
+        }
+
+        for (; i < fen.length(); i++) {
+            char c = fen.charAt(i);
+            if (c != ' ' && (c < '0' || c > '9')) {
+                throw new IllegalArgumentException("Bad FEN move counters: " + fen);
+            }
+        }
+
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn(turn);
+        int pushedRow = (turn == TeamColor.WHITE) ? 5 : 4;
+        boolean canEnPassant = enPassantCol != 0 && canBeTakenEnPassant(board, turn, pushedRow, enPassantCol);
+        game.setCanEnPassant(canEnPassant);
+        game.setEnPassantCol(canEnPassant ? enPassantCol : 0);
+        return game;
+    }
+
+    /**
+     * Skips the spaces ending one FEN field
+     * @return the index where the next field starts
+     */
+    private static int nextFenField(String fen, int i) {
+        if (i < fen.length() && fen.charAt(i) != ' ') {
+            throw new IllegalArgumentException("FEN fields must be separated by spaces: " + fen);
+        }
+        while (i < fen.length() && fen.charAt(i) == ' ') {
+            i++;
+        }
+        if (i == fen.length()) {
+            throw new IllegalArgumentException("FEN needs placement, side, castling and en passant fields: " + fen);
+        }
+        return i;
+    }
+
+    private static void restoreCastling(ChessBoard board, int row, int rookCol) {
+        board.setUnmoved(Bitboards.square(row, 5), true);
+        board.setUnmoved(Bitboards.square(row, rookCol), true);
+    }
+
+    /**
+     * Writes the position in Forsyth-Edwards Notation. The game does not count moves, so the
+     * halfmove clock and fullmove number are always written as {@code 0 1}.
+     * @return the position's FEN
+     */
+    public String toFen() {
+        StringBuilder fen = new StringBuilder(90);
+        chessBoard.appendFenPlacement(fen);
+        fen.append(teamTurn == TeamColor.WHITE ? " w " : " b ");
+        int rights = Zobrist.castlingRights(chessBoard);
+        if (rights == 0) {
+            fen.append('-');
+        } else {
+            if ((rights & Zobrist.WHITE_KING_SIDE) != 0) {
+                fen.append('K');
+            }
+            if ((rights & Zobrist.WHITE_QUEEN_SIDE) != 0) {
+                fen.append('Q');
+            }
+            if ((rights & Zobrist.BLACK_KING_SIDE) != 0) {
+                fen.append('k');
+            }
+            if ((rights & Zobrist.BLACK_QUEEN_SIDE) != 0) {
+                fen.append('q');
+            }
+        }
+        fen.append(' ');
+        if (canEnPassant) {
+            fen.append((char) ('a' + enPassantCol - 1)).append(teamTurn == TeamColor.WHITE ? '6' : '3');
+        } else {
+            fen.append('-');
+        }
+        return fen.append(" 0 1").toString();
     }
 
     /**
@@ -86,35 +246,28 @@ public class ChessGame {
         BLACK
     }
 
+    /** Where a team stands: free to move, in check, checkmated or stalemated */
+    public enum GameStatus {
+        NORMAL,
+        CHECK,
+        CHECKMATE,
+        STALEMATE
+    }
+
     /**Gets a valid moves for a piece at the given location
      * @param startPosition the piece to get valid moves for
      * @return Set of valid moves for requested piece, or null if no piece at
      * startPosition */
     public Collection<ChessMove> validMoves(ChessPosition startPosition) {
-        Collection<ChessMove> validMoves = new ArrayList<>();
-        ChessPiece myPiece = chessBoard.getPiece(new ChessPosition(startPosition.getRow(), startPosition.getColumn()));
+        ChessPiece myPiece = chessBoard.getPiece(startPosition);
         if (myPiece == null) {
             return null;
         }
-        TeamColor myTeamColor = myPiece.getTeamColor();
-        Collection<ChessMove> possibleMoves = myPiece.pieceMoves(chessBoard, startPosition);
-        for (ChessMove move : possibleMoves){
-            ChessPiece pieceAtMoveSpot = chessBoard.getPiece(move.getEndPosition());
-            chessBoard.addPiece(move.getEndPosition(), null);
-            chessBoard.addPiece(move.getEndPosition(), myPiece);
-            chessBoard.addPiece(move.getStartPosition(), null);
-            if (!isInCheck(myTeamColor)) {
-                validMoves.add(move);
-            }
-            chessBoard.addPiece(move.getEndPosition(), null);
-            chessBoard.addPiece(move.getEndPosition(), pieceAtMoveSpot);
-            chessBoard.addPiece(move.getStartPosition(), myPiece);
-        }
-        if (myPiece.getPieceType() == PieceType.KING) {
-            validMoves.addAll(checkCastling(myTeamColor, startPosition));
-        }
-        if (getCanEnPassant() && myPiece.getPieceType() == PieceType.PAWN) {
-            validMoves.addAll(enPassantAttacks(myTeamColor, startPosition));
+        moveBuffer.clear();
+        moveGenerator.reset(myPiece.getTeamColor()).generate(Bitboards.square(startPosition), moveBuffer);
+        Collection<ChessMove> validMoves = new ArrayList<>(moveBuffer.size());
+        for (int i = 0; i < moveBuffer.size(); i++) {
+            validMoves.add(Move.toChessMove(moveBuffer.get(i)));
         }
         return validMoves;
     }
@@ -131,8 +284,8 @@ public class ChessGame {
             row = 4;
             direction = -1;
         }
-        ChessPosition leftPosition = new ChessPosition(row, enPassantCol -1);
-        ChessPosition rightPosition = new ChessPosition(row, enPassantCol +1);
+        ChessPosition leftPosition = ChessPosition.of(row, enPassantCol -1);
+        ChessPosition rightPosition = ChessPosition.of(row, enPassantCol +1);
 
         if (!(myPosition.equals(leftPosition) || myPosition.equals(rightPosition))) {
             return enPassantAttacks;
@@ -140,7 +293,7 @@ public class ChessGame {
         if (getTeamTurn() != chessBoard.getPiece(myPosition).getTeamColor()) {
             return enPassantAttacks;
         }
-        enPassantAttacks.add(new ChessMove(myPosition, new ChessPosition(row + direction, enPassantCol), null));
+        enPassantAttacks.add(new ChessMove(myPosition, ChessPosition.of(row + direction, enPassantCol), null));
         return enPassantAttacks;
     }
 
@@ -154,13 +307,14 @@ public class ChessGame {
         if (myTeamColor == TeamColor.BLACK) {
             row = 8;
         }
-        if (!chessBoard.getPiece(myPosition).getHasNotMoved()) {
+        if (myPosition.getRow() != row || myPosition.getColumn() != 5 ||
+                !chessBoard.isUnmoved(Bitboards.square(myPosition))) {
             return castlingMoves;
         }
         int[] directions = {1, -1};
         for (int direction : directions) {
             if (isBackRowClear(row, direction) && noCheckAlongPath(row, direction, myTeamColor)) {
-                ChessPosition position = new ChessPosition(row, 5 + 2*direction);
+                ChessPosition position = ChessPosition.of(row, 5 + 2*direction);
                 castlingMoves.add(new ChessMove(myPosition, position, null));
             }
         }
@@ -174,20 +328,20 @@ public class ChessGame {
     public boolean isBackRowClear(int row, int direction) {
         int col = 5 + direction;
         while (col > 1 && col < 8) {
-            if (chessBoard.getPiece(new ChessPosition(row, col)) != null){
+            if (chessBoard.getPiece(ChessPosition.of(row, col)) != null){
                 return false;
             }
             col += direction;
         }
         if (direction == -1) {
-            ChessPiece rook = chessBoard.getPiece(new ChessPosition(row, 1));
-            if (rook != null && rook.getPieceType() == PieceType.ROOK && rook.getHasNotMoved()) {
+            ChessPiece rook = chessBoard.getPiece(ChessPosition.of(row, 1));
+            if (rook != null && rook.getPieceType() == PieceType.ROOK && chessBoard.isUnmoved(Bitboards.square(row, 1))) {
                 return true;
             }
         }
         if (direction == 1) {
-            ChessPiece rook = chessBoard.getPiece(new ChessPosition(row, 8));
-            if (rook != null && rook.getPieceType() == PieceType.ROOK && rook.getHasNotMoved()) {
+            ChessPiece rook = chessBoard.getPiece(ChessPosition.of(row, 8));
+            if (rook != null && rook.getPieceType() == PieceType.ROOK && chessBoard.isUnmoved(Bitboards.square(row, 8))) {
                 return true;
             }
         }
@@ -201,22 +355,22 @@ public class ChessGame {
      * @param myTeamColor The team who we are checking if they can castle
      * @return true if the king and the next two spots don't result in a check */
     public boolean noCheckAlongPath(int row, int direction, TeamColor myTeamColor) {
-        int col = 5 + direction;
         if (isInCheck(myTeamColor)) {
             return false;
         }
-        chessBoard.addPiece(new ChessPosition(row, 5), null);
-        while (col > 2 && col < 8) {
-            chessBoard.addPiece(new ChessPosition(row, col), new ChessPiece(myTeamColor, PieceType.KING));
-            if (isInCheck(myTeamColor)){
-                chessBoard.addPiece(new ChessPosition(row, col), null);
-                chessBoard.addPiece(new ChessPosition(row, 5), new ChessPiece(myTeamColor, PieceType.KING));
+        int kingSquare = Bitboards.square(row, 5);
+        ChessPiece king = chessBoard.pieceAt(kingSquare);
+        for (int col = 5 + direction; col > 2 && col < 8; col += direction) {
+            int pathSquare = Bitboards.square(row, col);
+            chessBoard.clearSquare(kingSquare);
+            chessBoard.setSquare(pathSquare, king);
+            boolean kingSafe = !isInCheck(myTeamColor);
+            chessBoard.clearSquare(pathSquare);
+            chessBoard.setSquare(kingSquare, king);
+            if (!kingSafe) {
                 return false;
             }
-            chessBoard.addPiece(new ChessPosition(row, col), null);
-            col += direction;
         }
-        chessBoard.addPiece(new ChessPosition(row, 5), new ChessPiece(myTeamColor, PieceType.KING));
         return true;
     }
 
@@ -231,127 +385,268 @@ public class ChessGame {
         if (movingPiece.getTeamColor() != getTeamTurn()) {
             throw new InvalidMoveException("Not that teams turn");
         }
-        Collection<ChessMove> pieceMoves = validMoves(move.getStartPosition());
-        if (pieceMoves == null || pieceMoves.isEmpty()) {
+        int from = Bitboards.square(move.getStartPosition());
+        long targets = moveGenerator.reset(movingPiece.getTeamColor()).legalTargets(from);
+        if (targets == 0) {
             throw new InvalidMoveException("No valid moves for that piece");
         }
-        boolean isMoveInValidMoves = false;
-        for (ChessMove pieceMove : pieceMoves) {
-            if (move.getEndPosition().equals(pieceMove.getEndPosition())) {
-                isMoveInValidMoves = true;
-                break;
-            }
-        }
-        if (!isMoveInValidMoves) {
+        ChessPosition end = move.getEndPosition();
+        if (!chessBoard.isInBounds(end) || (targets & (1L << Bitboards.square(end))) == 0) {
             throw new InvalidMoveException("Not a valid location to move to");
         }
-        if (movingPiece.getPieceType() == PieceType.KING) {
-            int colDiff = move.getStartPosition().getColumn() - move.getEndPosition().getColumn();
-            if (colDiff == 2 || colDiff == -2) {
-                makeMoveCastling(move, movingPiece);
-                setCanEnPassant(false);
-                setEnPassantCol(0);
-                switchTurns();
-                return;
+        doMove(from, Bitboards.square(end), move.getPromotionPiece());
+    }
+
+    /**  */
+    public void switchTurns() {
+        if (getTeamTurn() == TeamColor.WHITE) {
+            setTeamTurn(TeamColor.BLACK);
+        } else {
+            setTeamTurn(TeamColor.WHITE);
+        }
+    }
+
+    /**Moves the rook that castles alongside the king, or puts it back in the corner
+     * @param row the row the castle happens on
+     * @param kingEndCol the column the king lands on, 3 or 7
+     * @param undo true to move the rook back into its corner */
+    private void moveCastlingRook(int row, int kingEndCol, boolean undo) {
+        int corner = Bitboards.square(row, kingEndCol == 3 ? 1 : 8);
+        int beside = Bitboards.square(row, kingEndCol == 3 ? 4 : 6);
+        int from = undo ? beside : corner;
+        int to = undo ? corner : beside;
+        ChessPiece rookPiece = chessBoard.pieceAt(from);
+        chessBoard.clearSquare(from);
+        chessBoard.setSquare(to, rookPiece);
+        if (!undo) {
+            chessBoard.setUnmoved(corner, false);
+        }
+    }
+
+    /**Plays a move on the board without checking that it is legal and records how to undo it.
+     * Handles castling, en passant and promotion, updates the en passant state and switches turns.
+     * @param move a move that is at least pseudo-legal in the current position */
+    public void doMove(ChessMove move) {
+        doMove(Bitboards.square(move.getStartPosition()), Bitboards.square(move.getEndPosition()),
+                move.getPromotionPiece());
+    }
+
+    /**
+     * @param move a packed move, see {@link Move} */
+    void doMove(int move) {
+        doMove(Move.from(move), Move.to(move), Move.promotion(move));
+    }
+
+    /**
+     * @param from the square the moving piece starts on
+     * @param to the square the moving piece ends on
+     * @param promotion the type a pawn promotes to, or null */
+    void doMove(int from, int to, PieceType promotion) {
+        ChessPiece mover = chessBoard.pieceAt(from);
+        ChessPiece captured = chessBoard.pieceAt(to);
+        int fromCol = Bitboards.column(from);
+        int toCol = Bitboards.column(to);
+        int toRow = Bitboards.row(to);
+
+        int kind = KIND_NORMAL;
+        if (mover.getPieceType() == PieceType.KING && Math.abs(fromCol - toCol) == 2) {
+            kind = KIND_CASTLE;
+        } else if (mover.getPieceType() == PieceType.PAWN) {
+            if (fromCol != toCol && captured == null) {
+                kind = KIND_EN_PASSANT;
+                captured = chessBoard.pieceAt(Bitboards.square(Bitboards.row(from), toCol));
+            } else if (promotion != null && (toRow == 1 || toRow == 8)) {
+                kind = KIND_PROMOTION;
             }
         }
 
-        if (getCanEnPassant() &&
-                movingPiece.getPieceType() == PieceType.PAWN &&
-                move.getEndPosition().getColumn() == getEnPassantCol() &&
-                chessBoard.getPiece(move.getEndPosition()) == null) {
-            makeMoveEnPassant(move, movingPiece);
-            setCanEnPassant(false);
-            setEnPassantCol(0);
-            switchTurns();
-            return;
+        long record = from | ((long) to << UNDO_TO_SHIFT) | ((long) kind << UNDO_KIND_SHIFT) |
+                ((long) enPassantCol << UNDO_EN_PASSANT_COL_SHIFT) |
+                ((long) chessBoard.unmovedState() << UNDO_UNMOVED_SHIFT);
+        if (kind == KIND_PROMOTION) {
+            record |= (long) (promotion.ordinal() + 1) << UNDO_PROMOTION_SHIFT;
+        }
+        if (canEnPassant) {
+            record |= UNDO_CAN_EN_PASSANT;
         }
+        pushUndo(record, mover, captured);
 
         setCanEnPassant(false);
         setEnPassantCol(0);
-
-        if (movingPiece.getPieceType() == PieceType.PAWN) {
-            int endRow = move.getEndPosition().getRow();
-            int rowDiff = move.getStartPosition().getRow() - endRow;
-            if (rowDiff == 2 || rowDiff == -2) {
-                int endCol = move.getEndPosition().getColumn();
-                ChessPosition rightPawnPosition = new ChessPosition(endRow,endCol +1);
-                ChessPosition leftPawnPosition = new ChessPosition(endRow,endCol -1);
-                ChessPiece rightPawn = chessBoard.getPiece(rightPawnPosition);
-                ChessPiece leftPawn = chessBoard.getPiece(leftPawnPosition);
-                if (rightPawn != null &&
-                        rightPawn.getPieceType() == PieceType.PAWN &&
-                        rightPawn.getTeamColor() != movingPiece.getTeamColor()) {
-                    setCanEnPassant(true);
-                    setEnPassantCol(endCol);
-                } else if (leftPawn != null &&
-                        leftPawn.getPieceType() == PieceType.PAWN &&
-                        leftPawn.getTeamColor() != movingPiece.getTeamColor()) {
-                    setCanEnPassant(true);
-                    setEnPassantCol(endCol);
+        chessBoard.clearSquare(from);
+        switch (kind) {
+            case KIND_CASTLE -> {
+                chessBoard.setSquare(to, mover);
+                moveCastlingRook(toRow, toCol, false);
+            }
+            case KIND_EN_PASSANT -> {
+                chessBoard.clearSquare(Bitboards.square(Bitboards.row(from), toCol));
+                chessBoard.setSquare(to, mover);
+            }
+            case KIND_PROMOTION -> chessBoard.setSquare(to, ChessPiece.of(mover.getTeamColor(), promotion));
+            default -> {
+                chessBoard.setSquare(to, mover);
+                if (mover.getPieceType() == PieceType.PAWN && Math.abs(to - from) == 16) {
+                    updateEnPassant(mover, toRow, toCol);
                 }
+            }
+        }
+        chessBoard.setUnmoved(from, false);
+        chessBoard.setUnmoved(to, false);
+        switchTurns();
+    }
 
+    /**After a pawn moves two spaces, remembers its column if an enemy pawn stands beside it
+     * @param pawn the pawn that moved
+     * @param row the row the pawn landed on
+     * @param col the column the pawn landed on */
+    private void updateEnPassant(ChessPiece pawn, int row, int col) {
+        TeamColor enemy = (pawn.getTeamColor() == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
+        if (canBeTakenEnPassant(chessBoard, enemy, row, col)) {
+            setCanEnPassant(true);
+            setEnPassantCol(col);
+        }
+    }
+
+    /**
+     * @param board the board
+     * @param capturer the team that would take the pawn
+     * @param row the row the pawn that moved two spaces landed on
+     * @param col the column the pawn landed on
+     * @return true if a pawn of the capturing team stands beside it */
+    private static boolean canBeTakenEnPassant(ChessBoard board, TeamColor capturer, int row, int col) {
+        for (int side = -1; side <= 1; side += 2) {
+            ChessPiece neighbor = board.getPiece(ChessPosition.of(row, col + side));
+            if (neighbor != null &&
+                    neighbor.getPieceType() == PieceType.PAWN &&
+                    neighbor.getTeamColor() == capturer) {
+                return true;
             }
         }
+        return false;
+    }
 
-        chessBoard.addPiece(move.getStartPosition(), null);
-        if (move.getPromotionPiece() != null) {
-            chessBoard.addPiece(move.getEndPosition(), new ChessPiece(getTeamTurn(), move.getPromotionPiece()));
-        } else {
-            chessBoard.addPiece(move.getEndPosition(), movingPiece);
+    /**Takes back the last move made with doMove or makeMove, restoring the board, the moved flags,
+     * the en passant state and the turn
+     * @throws IllegalStateException if there is no move to take back */
+    public void undoMove() {
+        if (undoCount == 0) {
+            throw new IllegalStateException("No move to undo");
         }
-        movingPiece.setNotHasMoved();
+        undoCount--;
+        long record = undoRecords[undoCount];
+        ChessPiece mover = undoMovers[undoCount];
+        ChessPiece captured = undoCaptures[undoCount];
+        undoMovers[undoCount] = null;
+        undoCaptures[undoCount] = null;
+
+        int from = (int) (record & 63);
+        int to = (int) ((record >>> UNDO_TO_SHIFT) & 63);
+        int kind = (int) ((record >>> UNDO_KIND_SHIFT) & 3);
+
         switchTurns();
+        chessBoard.clearSquare(to);
+        chessBoard.setSquare(from, mover);
+        chessBoard.setUnmovedState((int) ((record >>> UNDO_UNMOVED_SHIFT) & 63));
+        if (kind == KIND_CASTLE) {
+            moveCastlingRook(Bitboards.row(to), Bitboards.column(to), true);
+        } else if (captured != null) {
+            int capturedSquare = (kind == KIND_EN_PASSANT) ? Bitboards.square(Bitboards.row(from), Bitboards.column(to)) : to;
+            chessBoard.setSquare(capturedSquare, captured);
+        }
+        setCanEnPassant((record & UNDO_CAN_EN_PASSANT) != 0);
+        setEnPassantCol((int) ((record >>> UNDO_EN_PASSANT_COL_SHIFT) & 15));
     }
 
-    /**  */
-    public void switchTurns() {
-        if (getTeamTurn() == TeamColor.WHITE) {
-            setTeamTurn(TeamColor.BLACK);
-        } else {
-            setTeamTurn(TeamColor.WHITE);
+    /**
+     * @return the moves played since the game started or its board was last set, oldest first.
+     * The history is kept in memory only; it is not part of the game's JSON.
+     */
+    public List<ChessMove> getMoveHistory() {
+        List<ChessMove> history = new ArrayList<>(undoCount);
+        for (int i = 0; i < undoCount; i++) {
+            history.add(Move.toChessMove(historyMove(i)));
         }
+        return history;
     }
 
     /**
-     * @param move
-     * @param pawn */
-    public void makeMoveEnPassant(ChessMove move, ChessPiece pawn){
-        ChessPosition enemyPosition = new ChessPosition(move.getStartPosition().getRow(), move.getEndPosition().getColumn());
-        chessBoard.addPiece(move.getStartPosition(), null);
-        chessBoard.addPiece(enemyPosition, null);
-        chessBoard.addPiece(move.getEndPosition(), pawn);
-        pawn.setNotHasMoved();
-        switchTurns();
+     * @return how many moves {@link #getMoveHistory} holds
+     */
+    public int getMoveCount() {
+        return undoCount;
+    }
+
+    /**
+     * @param index which move of the history, 0 being the first
+     * @return the move packed as in {@link Move}, without flags
+     */
+    int historyMove(int index) {
+        long record = undoRecords[index];
+        int promotion = (int) ((record >>> UNDO_PROMOTION_SHIFT) & 7);
+        return Move.encode((int) (record & 63), (int) ((record >>> UNDO_TO_SHIFT) & 63),
+                promotion == 0 ? null : PieceType.values()[promotion - 1], 0);
+    }
+
+    /**
+     * Finds the position the move history starts from by taking every move back, reading the
+     * FEN and playing the moves again, so the game is unchanged when this returns
+     * @return the FEN of the position before the first move of {@link #getMoveHistory}
+     */
+    public String getStartFen() {
+        if (undoCount == 0) {
+            return toFen();
+        }
+        int[] moves = takeBackMoves();
+        String fen = toFen();
+        replay(moves);
+        return fen;
     }
 
-    /**If the king is castling, this function handles both his, and the rooks' movement
-     * @param move the move that is being made
-     * @param king the king ChessPiece that is castling */
-    public void makeMoveCastling(ChessMove move, ChessPiece king) {
-        int row = move.getEndPosition().getRow();
-        int kingEndCol = move.getEndPosition().getColumn();
-        chessBoard.addPiece(move.getStartPosition(), null);
-        chessBoard.addPiece(move.getEndPosition(), king);
-        king.setNotHasMoved();
-        if (kingEndCol == 3) {
-            ChessPosition rookPosition = new ChessPosition(row, 1);
-            ChessPiece rookPiece = chessBoard.getPiece(rookPosition);
-            chessBoard.addPiece(rookPosition, null);
-            chessBoard.addPiece(new ChessPosition(row, 4), rookPiece);
-            rookPiece.setNotHasMoved();
-            return;
+    /**
+     * Takes back every move of the history
+     * @return the moves taken back, oldest first, for {@link #replay}
+     */
+    int[] takeBackMoves() {
+        int[] moves = new int[undoCount];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = historyMove(i);
         }
-        else if (kingEndCol == 7) {
-            ChessPosition rookPosition = new ChessPosition(row, 8);
-            ChessPiece rookPiece = chessBoard.getPiece(rookPosition);
-            chessBoard.addPiece(rookPosition, null);
-            chessBoard.addPiece(new ChessPosition(row, 6), rookPiece);
-            rookPiece.setNotHasMoved();
-            return;
+        while (undoCount > 0) {
+            undoMove();
         }
-        throw new RuntimeException("Trouble placing rook while castling");
+        return moves;
+    }
+
+    /**
+     * @param moves packed moves to play in order without checking them
+     */
+    void replay(int[] moves) {
+        for (int move : moves) {
+            doMove(move);
+        }
+    }
 
+    /**
+     * Generates every legal move of the team to move into the game's own buffer
+     * @return the buffer, which the next call to this or {@link #validMoves} overwrites
+     */
+    MoveList legalMoves() {
+        moveBuffer.clear();
+        moveGenerator.reset(teamTurn).generate(moveBuffer);
+        return moveBuffer;
+    }
+
+    private void pushUndo(long record, ChessPiece mover, ChessPiece captured) {
+        if (undoCount == undoRecords.length) {
+            undoRecords = Arrays.copyOf(undoRecords, undoCount * 2);
+            undoMovers = Arrays.copyOf(undoMovers, undoCount * 2);
+            undoCaptures = Arrays.copyOf(undoCaptures, undoCount * 2);
+        }
+        undoRecords[undoCount] = record;
+        undoMovers[undoCount] = mover;
+        undoCaptures[undoCount] = captured;
+        undoCount++;
     }
 
     /**
@@ -379,35 +674,18 @@ public class ChessGame {
      * @param teamColor which team to check for check
      * @return True if the specified team is in check */
     public boolean isInCheck(TeamColor teamColor) {
-        ChessPosition kingPosition = null;
-        for (int col = 1; col <= 8; col++) {
-            for (int row = 1; row <= 8; row++) {
-                ChessPosition position = new ChessPosition(row, col);
-                ChessPiece piece = chessBoard.getPiece(position);
-                if (piece == null){
-                    continue;
-                } else if (piece.getPieceType() == ChessPiece.pieceType.KING &&
-                            piece.getTeamColor() == teamColor) {
-                    kingPosition = position;
-                    break;
-                }
-            }
-        }
-
-        if (kingPosition == null) {
+        int kingSquare = chessBoard.kingSquare(teamColor);
+        if (kingSquare < 0) {
             throw new RuntimeException("Didn't find King");
         }
-        for (int col = 1; col <= 8; col++) {
-            for (int row = 1; row <= 8; row++) {
-                ChessPosition position = new ChessPosition(row, col);
-                ChessPiece piece = chessBoard.getPiece(position);
-                if (isKingThreatened(piece, position, kingPosition, teamColor)) {
-                    return true;
-                }
+        return chessBoard.isSquareAttacked(kingSquare, opponent(teamColor));
+    }
 
-            }
-        }
-        return false;
+    /**
+     * @param teamColor a team
+     * @return the other team */
+    static TeamColor opponent(TeamColor teamColor) {
+        return (teamColor == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
     }
 
     /**
@@ -416,7 +694,7 @@ public class ChessGame {
      * @param col The col position of the piece you are checking
      * @return ture if there is a valid move for the piece at that position */
     public boolean anyValidMoves2(TeamColor teamColor, int row, int col) {
-        ChessPosition position = new ChessPosition(row, col);
+        ChessPosition position = ChessPosition.of(row, col);
         ChessPiece piece = chessBoard.getPiece(position);
         if (piece == null) {
             return false;
@@ -436,40 +714,43 @@ public class ChessGame {
      * @param teamColor the team for which you are checking the valid move
      * @return True if there is any move a piece could make, else false */
     public boolean anyValidMoves(TeamColor teamColor) {
-        for (int col = 1; col <= 8; col++) {
-            for (int row = 1; row <= 8; row++) {
-                if (anyValidMoves2(teamColor, row, col)) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return moveGenerator.reset(teamColor).hasLegalMove();
+    }
+
+    /**Determines check, checkmate and stalemate together. The checkers are found once and the
+     * search for a legal move stops at the first one found.
+     * @param teamColor which team to get the status of
+     * @return the team's status */
+    public GameStatus getGameStatus(TeamColor teamColor) {
+        moveGenerator.reset(teamColor);
+        boolean inCheck = moveGenerator.isInCheck();
+        if (moveGenerator.hasLegalMove()) {
+            return inCheck ? GameStatus.CHECK : GameStatus.NORMAL;
+        }
+        return inCheck ? GameStatus.CHECKMATE : GameStatus.STALEMATE;
     }
 
     /**Determines if the given team is in checkmate
      * @param teamColor which team to check for checkmate
      * @return True if the specified team is in checkmate */
     public boolean isInCheckmate(TeamColor teamColor) {
-        if (isInCheck(teamColor)) {
-            return !anyValidMoves(teamColor);
-        }
-        return false;
+        return getGameStatus(teamColor) == GameStatus.CHECKMATE;
     }
 
     /**Determines if the given team is in stalemate, which here is defined as having no valid moves
      * @param teamColor which team to check for stalemate
      * @return True if the specified team is in stalemate, otherwise false */
     public boolean isInStalemate(TeamColor teamColor) {
-        if (!isInCheck(teamColor)) {
-            return !anyValidMoves(teamColor);
-        }
-        return false;
+        return getGameStatus(teamColor) == GameStatus.STALEMATE;
     }
 
     /**Sets this game's chessboard with a given board
      * @param board the new board to use */
     public void setBoard(ChessBoard board) {
         chessBoard = board;
+        Arrays.fill(undoMovers, 0, undoCount, null);
+        Arrays.fill(undoCaptures, 0, undoCount, null);
+        undoCount = 0;
     }
 
     /**Gets the current chessboard
@@ -0,0 +1,231 @@
+package chess;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * A compact binary form of a {@link ChessGame}, about 35 bytes against the several kilobytes of its JSON.
+ * <p>
+ * Version 1 layout:
+ * <ul>
+ *     <li>byte 0: the format version</li>
+ *     <li>bytes 1-32: one 4-bit code per square, a1 through h8, low nibble first. 0 is an empty
+ *     square, otherwise the code is 1 + team ordinal * 6 + piece type ordinal</li>
+ *     <li>byte 33: bit 0 set when black is to move, bit 1 set when en passant is possible and
+ *     bits 2-5 the en passant column</li>
+ *     <li>byte 34: the board's unmoved flags for e1, a1, h1, e8, a8 and h8, which hold the castling rights</li>
+ * </ul>
+ * The move history is not encoded; whoever stores a game keeps its moves apart, packed by
+ * {@link #encodeMoves}.
+ * <p>
+ * Decoding an encoded game gives a game equal to the original, with the same turn, en passant
+ * state and castling rights.
+ * <p>
+ * {@link #fromJson} reads games stored as JSON before this format existed.
+ */
+public final class ChessGameCodec {
+    public static final int VERSION = 1;
+    public static final int LENGTH = 35;
+
+    private static final int PLACEMENT_OFFSET = 1;
+    private static final int STATE_OFFSET = 33;
+    private static final int UNMOVED_OFFSET = 34;
+    private static final int BLACK_TO_MOVE = 1;
+    private static final int CAN_EN_PASSANT = 2;
+    private static final int EN_PASSANT_COL_SHIFT = 2;
+
+    private static final ChessGame.TeamColor[] TEAMS = ChessGame.TeamColor.values();
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private ChessGameCodec() {
+    }
+
+    /**
+     * @param game the game to encode
+     * @return the game's current position, without its history, in the current format version
+     */
+    public static byte[] encode(ChessGame game) {
+        byte[] bytes = new byte[LENGTH];
+        bytes[0] = VERSION;
+        ChessBoard board = game.getBoard();
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = board.pieceAt(square);
+            if (piece != null) {
+                int code = 1 + piece.getTeamColor().ordinal() * 6 + piece.getPieceType().ordinal();
+                bytes[PLACEMENT_OFFSET + square / 2] |= (byte) (code << ((square & 1) * 4));
+            }
+        }
+        int state = (game.getTeamTurn() == ChessGame.TeamColor.BLACK) ? BLACK_TO_MOVE : 0;
+        if (game.getCanEnPassant()) {
+            state |= CAN_EN_PASSANT;
+        }
+        state |= (game.getEnPassantCol() & 15) << EN_PASSANT_COL_SHIFT;
+        bytes[STATE_OFFSET] = (byte) state;
+        bytes[UNMOVED_OFFSET] = (byte) board.unmovedState();
+        return bytes;
+    }
+
+    /**
+     * Reads the start position by taking the game's moves back, so the game is briefly changed
+     * and must not be used by another thread meanwhile
+     * @param game the game to encode
+     * @return the position the game's move history starts from, encoded as {@link #encode} does
+     */
+    public static byte[] encodeStart(ChessGame game) {
+        return encodeAt(game, 0);
+    }
+
+    /**
+     * Reads an earlier position by taking moves back, so the game is briefly changed and must
+     * not be used by another thread meanwhile
+     * @param game the game to encode
+     * @param ply how many moves of the game's history to keep
+     * @return the position after the first ply moves of the game's history, encoded as
+     * {@link #encode} does
+     * @throws IllegalArgumentException if the history is shorter than ply
+     */
+    public static byte[] encodeAt(ChessGame game, int ply) {
+        int[] moves = encodeMoves(game);
+        if (ply < 0 || ply > moves.length) {
+            throw new IllegalArgumentException("No position after move " + ply + " of " + moves.length);
+        }
+        for (int i = ply; i < moves.length; i++) {
+            game.undoMove();
+        }
+        try {
+            return encode(game);
+        } finally {
+            for (int i = ply; i < moves.length; i++) {
+                game.doMove(moves[i]);
+            }
+        }
+    }
+
+    /**
+     * @param bytes a game written by {@link #encode}
+     * @return the decoded game
+     * @throws IllegalArgumentException if the bytes are not a game in a known format version
+     */
+    public static ChessGame decode(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            throw new IllegalArgumentException("No encoded chess game");
+        }
+        if (bytes[0] != VERSION) {
+            throw new IllegalArgumentException("Unsupported chess game format version: " + bytes[0]);
+        }
+        if (bytes.length != LENGTH) {
+            throw new IllegalArgumentException("Encoded chess game should be " + LENGTH + " bytes, not " + bytes.length);
+        }
+        ChessBoard board = new ChessBoard();
+        for (int square = 0; square < 64; square++) {
+            int code = (bytes[PLACEMENT_OFFSET + square / 2] >>> ((square & 1) * 4)) & 15;
+            if (code > 12) {
+                throw new IllegalArgumentException("Bad piece code " + code + " on square " + square);
+            }
+            if (code != 0) {
+                board.setSquare(square, ChessPiece.of(TEAMS[(code - 1) / 6], TYPES[(code - 1) % 6]));
+            }
+        }
+        board.setUnmovedState(bytes[UNMOVED_OFFSET] & 63);
+
+        int state = bytes[STATE_OFFSET];
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn((state & BLACK_TO_MOVE) != 0 ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE);
+        game.setCanEnPassant((state & CAN_EN_PASSANT) != 0);
+        game.setEnPassantCol((state >>> EN_PASSANT_COL_SHIFT) & 15);
+        return game;
+    }
+
+    /**
+     * @param game the game whose history to read
+     * @return the game's move history, oldest first, each move packed to fit in two bytes
+     */
+    public static int[] encodeMoves(ChessGame game) {
+        int[] moves = new int[game.getMoveCount()];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = game.historyMove(i);
+        }
+        return moves;
+    }
+
+    /**
+     * @param move the move to pack
+     * @return the move packed as {@link #encodeMoves} packs it
+     */
+    public static int encodeMove(ChessMove move) {
+        return Move.encode(Bitboards.square(move.getStartPosition()), Bitboards.square(move.getEndPosition()),
+                move.getPromotionPiece(), 0);
+    }
+
+    /**
+     * @param move a move packed by {@link #encodeMoves}
+     * @return the move
+     */
+    public static ChessMove decodeMove(int move) {
+        return Move.toChessMove(move);
+    }
+
+    /**
+     * Plays a move read back from {@link #encodeMoves}, so a game kept as a snapshot and the
+     * moves played since can be put back together
+     * @param game the game to play the move in
+     * @param move the packed move
+     * @throws IllegalArgumentException if the move does not start on a piece of the team to move
+     */
+    public static void playMove(ChessGame game, int move) {
+        ChessPiece mover = game.getBoard().pieceAt(Move.from(move));
+        if (mover == null || mover.getTeamColor() != game.getTeamTurn()) {
+            throw new IllegalArgumentException("Encoded move " + (game.getMoveCount() + 1) + " does not fit the position");
+        }
+        game.doMove(move);
+    }
+
+    /**
+     * Reads a game saved as Gson JSON, either in the current form or in the original form where
+     * the board was a 9x9 grid of pieces that each carried a hasNotMoved flag
+     * @param json the game's JSON
+     * @return the game
+     */
+    public static ChessGame fromJson(String json) {
+        JsonObject root = JsonParser.parseString(json).getAsJsonObject();
+        JsonObject boardJson = root.getAsJsonObject("chessBoard");
+        if (boardJson == null || !boardJson.has("chessBoard")) {
+            return new Gson().fromJson(root, ChessGame.class);
+        }
+
+        ChessBoard board = new ChessBoard();
+        JsonArray rows = boardJson.getAsJsonArray("chessBoard");
+        for (int row = 1; row <= 8 && row < rows.size(); row++) {
+            JsonArray cols = rows.get(row).getAsJsonArray();
+            for (int col = 1; col <= 8 && col < cols.size(); col++) {
+                JsonElement pieceJson = cols.get(col);
+                if (pieceJson == null || pieceJson.isJsonNull()) {
+                    continue;
+                }
+                JsonObject piece = pieceJson.getAsJsonObject();
+                int square = Bitboards.square(row, col);
+                board.setSquare(square, ChessPiece.of(
+                        ChessGame.TeamColor.valueOf(piece.get("pieceColor").getAsString()),
+                        ChessPiece.PieceType.valueOf(piece.get("type").getAsString())));
+                board.setUnmoved(square, !piece.has("hasNotMoved") || piece.get("hasNotMoved").getAsBoolean());
+            }
+        }
+
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        if (root.has("teamTurn")) {
+            game.setTeamTurn(ChessGame.TeamColor.valueOf(root.get("teamTurn").getAsString()));
+        }
+        if (root.has("canEnPassant")) {
+            game.setCanEnPassant(root.get("canEnPassant").getAsBoolean());
+        }
+        if (root.has("enPassantCol")) {
+            game.setEnPassantCol(root.get("enPassantCol").getAsInt());
+        }
+        return game;
+    }
+}
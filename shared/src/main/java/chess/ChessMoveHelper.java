@@ -5,122 +5,109 @@ import java.util.Collection;
 
 public class ChessMoveHelper {
 
+    private static final ChessPiece.PieceType[] PROMOTION_TYPES = {
+            ChessPiece.pieceType.QUEEN,
+            ChessPiece.pieceType.ROOK,
+            ChessPiece.pieceType.BISHOP,
+            ChessPiece.pieceType.KNIGHT
+    };
+
     public  ChessMoveHelper(ChessBoard board, ChessPosition myPosition) {
 
 
 
     }
 
-    public Collection<ChessMove> hopMoveCalc (ChessBoard board, ChessPosition myPosition,int[][] possibilities) {
-        Collection<ChessMove> pieceMoves = new ArrayList<>();
+    /**
+     * @param board the board the piece is on
+     * @param myPosition the position of the piece
+     * @param attackTable the squares the piece can hop to from each square
+     * @return moves to every square in the table that is not held by a friendly piece
+     */
+    public Collection<ChessMove> hopMoveCalc (ChessBoard board, ChessPosition myPosition, long[] attackTable) {
         ChessPiece myPiece = board.getPiece(myPosition);
-
-        for (int[] possible : possibilities) {
-            int row = possible[0] + myPosition.getRow();
-            int col = possible[1] + myPosition.getColumn();
-            ChessPosition possiblePosition = new ChessPosition(row, col);
-            if(board.isValidMove(possiblePosition, myPiece)) {
-                pieceMoves.add(new ChessMove(myPosition, possiblePosition, null));
-            }
-        }
-        return pieceMoves;
-
+        long targets = attackTable[Bitboards.square(myPosition)] & ~board.occupancy(myPiece.getTeamColor());
+        return targetsToMoves(myPosition, targets);
     }
 
-    public Collection<ChessMove> moveCalc (ChessBoard board, ChessPosition myPosition,int[][] directions) {
-        Collection<ChessMove> pieceMoves = new ArrayList<>();
+    public Collection<ChessMove> diagonalMoveCalc(ChessBoard board, ChessPosition myPosition) {
         ChessPiece myPiece = board.getPiece(myPosition);
-
-        int steps = 1;
-        for (int[] direction: directions) {
-            steps = 1;
-            while (true) {
-                int possibleRow = myPosition.getRow() + steps * direction[0];
-                int possibleCol = myPosition.getColumn() + steps * direction[1];
-                ChessPosition possiblePosition = new ChessPosition(possibleRow, possibleCol);
-
-                if (!board.isInBounds(possiblePosition)){
-                    break;
-                }
-
-                if (board.isValidMove(possiblePosition, myPiece)) {
-                    pieceMoves.add(new ChessMove(myPosition, possiblePosition, null));
-                }
-
-                if (board.isOccupied(possiblePosition)) {
-                    break;
-                }
-                steps++;
-            }
-        }
-        return pieceMoves;
+        long targets = MagicBitboards.bishopAttacks(Bitboards.square(myPosition), board.occupied());
+        return targetsToMoves(myPosition, targets & ~board.occupancy(myPiece.getTeamColor()));
     }
 
-
-    public Collection<ChessMove> diagonalMoveCalc(ChessBoard board, ChessPosition myPosition) {
-        int[][] directions = { {1,1},{1,-1},{-1,-1},{-1,1} };
-        return moveCalc(board, myPosition, directions);
+    public Collection<ChessMove> straightMoveCalc(ChessBoard board, ChessPosition myPosition) {
+        ChessPiece myPiece = board.getPiece(myPosition);
+        long targets = MagicBitboards.rookAttacks(Bitboards.square(myPosition), board.occupied());
+        return targetsToMoves(myPosition, targets & ~board.occupancy(myPiece.getTeamColor()));
     }
 
-    public Collection<ChessMove> straightMoveCalc(ChessBoard board, ChessPosition myPosition) {
-        int[][] directions = { {1,0},{0,-1},{-1,0},{0,1} };
-        return moveCalc(board, myPosition, directions);
+    public Collection<ChessMove> queenMoveCalc(ChessBoard board, ChessPosition myPosition) {
+        ChessPiece myPiece = board.getPiece(myPosition);
+        int square = Bitboards.square(myPosition);
+        long occupied = board.occupied();
+        long targets = MagicBitboards.rookAttacks(square, occupied) | MagicBitboards.bishopAttacks(square, occupied);
+        return targetsToMoves(myPosition, targets & ~board.occupancy(myPiece.getTeamColor()));
     }
 
     public Collection<ChessMove> pawnMoveCalc(ChessBoard board, ChessPosition myPosition) {
         Collection<ChessMove> pieceMoves = new ArrayList<>();
         ChessPiece myPiece = board.getPiece(myPosition);
-        int colorMult = 1;
-        if (myPiece.getTeamColor() == ChessGame.TeamColor.BLACK) {
-            colorMult = -1;
+        ChessGame.TeamColor myColor = myPiece.getTeamColor();
+        int square = Bitboards.square(myPosition);
+        int forward = (myColor == ChessGame.TeamColor.WHITE) ? 8 : -8;
+        int startRow = (myColor == ChessGame.TeamColor.WHITE) ? 2 : 7;
+        long empty = ~board.occupied();
+
+        int march = square + forward;
+        if (march >= 0 && march < 64 && (empty & (1L << march)) != 0) {
+            addPawnMoves(pieceMoves, myPosition, march);
+            int fastMarch = march + forward;
+            if (myPosition.getRow() == startRow && (empty & (1L << fastMarch)) != 0) {
+                pieceMoves.add(new ChessMove(myPosition, toPosition(fastMarch), null));
+            }
         }
 
-        ChessPiece.PieceType[] types = {
-                ChessPiece.pieceType.QUEEN,
-                ChessPiece.pieceType.ROOK,
-                ChessPiece.pieceType.BISHOP,
-                ChessPiece.pieceType.KNIGHT
-        };
-
-        ChessPosition march = new ChessPosition((myPosition.getRow() + colorMult),
-                (myPosition.getColumn()));
-        ChessPosition fastMarch = new ChessPosition((myPosition.getRow() + 2*colorMult),
-                (myPosition.getColumn()));
-
-        if (board.isValidPawnMove(march)) {
-            if (march.getRow() == 1 || march.getRow() == 8) {
-                for (ChessPiece.PieceType type : types) {
-                    pieceMoves.add(new ChessMove(myPosition, march, type));
-                }
-            } else {
-                pieceMoves.add(new ChessMove(myPosition, march, null));
-            }
-            if (board.isValidPawnMove(fastMarch) &&
-                            ((myPosition.getRow() == 2 && myPiece.getTeamColor() == ChessGame.TeamColor.WHITE) ||
-                            (myPosition.getRow() == 7 && myPiece.getTeamColor() == ChessGame.TeamColor.BLACK))) {
-                pieceMoves.add(new ChessMove(myPosition, fastMarch, null));
-            }
+        long enemies = board.occupied() & ~board.occupancy(myColor);
+        long attacks = Bitboards.PAWN_ATTACKS[myColor.ordinal()][square] & enemies;
+        while (attacks != 0) {
+            addPawnMoves(pieceMoves, myPosition, Long.numberOfTrailingZeros(attacks));
+            attacks &= attacks - 1;
         }
 
-        int[][] attacks = { {colorMult, 1},{colorMult, -1} };
-
-        for (int[] attack : attacks) {
-            int row = myPosition.getRow() + attack[0];
-            int col = myPosition.getColumn() + attack[1];
-            ChessPosition attackPosition = new ChessPosition(row, col);
-
-            if (board.isValidPawnAttack(attackPosition, myPiece)) {
-                if (attackPosition.getRow() == 1 || attackPosition.getRow() == 8) {
-                    for (ChessPiece.PieceType type : types) {
-                        pieceMoves.add(new ChessMove(myPosition, attackPosition, type));
-                    }
-                } else {
-                    pieceMoves.add(new ChessMove(myPosition, attackPosition, null));
-                }
+        return pieceMoves;
+    }
+
+    /**
+     * Adds a pawn move, expanding it into every promotion if it lands on the last row
+     */
+    private void addPawnMoves(Collection<ChessMove> pieceMoves, ChessPosition myPosition, int target) {
+        ChessPosition targetPosition = toPosition(target);
+        if (targetPosition.getRow() == 1 || targetPosition.getRow() == 8) {
+            for (ChessPiece.PieceType type : PROMOTION_TYPES) {
+                pieceMoves.add(new ChessMove(myPosition, targetPosition, type));
             }
+        } else {
+            pieceMoves.add(new ChessMove(myPosition, targetPosition, null));
         }
+    }
 
+    /**
+     * @param myPosition where the moves start
+     * @param targets the squares the moves end on
+     * @return one move to each square in targets
+     */
+    public Collection<ChessMove> targetsToMoves(ChessPosition myPosition, long targets) {
+        Collection<ChessMove> pieceMoves = new ArrayList<>(Long.bitCount(targets));
+        while (targets != 0) {
+            pieceMoves.add(new ChessMove(myPosition, toPosition(Long.numberOfTrailingZeros(targets)), null));
+            targets &= targets - 1;
+        }
         return pieceMoves;
     }
 
+    private static ChessPosition toPosition(int square) {
+        return ChessPosition.of(Bitboards.row(square), Bitboards.column(square));
+    }
+
 }
@@ -15,13 +15,7 @@ class KnightMovesCalc extends ChessMoveHelper implements ChessMovesCalc {
 
     @Override
     public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-
-        int[][] possibilities = {
-                {2, 1}, {1, 2}, {-1, 2}, {-2, 1}, {-2, -1}, {-1, -2}, {1, -2}, {2, -1}
-        };
-
-        return hopMoveCalc(board, myPosition, possibilities);
-
+        return hopMoveCalc(board, myPosition, Bitboards.KNIGHT_ATTACKS);
     }
 }
 
@@ -33,12 +27,7 @@ class KingMovesCalc extends ChessMoveHelper implements ChessMovesCalc {
 
     @Override
     public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-
-        int[][] possibilities = {
-                {1, 0}, {1, 1}, {0, 1}, {-1, 1}, {-1, 0}, {-1, -1}, {0, -1}, {1, -1}
-        };
-
-        return hopMoveCalc(board, myPosition, possibilities);
+        return hopMoveCalc(board, myPosition, Bitboards.KING_ATTACKS);
     }
 }
 
@@ -50,9 +39,7 @@ class BishopMoveCalc extends ChessMoveHelper implements ChessMovesCalc {
 
     @Override
     public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-        Collection<ChessMove> pieceMoves = new ArrayList<>();
-        pieceMoves.addAll(diagonalMoveCalc(board, myPosition));
-        return pieceMoves;
+        return diagonalMoveCalc(board, myPosition);
     }
 }
 
@@ -64,9 +51,7 @@ class RookMoveCalc extends ChessMoveHelper implements ChessMovesCalc {
 
     @Override
     public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-        Collection<ChessMove> pieceMoves = new ArrayList<>();
-        pieceMoves.addAll(straightMoveCalc(board, myPosition));
-        return pieceMoves;
+        return straightMoveCalc(board, myPosition);
     }
 }
 
@@ -78,10 +63,7 @@ class QueenMoveCalc extends ChessMoveHelper implements ChessMovesCalc {
 
     @Override
     public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-        Collection<ChessMove> pieceMoves = new ArrayList<>();
-        pieceMoves.addAll(straightMoveCalc(board, myPosition));
-        pieceMoves.addAll(diagonalMoveCalc(board, myPosition));
-        return pieceMoves;
+        return queenMoveCalc(board, myPosition);
     }
 }
 
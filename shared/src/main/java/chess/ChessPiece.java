@@ -7,6 +7,9 @@ import java.util.Objects;
 /**
  * Represents a single chess piece
  * <p>
+ * Pieces are immutable, so the board shares one instance per team and type (see {@link #of}).
+ * Whether a king or rook has moved, which castling needs, is tracked by the board.
+ * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
@@ -14,16 +17,36 @@ public class ChessPiece {
     public static ChessPiece.PieceType pieceType;
     private final ChessGame.TeamColor pieceColor;
     private final ChessPiece.PieceType type;
-    private boolean hasNotMoved;
+
+    private static final ChessPiece[] FLYWEIGHTS = new ChessPiece[12];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (PieceType pieceType : PieceType.values()) {
+                FLYWEIGHTS[color.ordinal() * 6 + pieceType.ordinal()] = new ChessPiece(color, pieceType);
+            }
+        }
+    }
 
     public ChessPiece(ChessGame.TeamColor pieceColor, ChessPiece.PieceType type) {
         this.pieceColor = pieceColor;
         this.type = type;
-        this.hasNotMoved = true;
+    }
+
+    /**
+     * @param pieceColor the piece's team
+     * @param type the piece's type
+     * @return the shared piece of that team and type
+     */
+    public static ChessPiece of(ChessGame.TeamColor pieceColor, ChessPiece.PieceType type) {
+        return FLYWEIGHTS[pieceColor.ordinal() * 6 + type.ordinal()];
     }
 
     @Override
     public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
         if (o == null || getClass() != o.getClass()) {
             return false;
         }
@@ -48,14 +71,6 @@ public class ChessPiece {
         PAWN
     }
 
-    public boolean getHasNotMoved() {
-        return hasNotMoved;
-    }
-
-    public void setNotHasMoved() {
-        hasNotMoved = false;
-    }
-
     /**
      * @return Which team this chess piece belongs to
      */
@@ -0,0 +1,201 @@
+package chess;
+
+import chess.ChessGame.TeamColor;
+
+/**
+ * Static evaluation for {@link Search}: material plus a piece-square bonus for where each piece
+ * stands, in centipawns from the point of view of the team to move.
+ * <p>
+ * Every piece has a middlegame and an endgame score, and the two are blended by the game phase,
+ * which falls from 24 with all the minor and major pieces on the board to 0 with none of them.
+ * {@link ChessBoard} adds and subtracts a piece's scores and phase as the piece is placed and
+ * removed, so evaluating a position only blends three running totals.
+ * <p>
+ * The piece-square tables are written as a white player sees the board, rank 8 on the first
+ * line, so a white piece on square s reads entry {@code s ^ 56} and a black piece reads entry s.
+ */
+public final class Evaluation {
+    /** Middlegame piece values indexed by piece type ordinal: king, queen, bishop, knight, rook, pawn */
+    static final int[] VALUES = {0, 900, 330, 320, 500, 100};
+    private static final int[] ENDGAME_VALUES = {0, 920, 320, 300, 530, 120};
+    /** How much each piece type counts toward the game phase */
+    private static final int[] PHASE_WEIGHTS = {0, 4, 1, 1, 2, 0};
+    static final int MAX_PHASE = 24;
+
+    private static final int[][] PIECE_SQUARE = {
+            { // king
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -20, -30, -30, -40, -40, -30, -30, -20,
+                    -10, -20, -20, -20, -20, -20, -20, -10,
+                    20, 20, 0, 0, 0, 0, 20, 20,
+                    20, 30, 10, 0, 0, 10, 30, 20
+            },
+            { // queen
+                    -20, -10, -10, -5, -5, -10, -10, -20,
+                    -10, 0, 0, 0, 0, 0, 0, -10,
+                    -10, 0, 5, 5, 5, 5, 0, -10,
+                    -5, 0, 5, 5, 5, 5, 0, -5,
+                    0, 0, 5, 5, 5, 5, 0, -5,
+                    -10, 5, 5, 5, 5, 5, 0, -10,
+                    -10, 0, 5, 0, 0, 0, 0, -10,
+                    -20, -10, -10, -5, -5, -10, -10, -20
+            },
+            { // bishop
+                    -20, -10, -10, -10, -10, -10, -10, -20,
+                    -10, 0, 0, 0, 0, 0, 0, -10,
+                    -10, 0, 5, 10, 10, 5, 0, -10,
+                    -10, 5, 5, 10, 10, 5, 5, -10,
+                    -10, 0, 10, 10, 10, 10, 0, -10,
+                    -10, 10, 10, 10, 10, 10, 10, -10,
+                    -10, 5, 0, 0, 0, 0, 5, -10,
+                    -20, -10, -10, -10, -10, -10, -10, -20
+            },
+            { // knight
+                    -50, -40, -30, -30, -30, -30, -40, -50,
+                    -40, -20, 0, 0, 0, 0, -20, -40,
+                    -30, 0, 10, 15, 15, 10, 0, -30,
+                    -30, 5, 15, 20, 20, 15, 5, -30,
+                    -30, 0, 15, 20, 20, 15, 0, -30,
+                    -30, 5, 10, 15, 15, 10, 5, -30,
+                    -40, -20, 0, 5, 5, 0, -20, -40,
+                    -50, -40, -30, -30, -30, -30, -40, -50
+            },
+            { // rook
+                    0, 0, 0, 0, 0, 0, 0, 0,
+                    5, 10, 10, 10, 10, 10, 10, 5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    0, 0, 0, 5, 5, 0, 0, 0
+            },
+            { // pawn
+                    0, 0, 0, 0, 0, 0, 0, 0,
+                    50, 50, 50, 50, 50, 50, 50, 50,
+                    10, 10, 20, 30, 30, 20, 10, 10,
+                    5, 5, 10, 25, 25, 10, 5, 5,
+                    0, 0, 0, 20, 20, 0, 0, 0,
+                    5, -5, -10, 0, 0, -10, -5, 5,
+                    5, 10, 10, -20, -20, 10, 10, 5,
+                    0, 0, 0, 0, 0, 0, 0, 0
+            }
+    };
+
+    /** Endgame tables for the pieces whose best squares change once the queens are off */
+    private static final int[] KING_ENDGAME = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10, 0, 0, -10, -20, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -30, 0, 0, 0, 0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50
+    };
+
+    private static final int[] PAWN_ENDGAME = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            80, 80, 80, 80, 80, 80, 80, 80,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            30, 30, 30, 30, 30, 30, 30, 30,
+            15, 15, 15, 15, 15, 15, 15, 15,
+            5, 5, 5, 5, 5, 5, 5, 5,
+            0, 0, 0, 0, 0, 0, 0, 0,
+            0, 0, 0, 0, 0, 0, 0, 0
+    };
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    /**
+     * Each piece's signed middlegame score on each square, indexed like the board's piece
+     * bitboards: positive for white pieces and negative for black ones
+     */
+    private static final int[][] MIDDLEGAME = new int[12][64];
+    private static final int[][] ENDGAME = new int[12][64];
+
+    static {
+        for (ChessPiece.PieceType type : TYPES) {
+            int t = type.ordinal();
+            int[] middlegameTable = PIECE_SQUARE[t];
+            int[] endgameTable = (type == ChessPiece.PieceType.KING) ? KING_ENDGAME
+                    : (type == ChessPiece.PieceType.PAWN) ? PAWN_ENDGAME
+                    : middlegameTable;
+            for (int square = 0; square < 64; square++) {
+                MIDDLEGAME[t][square] = VALUES[t] + middlegameTable[square ^ 56];
+                ENDGAME[t][square] = ENDGAME_VALUES[t] + endgameTable[square ^ 56];
+                MIDDLEGAME[6 + t][square] = -(VALUES[t] + middlegameTable[square]);
+                ENDGAME[6 + t][square] = -(ENDGAME_VALUES[t] + endgameTable[square]);
+            }
+        }
+    }
+
+    private Evaluation() {
+    }
+
+    /**
+     * @param game the game to evaluate
+     * @return the score in centipawns, positive when the team to move stands better
+     */
+    public static int evaluate(ChessGame game) {
+        return evaluate(game.getBoard(), game.getTeamTurn());
+    }
+
+    /**
+     * @param board the position
+     * @param toMove the team whose point of view the score takes
+     * @return the score in centipawns, positive when the team to move stands better
+     */
+    static int evaluate(ChessBoard board, TeamColor toMove) {
+        int score = blend(board.middlegameScore(), board.endgameScore(), board.phase());
+        return (toMove == TeamColor.WHITE) ? score : -score;
+    }
+
+    /**
+     * Scores a position by visiting every piece instead of reading the board's running totals
+     * @return the score in centipawns for white
+     */
+    static int rescan(ChessBoard board) {
+        int middlegame = 0;
+        int endgame = 0;
+        int phase = 0;
+        for (int piece = 0; piece < 12; piece++) {
+            ChessPiece.PieceType type = TYPES[piece % 6];
+            TeamColor team = (piece < 6) ? TeamColor.WHITE : TeamColor.BLACK;
+            for (long pieces = board.bitboard(team, type); pieces != 0; pieces &= pieces - 1) {
+                int square = Long.numberOfTrailingZeros(pieces);
+                middlegame += MIDDLEGAME[piece][square];
+                endgame += ENDGAME[piece][square];
+                phase += PHASE_WEIGHTS[type.ordinal()];
+            }
+        }
+        return blend(middlegame, endgame, phase);
+    }
+
+    /**
+     * @param piece the piece's index, as in the board's piece bitboards
+     * @return the piece's signed middlegame score on the square
+     */
+    static int middlegame(int piece, int square) {
+        return MIDDLEGAME[piece][square];
+    }
+
+    static int endgame(int piece, int square) {
+        return ENDGAME[piece][square];
+    }
+
+    static int phaseWeight(ChessPiece.PieceType type) {
+        return PHASE_WEIGHTS[type.ordinal()];
+    }
+
+    /**
+     * @param phase the summed phase weights; promotions can push it past {@link #MAX_PHASE}
+     */
+    private static int blend(int middlegame, int endgame, int phase) {
+        int clamped = Math.min(phase, MAX_PHASE);
+        return (middlegame * clamped + endgame * (MAX_PHASE - clamped)) / MAX_PHASE;
+    }
+}
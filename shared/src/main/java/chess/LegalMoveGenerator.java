@@ -0,0 +1,302 @@
+package chess;
+
+import chess.ChessGame.TeamColor;
+import chess.ChessPiece.PieceType;
+
+/**
+ * Generates only legal moves for one team of a game.
+ * <p>
+ * The pieces giving check and the pieces pinned to the king are found once when the generator
+ * is built. A pinned piece may only move along the line between its king and the pinning piece,
+ * every other piece must land on the check mask (the checker or a square between it and the king)
+ * and the king may only step onto squares that are not attacked once it has left its square.
+ * En passant can uncover a check along the row both pawns leave, so it is tested by taking the
+ * two pawns off the occupancy and looking outward from the king again.
+ */
+final class LegalMoveGenerator {
+    private static final PieceType[] PROMOTION_TYPES = {
+            PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT
+    };
+
+    private final ChessGame game;
+    private ChessBoard board;
+    private TeamColor team;
+    private TeamColor enemy;
+    private int kingSquare;
+    private long own;
+    private long occupied;
+    private long checkers;
+    private long checkMask;
+    private long snipers;
+    private long pinned;
+
+    /**
+     * Makes a generator that is pointed at a position with {@link #reset} before each use, so
+     * search code can keep one per ply instead of allocating one per position
+     * @param game the game whose board and en passant state to use
+     */
+    LegalMoveGenerator(ChessGame game) {
+        this.game = game;
+    }
+
+    /**
+     * @param game the game whose board and en passant state to use
+     * @param team the team to generate moves for, which need not be the team to move
+     */
+    LegalMoveGenerator(ChessGame game, TeamColor team) {
+        this(game);
+        reset(team);
+    }
+
+    /**
+     * Finds the checkers and pinned pieces of the game's current position
+     * @param team the team to generate moves for, which need not be the team to move
+     * @return this generator
+     */
+    LegalMoveGenerator reset(TeamColor team) {
+        this.board = game.getBoard();
+        this.team = team;
+        this.enemy = ChessGame.opponent(team);
+        this.kingSquare = board.kingSquare(team);
+        this.own = board.occupancy(team);
+        this.occupied = board.occupied();
+
+        if (kingSquare < 0) {
+            checkers = 0L;
+            checkMask = ~0L;
+            snipers = 0L;
+            pinned = 0L;
+            return this;
+        }
+        checkers = board.attackersTo(kingSquare, enemy, occupied);
+        if (checkers == 0) {
+            checkMask = ~0L;
+        } else {
+            int checker = Long.numberOfTrailingZeros(checkers);
+            checkMask = checkers | Bitboards.BETWEEN[kingSquare][checker];
+        }
+
+        long queens = board.bitboard(enemy, PieceType.QUEEN);
+        long sliders = (MagicBitboards.rookAttacks(kingSquare, 0L) & (board.bitboard(enemy, PieceType.ROOK) | queens))
+                | (MagicBitboards.bishopAttacks(kingSquare, 0L) & (board.bitboard(enemy, PieceType.BISHOP) | queens));
+        long pinning = 0L;
+        long pinnedPieces = 0L;
+        while (sliders != 0) {
+            int sniper = Long.numberOfTrailingZeros(sliders);
+            sliders &= sliders - 1;
+            long blockers = Bitboards.BETWEEN[kingSquare][sniper] & occupied;
+            if (blockers != 0 && (blockers & (blockers - 1)) == 0 && (blockers & own) != 0) {
+                pinning |= 1L << sniper;
+                pinnedPieces |= blockers;
+            }
+        }
+        snipers = pinning;
+        pinned = pinnedPieces;
+        return this;
+    }
+
+    /**
+     * @return true if the team's king is attacked
+     */
+    boolean isInCheck() {
+        return checkers != 0;
+    }
+
+    /**
+     * @return true if any piece of the team has a legal move
+     */
+    boolean hasLegalMove() {
+        long pieces = own;
+        while (pieces != 0) {
+            if (legalTargets(Long.numberOfTrailingZeros(pieces)) != 0) {
+                return true;
+            }
+            pieces &= pieces - 1;
+        }
+        return false;
+    }
+
+    /**
+     * Adds every legal move of the team
+     * @param moves where the packed moves are added
+     */
+    void generate(MoveList moves) {
+        long pieces = own;
+        while (pieces != 0) {
+            generate(Long.numberOfTrailingZeros(pieces), moves);
+            pieces &= pieces - 1;
+        }
+    }
+
+    /**
+     * Adds every legal move of the piece on the square, one per promotion type for pawns
+     * reaching the last row
+     * @param from the square of a piece belonging to the team
+     * @param moves where the packed moves are added
+     */
+    void generate(int from, MoveList moves) {
+        long targets = legalTargets(from);
+        if (targets == 0) {
+            return;
+        }
+        PieceType type = board.pieceAt(from).getPieceType();
+        long enemies = occupied & ~own;
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            long bit = 1L << to;
+            int flags = ((enemies & bit) != 0) ? Move.CAPTURE : 0;
+            if (type == PieceType.PAWN) {
+                if ((bit & (Bitboards.RANK_1 | Bitboards.RANK_8)) != 0) {
+                    for (PieceType promotion : PROMOTION_TYPES) {
+                        moves.add(Move.encode(from, to, promotion, flags));
+                    }
+                    continue;
+                }
+                if (flags == 0 && Bitboards.column(from) != Bitboards.column(to)) {
+                    flags = Move.EN_PASSANT;
+                } else if (Math.abs(to - from) == 16) {
+                    flags = Move.DOUBLE_PUSH;
+                }
+            } else if (type == PieceType.KING && Math.abs(to - from) == 2) {
+                flags = Move.CASTLE;
+            }
+            moves.add(Move.encode(from, to, null, flags));
+        }
+    }
+
+    /**
+     * @param from the square of a piece belonging to the team
+     * @return the squares the piece can legally move to, including castling and en passant
+     */
+    long legalTargets(int from) {
+        ChessPiece piece = board.pieceAt(from);
+        if (from == kingSquare) {
+            return kingTargets(from);
+        }
+        if ((checkers & (checkers - 1)) != 0) {
+            return 0L;
+        }
+        long targets = switch (piece.getPieceType()) {
+            case KING -> Bitboards.KING_ATTACKS[from];
+            case KNIGHT -> Bitboards.KNIGHT_ATTACKS[from];
+            case BISHOP -> MagicBitboards.bishopAttacks(from, occupied);
+            case ROOK -> MagicBitboards.rookAttacks(from, occupied);
+            case QUEEN -> MagicBitboards.rookAttacks(from, occupied) | MagicBitboards.bishopAttacks(from, occupied);
+            default -> pawnTargets(from);
+        };
+        targets &= ~own & checkMask;
+        if ((pinned & (1L << from)) != 0) {
+            targets &= pinRay(from);
+        }
+        if (piece.getPieceType() == PieceType.PAWN) {
+            targets |= enPassantTarget(from);
+        }
+        return targets;
+    }
+
+    private long kingTargets(int from) {
+        long targets = 0L;
+        long withoutKing = occupied & ~(1L << from);
+        long steps = Bitboards.KING_ATTACKS[from] & ~own;
+        while (steps != 0) {
+            int to = Long.numberOfTrailingZeros(steps);
+            steps &= steps - 1;
+            if (board.attackersTo(to, enemy, withoutKing) == 0) {
+                targets |= 1L << to;
+            }
+        }
+        return targets | castlingTargets(from, withoutKing);
+    }
+
+    /**
+     * Castling needs the king unmoved on its home square, the squares up to the rook empty, an
+     * unmoved rook in the corner and the king never passing through or landing on an attacked square
+     */
+    private long castlingTargets(int from, long withoutKing) {
+        int row = (team == TeamColor.WHITE) ? 1 : 8;
+        if (checkers != 0 || from != Bitboards.square(row, 5) || !board.isUnmoved(from)) {
+            return 0L;
+        }
+        long targets = 0L;
+        if (canCastle(row, 8, 0b11L << Bitboards.square(row, 6), withoutKing)) {
+            targets |= 1L << Bitboards.square(row, 7);
+        }
+        if (canCastle(row, 1, 0b111L << Bitboards.square(row, 2), withoutKing)) {
+            targets |= 1L << Bitboards.square(row, 3);
+        }
+        return targets;
+    }
+
+    private boolean canCastle(int row, int rookCol, long emptySquares, long withoutKing) {
+        if ((occupied & emptySquares) != 0) {
+            return false;
+        }
+        int corner = Bitboards.square(row, rookCol);
+        ChessPiece rook = board.pieceAt(corner);
+        if (rook == null || rook.getPieceType() != PieceType.ROOK || !board.isUnmoved(corner)) {
+            return false;
+        }
+        int direction = (rookCol == 8) ? 1 : -1;
+        for (int col = 5 + direction; col > 2 && col < 8; col += direction) {
+            if (board.attackersTo(Bitboards.square(row, col), enemy, withoutKing) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long pawnTargets(int from) {
+        int forward = (team == TeamColor.WHITE) ? 8 : -8;
+        int startRow = (team == TeamColor.WHITE) ? 2 : 7;
+        long targets = Bitboards.PAWN_ATTACKS[team.ordinal()][from] & occupied & ~own;
+        int march = from + forward;
+        if (march >= 0 && march < 64 && (occupied & (1L << march)) == 0) {
+            targets |= 1L << march;
+            int fastMarch = march + forward;
+            if (Bitboards.row(from) == startRow && (occupied & (1L << fastMarch)) == 0) {
+                targets |= 1L << fastMarch;
+            }
+        }
+        return targets;
+    }
+
+    /**
+     * @return the squares a pinned piece may still move to: those between its king and the
+     * pinning piece, and the pinning piece itself
+     */
+    private long pinRay(int from) {
+        long pinning = snipers;
+        while (pinning != 0) {
+            int sniper = Long.numberOfTrailingZeros(pinning);
+            pinning &= pinning - 1;
+            long ray = Bitboards.BETWEEN[kingSquare][sniper];
+            if ((ray & (1L << from)) != 0) {
+                return ray | (1L << sniper);
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * En passant is only offered to the team to move, from beside the pawn that just moved two
+     * rows. It is legal if the king is not attacked once both pawns have left their squares.
+     */
+    private long enPassantTarget(int from) {
+        if (!game.getCanEnPassant() || game.getTeamTurn() != team) {
+            return 0L;
+        }
+        int row = (team == TeamColor.WHITE) ? 5 : 4;
+        int col = game.getEnPassantCol();
+        if (Bitboards.row(from) != row || Math.abs(Bitboards.column(from) - col) != 1) {
+            return 0L;
+        }
+        int to = Bitboards.square(row + ((team == TeamColor.WHITE) ? 1 : -1), col);
+        if (kingSquare < 0) {
+            return 1L << to;
+        }
+        long capturedBit = 1L << Bitboards.square(row, col);
+        long after = (occupied & ~(1L << from) & ~capturedBit) | (1L << to);
+        return (board.attackersTo(kingSquare, enemy, after) & ~capturedBit) == 0 ? 1L << to : 0L;
+    }
+}
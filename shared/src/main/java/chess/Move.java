@@ -0,0 +1,95 @@
+package chess;
+
+import chess.ChessPiece.PieceType;
+
+/**
+ * Moves packed into an int so move lists can be plain int arrays.
+ * <p>
+ * Bits 0-5 hold the start square, bits 6-11 the end square, bits 12-14 the promotion type
+ * (0 for none, otherwise the {@link PieceType} ordinal plus one) and bits 15-18 the flags.
+ * {@link ChessMove} objects are only made from these when a caller outside the package asks
+ * for moves.
+ */
+final class Move {
+    static final int CAPTURE = 1;
+    static final int EN_PASSANT = 2;
+    static final int CASTLE = 4;
+    static final int DOUBLE_PUSH = 8;
+
+    private static final int TO_SHIFT = 6;
+    private static final int PROMOTION_SHIFT = 12;
+    private static final int FLAGS_SHIFT = 15;
+    private static final PieceType[] TYPES = PieceType.values();
+
+    private Move() {
+    }
+
+    /**
+     * @param from the start square, 0 through 63
+     * @param to the end square, 0 through 63
+     * @param promotion the type a pawn promotes to, or null
+     * @param flags any of CAPTURE, EN_PASSANT, CASTLE and DOUBLE_PUSH
+     * @return the packed move
+     */
+    static int encode(int from, int to, PieceType promotion, int flags) {
+        int promotionBits = (promotion == null) ? 0 : promotion.ordinal() + 1;
+        return from | (to << TO_SHIFT) | (promotionBits << PROMOTION_SHIFT) | (flags << FLAGS_SHIFT);
+    }
+
+    static int from(int move) {
+        return move & 63;
+    }
+
+    static int to(int move) {
+        return (move >>> TO_SHIFT) & 63;
+    }
+
+    /**
+     * @return the promotion type, or null if the move is not a promotion
+     */
+    static PieceType promotion(int move) {
+        int promotionBits = (move >>> PROMOTION_SHIFT) & 7;
+        return (promotionBits == 0) ? null : TYPES[promotionBits - 1];
+    }
+
+    static int flags(int move) {
+        return move >>> FLAGS_SHIFT;
+    }
+
+    static boolean isCapture(int move) {
+        return (flags(move) & (CAPTURE | EN_PASSANT)) != 0;
+    }
+
+    /**
+     * @return the move as a ChessMove for callers outside the package
+     */
+    static ChessMove toChessMove(int move) {
+        int from = from(move);
+        int to = to(move);
+        return new ChessMove(ChessPosition.of(Bitboards.row(from), Bitboards.column(from)),
+                ChessPosition.of(Bitboards.row(to), Bitboards.column(to)), promotion(move));
+    }
+
+    /**
+     * @return the move in coordinate notation, such as e2e4 or a7a8q
+     */
+    static String toCoordinates(int move) {
+        StringBuilder text = new StringBuilder(5);
+        appendSquare(text, from(move));
+        appendSquare(text, to(move));
+        PieceType promotion = promotion(move);
+        if (promotion != null) {
+            text.append(switch (promotion) {
+                case QUEEN -> 'q';
+                case ROOK -> 'r';
+                case BISHOP -> 'b';
+                default -> 'n';
+            });
+        }
+        return text.toString();
+    }
+
+    private static void appendSquare(StringBuilder text, int square) {
+        text.append((char) ('a' + Bitboards.column(square) - 1)).append(Bitboards.row(square));
+    }
+}
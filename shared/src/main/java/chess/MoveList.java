@@ -0,0 +1,49 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * A reusable list of packed moves (see {@link Move}). Generators append to it and callers
+ * clear and refill the same list instead of allocating a new collection for every position.
+ */
+final class MoveList {
+    /** More than the 218 moves of the largest known legal position */
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private int[] moves = new int[DEFAULT_CAPACITY];
+    private int size;
+
+    void add(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        moves[size++] = move;
+    }
+
+    int get(int index) {
+        return moves[index];
+    }
+
+    void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     * @param newSize how many moves to keep from the front, at most {@link #size}
+     */
+    void truncate(int newSize) {
+        size = newSize;
+    }
+}
@@ -0,0 +1,194 @@
+package chess;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * An opening book in the Polyglot file layout, read through a memory-mapped file so lookups
+ * touch only the pages they need and every process reading the same file shares one copy in the
+ * page cache.
+ * <p>
+ * The file is a run of 16-byte big-endian entries sorted by key: the position's key (8 bytes),
+ * a move (2 bytes), a weight (2 bytes) and 4 learning bytes this class ignores. Moves are packed
+ * as Polyglot packs them: destination column and row in bits 0-5, origin in bits 6-11, and the
+ * promotion piece in bits 12-14 (knight 1, bishop 2, rook 3, queen 4); castling is written as
+ * the king taking its own rook. Keys are Polyglot's own, {@link PolyglotKey}, so books written by
+ * other programs can be read, and books written with {@link OpeningBookWriter} can be read by them.
+ * <p>
+ * A book holds no state besides the mapping, so one instance may be shared by any number of threads.
+ */
+public final class OpeningBook {
+    static final int ENTRY_BYTES = 16;
+    private static final int TO_SHIFT = 0;
+    private static final int FROM_SHIFT = 6;
+    private static final int PROMOTION_SHIFT = 12;
+    /** Polyglot promotion codes indexed by piece type ordinal: king, queen, bishop, knight, rook, pawn */
+    private static final int[] PROMOTION_CODES = {0, 4, 2, 1, 3, 0};
+    private static final ChessPiece.PieceType[] PROMOTIONS = {
+            null,
+            ChessPiece.PieceType.KNIGHT,
+            ChessPiece.PieceType.BISHOP,
+            ChessPiece.PieceType.ROOK,
+            ChessPiece.PieceType.QUEEN
+    };
+
+    private final ByteBuffer entries;
+    private final int size;
+
+    /**
+     * @param move a book move
+     * @param weight how often the move should be chosen relative to the position's other moves
+     */
+    public record Entry(ChessMove move, int weight) {
+    }
+
+    private OpeningBook(ByteBuffer entries) {
+        this.entries = entries;
+        this.size = entries.capacity() / ENTRY_BYTES;
+    }
+
+    /**
+     * Maps a book file read-only; the file is not read until positions are looked up
+     * @param path the book file
+     * @return the book
+     * @throws IOException if the file cannot be mapped or is not a whole number of entries
+     */
+    public static OpeningBook open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length % ENTRY_BYTES != 0 || length > Integer.MAX_VALUE) {
+                throw new IOException("Not an opening book: " + path + " is " + length + " bytes");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            return new OpeningBook(buffer);
+        }
+    }
+
+    /**
+     * @param bytes book entries, as in a book file
+     * @return a book over the bytes, which it reads without copying
+     */
+    static OpeningBook of(byte[] bytes) {
+        if (bytes.length % ENTRY_BYTES != 0) {
+            throw new IllegalArgumentException("Not an opening book: " + bytes.length + " bytes");
+        }
+        return new OpeningBook(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * @return how many entries the book holds
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param game the position to look up
+     * @return the legal book moves for the position, heaviest first as the book orders them;
+     * empty if the position is not in the book
+     */
+    public List<Entry> lookup(ChessGame game) {
+        List<Entry> found = new ArrayList<>();
+        long key = PolyglotKey.of(game);
+        MoveList legal = game.legalMoves();
+        for (int i = firstIndex(key); i < size && entries.getLong(i * ENTRY_BYTES) == key; i++) {
+            int move = toMove(game.getBoard(), legal, entries.getShort(i * ENTRY_BYTES + 8) & 0xFFFF);
+            int weight = entries.getShort(i * ENTRY_BYTES + 10) & 0xFFFF;
+            if (move != 0 && weight > 0) {
+                found.add(new Entry(Move.toChessMove(move), weight));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @param game the position to look up
+     * @param random where the choice comes from
+     * @return a book move chosen at random in proportion to the weights, or null if the
+     * position is not in the book
+     */
+    public ChessMove pick(ChessGame game, RandomGenerator random) {
+        List<Entry> found = lookup(game);
+        int total = 0;
+        for (Entry entry : found) {
+            total += entry.weight();
+        }
+        if (total == 0) {
+            return null;
+        }
+        int choice = random.nextInt(total);
+        for (Entry entry : found) {
+            choice -= entry.weight();
+            if (choice < 0) {
+                return entry.move();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the index of the first entry whose key is not less than the key, comparing keys
+     * unsigned as Polyglot sorts them
+     */
+    private int firstIndex(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (Long.compareUnsigned(entries.getLong(middle * ENTRY_BYTES), key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param board the position before the move
+     * @param from the move's origin square
+     * @param to the move's destination square; a castling king's destination, not its rook's
+     * @param promotion the piece a pawn promotes to, or null
+     * @return the move packed as a book stores it
+     */
+    static int encode(ChessBoard board, int from, int to, ChessPiece.PieceType promotion) {
+        ChessPiece mover = board.pieceAt(from);
+        if (mover != null && mover.getPieceType() == ChessPiece.PieceType.KING && Math.abs(to - from) == 2) {
+            to = (to & ~7) | ((to > from) ? 7 : 0);
+        }
+        int promotionCode = (promotion == null) ? 0 : PROMOTION_CODES[promotion.ordinal()];
+        return (to << TO_SHIFT) | (from << FROM_SHIFT) | (promotionCode << PROMOTION_SHIFT);
+    }
+
+    /**
+     * @param bookMove a move as the book stores it
+     * @return the legal move it names, or 0 if none does
+     */
+    private static int toMove(ChessBoard board, MoveList legal, int bookMove) {
+        int from = (bookMove >>> FROM_SHIFT) & 63;
+        int to = (bookMove >>> TO_SHIFT) & 63;
+        int promotionCode = (bookMove >>> PROMOTION_SHIFT) & 7;
+        ChessPiece.PieceType promotion = (promotionCode < PROMOTIONS.length) ? PROMOTIONS[promotionCode] : null;
+        ChessPiece mover = board.pieceAt(from);
+        ChessPiece target = board.pieceAt(to);
+        if (mover != null && target != null && mover.getPieceType() == ChessPiece.PieceType.KING
+                && target.getPieceType() == ChessPiece.PieceType.ROOK
+                && target.getTeamColor() == mover.getTeamColor()) {
+            to = (to & ~7) | ((to % 8 > from % 8) ? 6 : 2);
+        }
+        for (int i = 0; i < legal.size(); i++) {
+            int move = legal.get(i);
+            if (Move.from(move) == from && Move.to(move) == to && Move.promotion(move) == promotion) {
+                return move;
+            }
+        }
+        return 0;
+    }
+}
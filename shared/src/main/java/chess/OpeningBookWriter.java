@@ -0,0 +1,109 @@
+package chess;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Builds an {@link OpeningBook} file from moves played in positions, usually the opening moves
+ * of a collection of games. The same move added again in the same position adds to its weight.
+ */
+public final class OpeningBookWriter {
+    private static final int MAX_WEIGHT = 0xFFFF;
+
+    /** Book moves and their weights by position key, keys in the book's unsigned order */
+    private final TreeMap<Long, Map<Integer, Integer>> positions = new TreeMap<>(Long::compareUnsigned);
+
+    /**
+     * @param game the position the move is played in
+     * @param move the move
+     * @param weight how much to add to the move's weight
+     * @throws InvalidMoveException if the move is not legal in the position
+     */
+    public void add(ChessGame game, ChessMove move, int weight) throws InvalidMoveException {
+        int from = Bitboards.square(move.getStartPosition());
+        int to = Bitboards.square(move.getEndPosition());
+        MoveList legal = game.legalMoves();
+        for (int i = 0; i < legal.size(); i++) {
+            int candidate = legal.get(i);
+            if (Move.from(candidate) == from && Move.to(candidate) == to
+                    && Move.promotion(candidate) == move.getPromotionPiece()) {
+                add(game, candidate, weight);
+                return;
+            }
+        }
+        throw new InvalidMoveException("Not a legal move for the book: " + move);
+    }
+
+    /**
+     * Adds the first moves of a game's history, each with the given weight. The moves are
+     * taken back and played again, so the game is unchanged when this returns but must not be
+     * used by another thread meanwhile.
+     * @param game the game whose moves to add
+     * @param maxPlies how many moves from the start of the history to add
+     * @param weight how much to add to each move's weight
+     */
+    public void addGame(ChessGame game, int maxPlies, int weight) {
+        int[] moves = game.takeBackMoves();
+        for (int i = 0; i < moves.length; i++) {
+            if (i < maxPlies) {
+                add(game, moves[i], weight);
+            }
+            game.doMove(moves[i]);
+        }
+    }
+
+    /**
+     * @return how many entries {@link #write} will write
+     */
+    public int size() {
+        int size = 0;
+        for (Map<Integer, Integer> moves : positions.values()) {
+            size += moves.size();
+        }
+        return size;
+    }
+
+    /**
+     * Writes the book, each position's moves heaviest first; weights above 65535 are written as 65535
+     * @param out where the book goes; it is flushed but not closed
+     * @throws IOException if the book cannot be written
+     */
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        for (Map.Entry<Long, Map<Integer, Integer>> position : positions.entrySet()) {
+            List<Map.Entry<Integer, Integer>> moves = new ArrayList<>(position.getValue().entrySet());
+            moves.sort(Map.Entry.<Integer, Integer>comparingByValue().reversed());
+            for (Map.Entry<Integer, Integer> move : moves) {
+                data.writeLong(position.getKey());
+                data.writeShort(move.getKey());
+                data.writeShort(Math.min(move.getValue(), MAX_WEIGHT));
+                data.writeInt(0);
+            }
+        }
+        data.flush();
+    }
+
+    /**
+     * @param path the book file to create or replace
+     * @throws IOException if the book cannot be written
+     */
+    public void write(Path path) throws IOException {
+        try (OutputStream out = Files.newOutputStream(path)) {
+            write(out);
+        }
+    }
+
+    private void add(ChessGame game, int move, int weight) {
+        int bookMove = OpeningBook.encode(game.getBoard(), Move.from(move), Move.to(move), Move.promotion(move));
+        positions.computeIfAbsent(PolyglotKey.of(game), key -> new HashMap<>())
+                .merge(bookMove, weight, Integer::sum);
+    }
+}
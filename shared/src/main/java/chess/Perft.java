@@ -0,0 +1,145 @@
+package chess;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth. The counts for well known
+ * positions are published, so any difference points at a move generation bug, and the time
+ * taken gives a nodes per second figure for comparing optimizations.
+ * <p>
+ * Run with no arguments to check every reference position, or with
+ * {@code <depth> [fen]} to count one position, adding {@code --divide} to print the count
+ * below each root move.
+ */
+public class Perft {
+
+    /**
+     * A position with its published perft counts, {@code nodes[d - 1]} being the count at depth d
+     */
+    public record Position(String name, String fen, long... nodes) {
+    }
+
+    public static final List<Position> REFERENCE_POSITIONS = List.of(
+            new Position("start", "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                    20, 400, 8902, 197281, 4865609),
+            new Position("kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                    48, 2039, 97862, 4085603),
+            new Position("position 3", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                    14, 191, 2812, 43238, 674624),
+            new Position("position 4", "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                    6, 264, 9467, 422333),
+            new Position("position 5", "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+                    44, 1486, 62379, 2103487),
+            new Position("position 6", "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+                    46, 2079, 89890, 3894594)
+    );
+
+    private final ChessGame game;
+    private final MoveList[] moveLists;
+    private final LegalMoveGenerator[] generators;
+
+    /**
+     * Sets up one move list and generator per ply so counting allocates nothing
+     */
+    private Perft(ChessGame game, int depth) {
+        this.game = game;
+        this.moveLists = new MoveList[depth + 1];
+        this.generators = new LegalMoveGenerator[depth + 1];
+        for (int ply = 0; ply <= depth; ply++) {
+            moveLists[ply] = new MoveList();
+            generators[ply] = new LegalMoveGenerator(game);
+        }
+    }
+
+    /**
+     * @param game the position to count from, left unchanged when the count returns
+     * @param depth how many plies to look ahead
+     * @return the number of legal move sequences of exactly that length
+     */
+    public static long perft(ChessGame game, int depth) {
+        return new Perft(game, depth).count(depth);
+    }
+
+    /**
+     * @param game the position to count from, left unchanged when the count returns
+     * @param depth how many plies to look ahead, at least 1
+     * @return the perft count below each legal root move, keyed by the move in coordinate
+     * notation such as {@code e2e4} or {@code a7a8q}
+     */
+    public static Map<String, Long> divide(ChessGame game, int depth) {
+        Perft perft = new Perft(game, depth);
+        MoveList moves = perft.moveLists[depth];
+        perft.generators[depth].reset(game.getTeamTurn()).generate(moves);
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < moves.size(); i++) {
+            game.doMove(moves.get(i));
+            counts.put(Move.toCoordinates(moves.get(i)), perft.count(depth - 1));
+            game.undoMove();
+        }
+        return counts;
+    }
+
+    private long count(int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        MoveList moves = moveLists[depth];
+        moves.clear();
+        generators[depth].reset(game.getTeamTurn()).generate(moves);
+        if (depth == 1) {
+            return moves.size();
+        }
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            game.doMove(moves.get(i));
+            nodes += count(depth - 1);
+            game.undoMove();
+        }
+        return nodes;
+    }
+
+    public static void main(String[] args) {
+        boolean divide = false;
+        Integer depth = null;
+        StringBuilder fen = new StringBuilder();
+        for (String arg : args) {
+            if (arg.equals("--divide")) {
+                divide = true;
+            } else if (depth == null) {
+                depth = Integer.parseInt(arg);
+            } else {
+                fen.append(arg).append(' ');
+            }
+        }
+
+        if (depth == null) {
+            for (Position position : REFERENCE_POSITIONS) {
+                int maxDepth = position.nodes().length;
+                run(position.name(), ChessGame.fromFen(position.fen()), maxDepth, position.nodes()[maxDepth - 1], false);
+            }
+            return;
+        }
+        String start = fen.isEmpty() ? REFERENCE_POSITIONS.get(0).fen() : fen.toString();
+        run(start.trim(), ChessGame.fromFen(start.trim()), depth, -1, divide);
+    }
+
+    private static void run(String name, ChessGame game, int depth, long expected, boolean divide) {
+        long startTime = System.nanoTime();
+        long nodes;
+        if (divide) {
+            nodes = 0;
+            for (Map.Entry<String, Long> entry : divide(game, depth).entrySet()) {
+                System.out.printf("%s: %d%n", entry.getKey(), entry.getValue());
+                nodes += entry.getValue();
+            }
+        } else {
+            nodes = perft(game, depth);
+        }
+        long elapsed = Math.max(System.nanoTime() - startTime, 1);
+        String result = (expected < 0) ? "" : (nodes == expected ? " ok" : " expected " + expected);
+        System.out.printf("%s depth %d: %d nodes in %d ms, %,d nodes/s%s%n",
+                name, depth, nodes, elapsed / 1_000_000, nodes * 1_000_000_000L / elapsed, result);
+    }
+}
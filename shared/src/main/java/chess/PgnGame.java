@@ -0,0 +1,24 @@
+package chess;
+
+import java.util.Map;
+
+/**
+ * One game of a PGN file
+ * @param tags the tag pairs in file order, such as Event, White, Black and Result
+ * @param game the game after its last move, holding the moves as its move history
+ * @param result the game termination marker: {@code 1-0}, {@code 0-1}, {@code 1/2-1/2} or {@code *}
+ */
+public record PgnGame(Map<String, String> tags, ChessGame game, String result) {
+    public static final String WHITE_WINS = "1-0";
+    public static final String BLACK_WINS = "0-1";
+    public static final String DRAW = "1/2-1/2";
+    public static final String UNFINISHED = "*";
+
+    /**
+     * @param token a movetext token
+     * @return true if the token is one of the four game termination markers
+     */
+    public static boolean isResult(String token) {
+        return token.equals(WHITE_WINS) || token.equals(BLACK_WINS) || token.equals(DRAW) || token.equals(UNFINISHED);
+    }
+}
@@ -0,0 +1,232 @@
+package chess;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads the games of a PGN file one at a time, so a file of any size is read with only the
+ * current game in memory.
+ * <p>
+ * Each SAN move is played on the game as it is read. Comments, variations, numeric annotation
+ * glyphs and move numbers are skipped. A game with a move that cannot be played is read to its
+ * end and reported with an {@link IllegalArgumentException}, after which {@link #next} carries
+ * on with the game after it.
+ */
+public class PgnReader implements Closeable {
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private final StringBuilder token = new StringBuilder(16);
+    private int position;
+    private int limit;
+    private int gameNumber;
+
+    /**
+     * @param reader the PGN text; it is buffered here, so it need not be a BufferedReader
+     */
+    public PgnReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * @return the next game, or null at the end of the input
+     * @throws IOException if the input cannot be read
+     * @throws IllegalArgumentException if the game has a bad FEN tag or a move that cannot be played
+     */
+    public PgnGame next() throws IOException {
+        Map<String, String> tags = new LinkedHashMap<>();
+        ChessGame game = null;
+        String error = null;
+        String result = null;
+        boolean inMoves = false;
+
+        while (result == null) {
+            int c = skipWhitespace();
+            if (c < 0 || (c == '[' && inMoves)) {
+                break;
+            }
+            position++;
+            switch (c) {
+                case '[' -> readTag(tags);
+                case '{' -> skipPast('}');
+                case ';', '%' -> skipPast('\n');
+                case '(' -> skipVariation();
+                case ')', ']', '}' -> { }
+                case '$' -> readSymbol(c);
+                default -> {
+                    String symbol = readSymbol(c);
+                    if (PgnGame.isResult(symbol)) {
+                        result = symbol;
+                        continue;
+                    }
+                    if (game == null) {
+                        try {
+                            game = startingGame(tags);
+                        } catch (IllegalArgumentException e) {
+                            game = new ChessGame();
+                            error = e.getMessage();
+                        }
+                    }
+                    inMoves = true;
+                    String san = stripMoveNumber(symbol);
+                    if (san.isEmpty() || error != null) {
+                        continue;
+                    }
+                    try {
+                        game.doMove(San.parse(game, san));
+                    } catch (InvalidMoveException e) {
+                        error = e.getMessage() + " after " + game.getMoveCount() + " plies";
+                    }
+                }
+            }
+        }
+
+        if (tags.isEmpty() && !inMoves && result == null) {
+            return null;
+        }
+        gameNumber++;
+        if (game == null) {
+            try {
+                game = startingGame(tags);
+            } catch (IllegalArgumentException e) {
+                error = e.getMessage();
+            }
+        }
+        if (error != null) {
+            throw new IllegalArgumentException("PGN game " + gameNumber + ": " + error);
+        }
+        if (result == null) {
+            result = tags.getOrDefault("Result", PgnGame.UNFINISHED);
+        }
+        return new PgnGame(tags, game, result);
+    }
+
+    private static ChessGame startingGame(Map<String, String> tags) {
+        String fen = tags.get("FEN");
+        return (fen == null) ? new ChessGame() : ChessGame.fromFen(fen);
+    }
+
+    /**
+     * @return the SAN left once a leading move number such as {@code 12.} or {@code 12...} is removed
+     */
+    private static String stripMoveNumber(String symbol) {
+        int i = 0;
+        while (i < symbol.length() && Character.isDigit(symbol.charAt(i))) {
+            i++;
+        }
+        if (i == symbol.length() || symbol.charAt(i) != '.') {
+            return symbol;
+        }
+        while (i < symbol.length() && symbol.charAt(i) == '.') {
+            i++;
+        }
+        return symbol.substring(i);
+    }
+
+    /**
+     * Reads {@code Name "value"]}, the opening bracket already read
+     */
+    private void readTag(Map<String, String> tags) throws IOException {
+        skipWhitespace();
+        token.setLength(0);
+        int c;
+        while ((c = peek()) >= 0 && !Character.isWhitespace(c) && c != '"' && c != ']') {
+            token.append((char) c);
+            position++;
+        }
+        String name = token.toString();
+        skipWhitespace();
+        if (peek() != '"') {
+            skipPast(']');
+            return;
+        }
+        position++;
+        token.setLength(0);
+        while ((c = read()) >= 0 && c != '"') {
+            if (c == '\\') {
+                c = read();
+                if (c < 0) {
+                    break;
+                }
+            }
+            token.append((char) c);
+        }
+        skipPast(']');
+        if (!name.isEmpty()) {
+            tags.put(name, token.toString());
+        }
+    }
+
+    private String readSymbol(int first) throws IOException {
+        token.setLength(0);
+        token.append((char) first);
+        int c;
+        while ((c = peek()) >= 0 && !Character.isWhitespace(c) && "[]{}();$".indexOf(c) < 0) {
+            token.append((char) c);
+            position++;
+        }
+        return token.toString();
+    }
+
+    /**
+     * Skips a recursive annotation variation, the opening parenthesis already read
+     */
+    private void skipVariation() throws IOException {
+        int depth = 1;
+        int c;
+        while (depth > 0 && (c = read()) >= 0) {
+            switch (c) {
+                case '(' -> depth++;
+                case ')' -> depth--;
+                case '{' -> skipPast('}');
+                case ';' -> skipPast('\n');
+                default -> { }
+            }
+        }
+    }
+
+    private void skipPast(char end) throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c >= 0 && c != end);
+    }
+
+    /**
+     * @return the next character that is not whitespace, left unread, or -1 at the end of the input
+     */
+    private int skipWhitespace() throws IOException {
+        int c;
+        while ((c = peek()) >= 0 && Character.isWhitespace(c)) {
+            position++;
+        }
+        return c;
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        if (c >= 0) {
+            position++;
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position];
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,104 @@
+package chess;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes games as PGN: the seven tag roster first, then any other tags, then the move history
+ * in SAN wrapped at 80 columns, ending with the result. Games that do not start from the usual
+ * position get SetUp and FEN tags.
+ */
+public class PgnWriter implements Closeable, Flushable {
+    private static final int LINE_LENGTH = 79;
+    private static final List<String> SEVEN_TAG_ROSTER = List.of("Event", "Site", "Date", "Round", "White", "Black", "Result");
+    private static final String START_FEN = new ChessGame().toFen();
+
+    private final Writer writer;
+    private final StringBuilder line = new StringBuilder(LINE_LENGTH + 1);
+
+    /**
+     * @param writer where the PGN goes; wrap it in a BufferedWriter when writing many games
+     */
+    public PgnWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * @param pgnGame the tags, the game whose move history to write and its result
+     * @throws IOException if the output cannot be written
+     */
+    public void write(PgnGame pgnGame) throws IOException {
+        Map<String, String> tags = pgnGame.tags();
+        String startFen = pgnGame.game().getStartFen();
+        for (String name : SEVEN_TAG_ROSTER) {
+            String value = name.equals("Result") ? pgnGame.result() : tags.get(name);
+            if (value == null) {
+                value = name.equals("Date") ? "????.??.??" : "?";
+            }
+            writeTag(name, value);
+        }
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            String name = tag.getKey();
+            if (!SEVEN_TAG_ROSTER.contains(name) && !name.equals("SetUp") && !name.equals("FEN")) {
+                writeTag(name, tag.getValue());
+            }
+        }
+        if (!startFen.equals(START_FEN)) {
+            writeTag("SetUp", "1");
+            writeTag("FEN", startFen);
+        }
+        writer.write('\n');
+
+        ChessGame replay = ChessGame.fromFen(startFen);
+        int moveNumber = 1;
+        line.setLength(0);
+        List<ChessMove> moves = pgnGame.game().getMoveHistory();
+        for (int i = 0; i < moves.size(); i++) {
+            boolean white = replay.getTeamTurn() == ChessGame.TeamColor.WHITE;
+            if (white) {
+                append(moveNumber + ".");
+            } else if (i == 0) {
+                append(moveNumber + "...");
+            }
+            ChessMove move = moves.get(i);
+            append(San.toSan(replay, move));
+            replay.doMove(move);
+            if (!white) {
+                moveNumber++;
+            }
+        }
+        append(pgnGame.result());
+        writer.append(line).append("\n\n");
+    }
+
+    private void append(String token) throws IOException {
+        if (!line.isEmpty() && line.length() + 1 + token.length() > LINE_LENGTH) {
+            writer.append(line).append('\n');
+            line.setLength(0);
+        }
+        if (!line.isEmpty()) {
+            line.append(' ');
+        }
+        line.append(token);
+    }
+
+    private void writeTag(String name, String value) throws IOException {
+        writer.append('[').append(name).append(" \"")
+                .append(value.replace("\\", "\\\\").replace("\"", "\\\""))
+                .append("\"]\n");
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,234 @@
+package chess;
+
+import chess.ChessPiece.PieceType;
+
+/**
+ * Standard Algebraic Notation, the move format of PGN: {@code e4}, {@code Nbd7}, {@code exd5},
+ * {@code O-O}, {@code e8=Q+}. A SAN move names the piece and where it lands, plus just enough
+ * of its start square to tell it apart from another piece of the same type that could land
+ * there too, so both directions work from the legal moves of the position.
+ */
+public final class San {
+    private static final PieceType[] TYPES = PieceType.values();
+
+    private San() {
+    }
+
+    /**
+     * @param game the position the move is played from
+     * @param move a legal move of the team to move
+     * @return the move in SAN, with {@code +} or {@code #} when it gives check or mate
+     * @throws IllegalArgumentException if the move is not legal in the position
+     */
+    public static String toSan(ChessGame game, ChessMove move) {
+        int from = Bitboards.square(move.getStartPosition());
+        int to = Bitboards.square(move.getEndPosition());
+        MoveList legal = game.legalMoves();
+        for (int i = 0; i < legal.size(); i++) {
+            int candidate = legal.get(i);
+            if (Move.from(candidate) == from && Move.to(candidate) == to &&
+                    Move.promotion(candidate) == move.getPromotionPiece()) {
+                return toSan(game, candidate, legal);
+            }
+        }
+        throw new IllegalArgumentException("Not a legal move: " + move);
+    }
+
+    /**
+     * @param game the position the move is played from
+     * @param san a move in SAN; check marks and annotations such as {@code !?} are ignored
+     * @return the legal move the SAN names
+     * @throws InvalidMoveException if the SAN cannot be read, or names no legal move or more than one
+     */
+    public static ChessMove fromSan(ChessGame game, String san) throws InvalidMoveException {
+        return Move.toChessMove(parse(game, san));
+    }
+
+    /**
+     * @param move the packed move, which must be in {@code legal}
+     * @param legal every legal move of the position, used to disambiguate
+     */
+    static String toSan(ChessGame game, int move, MoveList legal) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        PieceType type = game.getBoard().pieceAt(from).getPieceType();
+        StringBuilder san = new StringBuilder(8);
+        if ((Move.flags(move) & Move.CASTLE) != 0) {
+            san.append(Bitboards.column(to) == 7 ? "O-O" : "O-O-O");
+        } else {
+            if (type == PieceType.PAWN) {
+                if (Move.isCapture(move)) {
+                    san.append(file(from));
+                }
+            } else {
+                san.append(letter(type));
+                appendDisambiguation(game.getBoard(), move, type, legal, san);
+            }
+            if (Move.isCapture(move)) {
+                san.append('x');
+            }
+            san.append(file(to)).append(rank(to));
+            if (Move.promotion(move) != null) {
+                san.append('=').append(letter(Move.promotion(move)));
+            }
+        }
+
+        game.doMove(move);
+        ChessGame.GameStatus status = game.getGameStatus(game.getTeamTurn());
+        game.undoMove();
+        if (status == ChessGame.GameStatus.CHECKMATE) {
+            san.append('#');
+        } else if (status == ChessGame.GameStatus.CHECK) {
+            san.append('+');
+        }
+        return san.toString();
+    }
+
+    /**
+     * Adds the start file, rank or both when another piece of the same type can land on the
+     * same square: the file if that tells them apart, else the rank, else both
+     */
+    private static void appendDisambiguation(ChessBoard board, int move, PieceType type, MoveList legal,
+                                             StringBuilder san) {
+        int from = Move.from(move);
+        boolean ambiguous = false;
+        boolean sameFile = false;
+        boolean sameRank = false;
+        for (int i = 0; i < legal.size(); i++) {
+            int other = legal.get(i);
+            int otherFrom = Move.from(other);
+            if (otherFrom == from || Move.to(other) != Move.to(move) ||
+                    board.pieceAt(otherFrom).getPieceType() != type) {
+                continue;
+            }
+            ambiguous = true;
+            sameFile |= Bitboards.column(otherFrom) == Bitboards.column(from);
+            sameRank |= Bitboards.row(otherFrom) == Bitboards.row(from);
+        }
+        if (!ambiguous) {
+            return;
+        }
+        if (!sameFile) {
+            san.append(file(from));
+        } else if (!sameRank) {
+            san.append(rank(from));
+        } else {
+            san.append(file(from)).append(rank(from));
+        }
+    }
+
+    /**
+     * Reads a SAN move against the legal moves of the team to move
+     * @return the packed legal move, with its flags
+     */
+    static int parse(ChessGame game, String san) throws InvalidMoveException {
+        int end = san.length();
+        while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        MoveList legal = game.legalMoves();
+        if (isCastle(san, end, 3) || isCastle(san, end, 5)) {
+            int toCol = (end == 3) ? 7 : 3;
+            for (int i = 0; i < legal.size(); i++) {
+                int move = legal.get(i);
+                if ((Move.flags(move) & Move.CASTLE) != 0 && Bitboards.column(Move.to(move)) == toCol) {
+                    return move;
+                }
+            }
+            throw new InvalidMoveException("Illegal move " + san);
+        }
+
+        PieceType promotion = null;
+        if (end >= 2 && isPieceLetter(Character.toUpperCase(san.charAt(end - 1))) && !isFile(san.charAt(end - 2))) {
+            promotion = type(Character.toUpperCase(san.charAt(end - 1)));
+            end -= (san.charAt(end - 2) == '=') ? 2 : 1;
+        }
+        if (end < 2 || !isFile(san.charAt(end - 2)) || !isRank(san.charAt(end - 1))) {
+            throw new InvalidMoveException("Unreadable move " + san);
+        }
+        int to = Bitboards.square(san.charAt(end - 1) - '0', san.charAt(end - 2) - 'a' + 1);
+
+        int start = 0;
+        PieceType type = PieceType.PAWN;
+        if (isPieceLetter(san.charAt(0))) {
+            type = type(san.charAt(0));
+            start = 1;
+        }
+        int fromCol = 0;
+        int fromRow = 0;
+        for (int i = start; i < end - 2; i++) {
+            char c = san.charAt(i);
+            if (isFile(c)) {
+                fromCol = c - 'a' + 1;
+            } else if (isRank(c)) {
+                fromRow = c - '0';
+            } else if (c != 'x' && c != ':' && c != '-') {
+                throw new InvalidMoveException("Unreadable move " + san);
+            }
+        }
+
+        int found = -1;
+        for (int i = 0; i < legal.size(); i++) {
+            int move = legal.get(i);
+            int from = Move.from(move);
+            if (Move.to(move) != to || Move.promotion(move) != promotion ||
+                    game.getBoard().pieceAt(from).getPieceType() != type ||
+                    (fromCol != 0 && Bitboards.column(from) != fromCol) ||
+                    (fromRow != 0 && Bitboards.row(from) != fromRow)) {
+                continue;
+            }
+            if (found >= 0) {
+                throw new InvalidMoveException("Ambiguous move " + san);
+            }
+            found = move;
+        }
+        if (found < 0) {
+            throw new InvalidMoveException("Illegal move " + san);
+        }
+        return found;
+    }
+
+    /**
+     * @param length 3 for {@code O-O}, 5 for {@code O-O-O}; zeros are accepted for the letters
+     */
+    private static boolean isCastle(String san, int end, int length) {
+        if (end != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = san.charAt(i);
+            if ((i % 2 == 0) ? (c != 'O' && c != '0') : c != '-') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isFile(char c) {
+        return c >= 'a' && c <= 'h';
+    }
+
+    private static boolean isRank(char c) {
+        return c >= '1' && c <= '8';
+    }
+
+    private static boolean isPieceLetter(char c) {
+        return "KQBNR".indexOf(c) >= 0;
+    }
+
+    private static PieceType type(char letter) {
+        return TYPES["KQBNR".indexOf(letter)];
+    }
+
+    private static char letter(PieceType type) {
+        return "KQBNRP".charAt(type.ordinal());
+    }
+
+    private static char file(int square) {
+        return (char) ('a' + Bitboards.column(square) - 1);
+    }
+
+    private static char rank(int square) {
+        return (char) ('0' + Bitboards.row(square));
+    }
+}
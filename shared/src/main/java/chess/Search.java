@@ -0,0 +1,519 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * Finds a good move for the team to move with iterative deepening alpha-beta search.
+ * <p>
+ * Each iteration searches one ply deeper than the last, trying the previous best move first,
+ * until the time, node or depth limit is reached; the best move of the deepest finished
+ * iteration is returned. At the horizon a quiescence search keeps resolving captures so a
+ * position is never scored in the middle of an exchange. Captures are tried first, most
+ * valuable victim and least valuable attacker first, then the two quiet moves that most
+ * recently caused a cutoff at the same ply, then other quiet moves by how often they caused
+ * cutoffs.
+ * <p>
+ * Every node's result is stored in a {@link TranspositionTable}; a position met again, by
+ * another move order or in a later iteration, tries the stored best move first and returns the
+ * stored score outright when it was searched at least as deep with a usable bound. Mate scores
+ * are stored relative to the position so they stay right wherever it recurs.
+ * <p>
+ * A search plays its moves on the game with doMove and takes them back, so the game is
+ * unchanged when it returns but must not be used by another thread meanwhile. Move lists and
+ * generators are made once per search, so searching allocates nothing per node.
+ * <p>
+ * With more than one thread the search is a lazy SMP search: helper threads each search their
+ * own copy of the position, every other one a ply deeper, and share only the table, so each
+ * fills in results the others then cut off on. The helpers stop when this thread finishes, and
+ * the result comes from whichever thread finished the deepest iteration.
+ */
+public class Search {
+    static final int INFINITY = 32000;
+    static final int MATE = 31000;
+    static final int MAX_PLY = 64;
+    public static final int MAX_DEPTH = 32;
+    /** Nodes between checks of the clock, less one */
+    private static final int CHECK_INTERVAL = 2047;
+    private static final int HASH_MOVE_SCORE = 1 << 30;
+    private static final int CAPTURE_SCORE = 1 << 28;
+    private static final int PROMOTION_SCORE = 1 << 27;
+    private static final int KILLER_SCORE = 1 << 26;
+    private static final int HISTORY_LIMIT = KILLER_SCORE - 1;
+    /** How readily each piece type is given up as an attacker, indexed by type ordinal; lower attacks first */
+    private static final int[] ATTACKER_RANK = {6, 5, 3, 2, 4, 1};
+    /** The table size used when none is given */
+    public static final int DEFAULT_TABLE_MEGABYTES = 8;
+
+    private final ChessGame game;
+    private final TranspositionTable table;
+    private final MoveList[] moveLists = new MoveList[MAX_PLY + 1];
+    private final int[][] orderScores = new int[MAX_PLY + 1][];
+    private final LegalMoveGenerator[] generators = new LegalMoveGenerator[MAX_PLY + 1];
+    private final int[][] killers = new int[MAX_PLY + 1][2];
+    private final int[] history = new int[64 * 64];
+    private final long[] pathKeys = new long[MAX_PLY + 2];
+
+    /** Added to every iteration's depth, so helper threads do not all search the same tree */
+    private final int depthOffset;
+    private volatile boolean stopped;
+    private long nodes;
+    private long nodeLimit;
+    private long deadline;
+    private boolean hasDeadline;
+    /** Off while depth 1 runs, so every search has a move to return */
+    private boolean limitsActive;
+
+    /**
+     * How long a search may run. Any limit that is reached ends it; a search always finishes
+     * depth 1 so it has a move to return.
+     * @param millis the time budget in milliseconds, or 0 for none
+     * @param nodes the node budget, or 0 for none
+     * @param depth the deepest iteration, at most {@link #MAX_DEPTH}
+     * @param threads how many threads search together, at least 1; the node budget counts
+     * this thread's nodes only
+     */
+    public record Limits(long millis, long nodes, int depth, int threads) {
+        public static Limits ofMillis(long millis) {
+            return new Limits(millis, 0, MAX_DEPTH, 1);
+        }
+
+        public static Limits ofNodes(long nodes) {
+            return new Limits(0, nodes, MAX_DEPTH, 1);
+        }
+
+        public static Limits ofDepth(int depth) {
+            return new Limits(0, 0, depth, 1);
+        }
+
+        /**
+         * @return these limits searched with the given number of threads
+         */
+        public Limits withThreads(int threads) {
+            return new Limits(millis, nodes, depth, threads);
+        }
+    }
+
+    /**
+     * @param bestMove the move to play, or null if the team to move has no legal move
+     * @param score the score of that move in centipawns for the team to move; scores beyond
+     * {@code MATE_THRESHOLD} in size are forced mates
+     * @param depth the deepest iteration that finished
+     * @param nodes how many positions were visited, by all threads
+     */
+    public record Result(ChessMove bestMove, int score, int depth, long nodes) {
+        public static final int MATE_THRESHOLD = MATE - MAX_PLY;
+
+        /**
+         * @return true if the score is a forced mate, for either team
+         */
+        public boolean isMate() {
+            return Math.abs(score) >= MATE_THRESHOLD;
+        }
+    }
+
+    /**
+     * @param game the game to search, whose team to move the search plays for
+     */
+    public Search(ChessGame game) {
+        this(game, new TranspositionTable(DEFAULT_TABLE_MEGABYTES));
+    }
+
+    /**
+     * @param game the game to search, whose team to move the search plays for
+     * @param table where results are kept between positions and searches; it may be shared
+     * with other searches, including ones running at the same time
+     */
+    public Search(ChessGame game, TranspositionTable table) {
+        this(game, table, 0);
+    }
+
+    private Search(ChessGame game, TranspositionTable table, int depthOffset) {
+        this.game = game;
+        this.table = table;
+        this.depthOffset = depthOffset;
+        for (int ply = 0; ply <= MAX_PLY; ply++) {
+            moveLists[ply] = new MoveList();
+            orderScores[ply] = new int[256];
+            generators[ply] = new LegalMoveGenerator(game);
+        }
+    }
+
+    /**
+     * Asks a running search to return as soon as it can; safe to call from another thread
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * @param limits when to stop searching, and with how many threads
+     * @return the best move found with its score
+     */
+    public Result search(Limits limits) {
+        stopped = false;
+        table.newSearch();
+        if (limits.threads() <= 1) {
+            return iterate(limits);
+        }
+
+        Limits helperLimits = new Limits(limits.millis(), 0, MAX_DEPTH, 1);
+        Search[] helpers = new Search[limits.threads() - 1];
+        Result[] helperResults = new Result[helpers.length];
+        Thread[] threads = new Thread[helpers.length];
+        for (int i = 0; i < helpers.length; i++) {
+            Search helper = new Search(ChessGame.fromFen(game.toFen()), table, (i + 1) & 1);
+            int index = i;
+            helpers[i] = helper;
+            threads[i] = new Thread(() -> helperResults[index] = helper.iterate(helperLimits),
+                    "search-helper-" + (i + 1));
+            threads[i].setDaemon(true);
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+
+        Result result = iterate(limits);
+        for (Search helper : helpers) {
+            helper.stop();
+        }
+        long totalNodes = result.nodes();
+        for (int i = 0; i < threads.length; i++) {
+            try {
+                threads[i].join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return result;
+            }
+            Result helperResult = helperResults[i];
+            totalNodes += helperResult.nodes();
+            if (helperResult.depth() > result.depth() && helperResult.bestMove() != null) {
+                result = helperResult;
+            }
+        }
+        return new Result(result.bestMove(), result.score(), result.depth(), totalNodes);
+    }
+
+    /**
+     * Runs the iterative deepening loop on this thread; a stop asked for before it starts
+     * still ends it
+     */
+    private Result iterate(Limits limits) {
+        nodes = 0;
+        nodeLimit = (limits.nodes() > 0) ? limits.nodes() : Long.MAX_VALUE;
+        hasDeadline = limits.millis() > 0;
+        deadline = System.nanoTime() + limits.millis() * 1_000_000L;
+        for (int[] plyKillers : killers) {
+            plyKillers[0] = 0;
+            plyKillers[1] = 0;
+        }
+        Arrays.fill(history, 0);
+
+        MoveList rootMoves = moveLists[0];
+        rootMoves.clear();
+        generators[0].reset(game.getTeamTurn()).generate(rootMoves);
+        if (rootMoves.isEmpty()) {
+            return new Result(null, generators[0].isInCheck() ? -MATE : 0, 0, 0);
+        }
+        pathKeys[0] = game.getZobristKey();
+
+        int bestMove = rootMoves.get(0);
+        int hashMove = TranspositionTable.move(table.probe(pathKeys[0]));
+        for (int i = 0; i < rootMoves.size(); i++) {
+            if (rootMoves.get(i) == hashMove) {
+                bestMove = hashMove;
+            }
+        }
+        int bestScore = 0;
+        int completedDepth = 0;
+        int maxDepth = Math.max(1, Math.min(limits.depth(), MAX_DEPTH));
+        for (int iteration = 1; iteration <= maxDepth; iteration++) {
+            int depth = Math.min(iteration + depthOffset, maxDepth);
+            limitsActive = iteration > 1;
+            int iterationBest = 0;
+            int alpha = -INFINITY;
+            scoreMoves(0, rootMoves, bestMove);
+            for (int i = 0; i < rootMoves.size(); i++) {
+                int move = pickNext(0, rootMoves, i);
+                game.doMove(move);
+                pathKeys[1] = game.getZobristKey();
+                int score = -alphaBeta(depth - 1, -INFINITY, -alpha, 1);
+                game.undoMove();
+                if (stopped) {
+                    break;
+                }
+                if (score > alpha) {
+                    alpha = score;
+                    iterationBest = move;
+                }
+            }
+            if (iterationBest != 0) {
+                bestMove = iterationBest;
+                bestScore = alpha;
+            }
+            if (stopped) {
+                break;
+            }
+            completedDepth = depth;
+            table.store(pathKeys[0], bestMove, toTable(bestScore, 0), depth, TranspositionTable.EXACT);
+            if (Math.abs(bestScore) >= Result.MATE_THRESHOLD) {
+                break;
+            }
+            limitsActive = true;
+            checkLimits();
+            if (stopped) {
+                break;
+            }
+        }
+        return new Result(Move.toChessMove(bestMove), bestScore, completedDepth, nodes);
+    }
+
+    private int alphaBeta(int depth, int alpha, int beta, int ply) {
+        if ((++nodes & CHECK_INTERVAL) == 0) {
+            checkLimits();
+        }
+        if (stopped) {
+            return 0;
+        }
+        if (isRepetition(ply)) {
+            return 0;
+        }
+        if (ply >= MAX_PLY) {
+            return Evaluation.evaluate(game.getBoard(), game.getTeamTurn());
+        }
+        LegalMoveGenerator generator = generators[ply].reset(game.getTeamTurn());
+        boolean inCheck = generator.isInCheck();
+        if (inCheck) {
+            depth++;
+        }
+        if (depth <= 0) {
+            return quiesce(alpha, beta, ply);
+        }
+        long key = pathKeys[ply];
+        long entry = table.probe(key);
+        int hashMove = 0;
+        if (entry != 0) {
+            hashMove = TranspositionTable.move(entry);
+            if (TranspositionTable.depth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER && score >= beta)
+                        || (bound == TranspositionTable.UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        generator.generate(moves);
+        if (moves.isEmpty()) {
+            return inCheck ? -MATE + ply : 0;
+        }
+
+        scoreMoves(ply, moves, hashMove);
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = pickNext(ply, moves, i);
+            game.doMove(move);
+            pathKeys[ply + 1] = game.getZobristKey();
+            int score = -alphaBeta(depth - 1, -beta, -alpha, ply + 1);
+            game.undoMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    bestMove = move;
+                    if (score >= beta) {
+                        if (!isTactical(move)) {
+                            rememberCutoff(move, depth, ply);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+        int bound = (best >= beta) ? TranspositionTable.LOWER
+                : (best > originalAlpha) ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        table.store(key, bestMove, toTable(best, ply), depth, bound);
+        return best;
+    }
+
+    /**
+     * Mate scores count plies from the root; the table keeps them counted from the position
+     */
+    private static int toTable(int score, int ply) {
+        if (score >= Result.MATE_THRESHOLD) {
+            return score + ply;
+        }
+        if (score <= -Result.MATE_THRESHOLD) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= Result.MATE_THRESHOLD) {
+            return score - ply;
+        }
+        if (score <= -Result.MATE_THRESHOLD) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    /**
+     * Searches only captures and promotions, or every evasion when in check, until the position
+     * is quiet. The team to move may also stand pat on the static score when not in check.
+     */
+    private int quiesce(int alpha, int beta, int ply) {
+        if ((++nodes & CHECK_INTERVAL) == 0) {
+            checkLimits();
+        }
+        if (stopped) {
+            return 0;
+        }
+        int standPat = Evaluation.evaluate(game.getBoard(), game.getTeamTurn());
+        if (ply >= MAX_PLY) {
+            return standPat;
+        }
+        LegalMoveGenerator generator = generators[ply].reset(game.getTeamTurn());
+        boolean inCheck = generator.isInCheck();
+        int best = -INFINITY;
+        if (!inCheck) {
+            if (standPat >= beta) {
+                return standPat;
+            }
+            alpha = Math.max(alpha, standPat);
+            best = standPat;
+        }
+
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        generator.generate(moves);
+        if (moves.isEmpty()) {
+            return inCheck ? -MATE + ply : 0;
+        }
+        if (!inCheck) {
+            int kept = 0;
+            for (int i = 0; i < moves.size(); i++) {
+                if (isTactical(moves.get(i))) {
+                    moves.set(kept++, moves.get(i));
+                }
+            }
+            moves.truncate(kept);
+        }
+
+        scoreMoves(ply, moves, 0);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = pickNext(ply, moves, i);
+            game.doMove(move);
+            int score = -quiesce(-beta, -alpha, ply + 1);
+            game.undoMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (score >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return true if the position at this ply already occurred earlier on the search path with
+     * the same team to move
+     */
+    private boolean isRepetition(int ply) {
+        long key = pathKeys[ply];
+        for (int earlier = ply - 2; earlier >= 0; earlier -= 2) {
+            if (pathKeys[earlier] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isTactical(int move) {
+        return Move.isCapture(move) || Move.promotion(move) != null;
+    }
+
+    private void rememberCutoff(int move, int depth, int ply) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int index = Move.from(move) * 64 + Move.to(move);
+        history[index] = Math.min(history[index] + depth * depth, HISTORY_LIMIT);
+    }
+
+    private void scoreMoves(int ply, MoveList moves, int hashMove) {
+        int[] scores = orderScores[ply];
+        if (scores.length < moves.size()) {
+            scores = new int[moves.size()];
+            orderScores[ply] = scores;
+        }
+        ChessBoard board = game.getBoard();
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int score;
+            if (move == hashMove) {
+                score = HASH_MOVE_SCORE;
+            } else if (Move.isCapture(move)) {
+                int victim = ((Move.flags(move) & Move.EN_PASSANT) != 0)
+                        ? ChessPiece.PieceType.PAWN.ordinal()
+                        : board.pieceAt(Move.to(move)).getPieceType().ordinal();
+                int attacker = board.pieceAt(Move.from(move)).getPieceType().ordinal();
+                score = CAPTURE_SCORE + Evaluation.VALUES[victim] * 8 - ATTACKER_RANK[attacker];
+            } else if (Move.promotion(move) != null) {
+                score = PROMOTION_SCORE + Evaluation.VALUES[Move.promotion(move).ordinal()];
+            } else if (move == killers[ply][0]) {
+                score = KILLER_SCORE + 1;
+            } else if (move == killers[ply][1]) {
+                score = KILLER_SCORE;
+            } else {
+                score = history[Move.from(move) * 64 + Move.to(move)];
+            }
+            scores[i] = score;
+        }
+    }
+
+    /**
+     * Swaps the best scored of the moves not yet tried into place i
+     * @return the move now at i
+     */
+    private int pickNext(int ply, MoveList moves, int i) {
+        int[] scores = orderScores[ply];
+        int best = i;
+        for (int j = i + 1; j < moves.size(); j++) {
+            if (scores[j] > scores[best]) {
+                best = j;
+            }
+        }
+        if (best != i) {
+            int move = moves.get(best);
+            moves.set(best, moves.get(i));
+            moves.set(i, move);
+            int score = scores[best];
+            scores[best] = scores[i];
+            scores[i] = score;
+        }
+        return moves.get(i);
+    }
+
+    private void checkLimits() {
+        if (limitsActive && (nodes >= nodeLimit || (hasDeadline && System.nanoTime() - deadline >= 0))) {
+            stopped = true;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package chess;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A fixed-size table of search results keyed by Zobrist key, shared without locks by any number
+ * of search threads.
+ * <p>
+ * Entries are two longs in one {@code long[]}: the key XORed with the data, then the data. A
+ * reader only trusts an entry when its key XOR its data gives back the key it asked for, so an
+ * entry torn by two threads writing at once reads as a miss instead of as wrong data. Entries
+ * are grouped in buckets of four, 64 bytes, and a position may go in any entry of the bucket its
+ * key selects; a new result replaces the entry for the same key if there is one, otherwise the
+ * entry whose result is shallowest once results from earlier searches are marked down by their age.
+ * <p>
+ * The data packs the best move (bits 0-19, as in {@link Move}), the score (bits 20-35, offset
+ * by 32768), the depth (bits 36-43), the bound (bits 44-45) and the search generation (bits 46-53),
+ * with bit 54 set so no stored entry is 0.
+ * <p>
+ * The generation belongs to the table, not to any one game: every search that shares the table
+ * starts a new one, so with several games searching at once results age by the table's searches
+ * and {@link #hashfull} counts the results of all of them since the last one started. The age
+ * is eight bits, so it wraps after 256 searches and an entry that old counts as new again.
+ */
+public class TranspositionTable {
+    /** The score is the exact score of the position */
+    static final int EXACT = 0;
+    /** The search failed high, so the score is a lower bound */
+    static final int LOWER = 1;
+    /** The search failed low, so the score is an upper bound */
+    static final int UPPER = 2;
+
+    public static final int ENTRY_BYTES = 16;
+    private static final int BUCKET_ENTRIES = 4;
+    private static final int MOVE_BITS = 20;
+    private static final int SCORE_SHIFT = 20;
+    private static final int DEPTH_SHIFT = 36;
+    private static final int BOUND_SHIFT = 44;
+    private static final int AGE_SHIFT = 46;
+    private static final long VALID = 1L << 54;
+    /** How many plies of depth one search generation of age is worth when choosing what to replace */
+    private static final int AGE_WEIGHT = 8;
+    /** The most buckets whose longs still fit in one array */
+    private static final long MAX_BUCKETS = 1L << 27;
+
+    /**
+     * @param sizeInBytes the memory held by the entries
+     * @param capacity how many positions the table can hold
+     * @param hashfull how many of every thousand sampled entries are from the current search
+     */
+    public record Stats(long sizeInBytes, int capacity, int hashfull) {
+    }
+
+    private final long[] entries;
+    private final int bucketMask;
+    private final AtomicInteger generation = new AtomicInteger();
+
+    /**
+     * @param megabytes the most memory the table may use; it is rounded down to a power of two
+     * buckets, with at least one bucket
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes <= 0) {
+            throw new IllegalArgumentException("Transposition table size must be positive: " + megabytes);
+        }
+        long buckets = Long.highestOneBit(((long) megabytes << 20) / (ENTRY_BYTES * BUCKET_ENTRIES));
+        buckets = Math.max(1, Math.min(buckets, MAX_BUCKETS));
+        this.entries = new long[(int) (buckets * BUCKET_ENTRIES * 2)];
+        this.bucketMask = (int) buckets - 1;
+    }
+
+    /**
+     * @return the memory held by the entries, in bytes
+     */
+    public long sizeInBytes() {
+        return (long) entries.length * Long.BYTES;
+    }
+
+    /**
+     * @return how many positions the table can hold
+     */
+    public int capacity() {
+        return entries.length / 2;
+    }
+
+    /**
+     * @return the table's size and how full it is
+     */
+    public Stats stats() {
+        return new Stats(sizeInBytes(), capacity(), hashfull());
+    }
+
+    /**
+     * Starts a new search generation, so results from earlier searches are replaced first; safe
+     * to call from any number of threads at once
+     */
+    public void newSearch() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * @return the current search generation, 0 through 255
+     */
+    int generation() {
+        return generation.get() & 0xFF;
+    }
+
+    /**
+     * Forgets every stored result
+     */
+    public void clear() {
+        Arrays.fill(entries, 0L);
+    }
+
+    /**
+     * Samples the first thousand entries, the way UCI engines report how full their hash is
+     * @return how many of every thousand entries hold a result from the current generation
+     */
+    public int hashfull() {
+        int generation = generation();
+        int sample = Math.min(1000, capacity());
+        int used = 0;
+        for (int i = 0; i < sample; i++) {
+            long data = entries[i * 2 + 1];
+            if (data != 0 && age(data) == generation) {
+                used++;
+            }
+        }
+        return used * 1000 / sample;
+    }
+
+    /**
+     * @param key the position's Zobrist key
+     * @return the stored data for the position, or 0 if there is none
+     */
+    long probe(long key) {
+        int first = bucket(key);
+        for (int i = first; i < first + BUCKET_ENTRIES * 2; i += 2) {
+            long data = entries[i + 1];
+            if ((entries[i] ^ data) == key && data != 0) {
+                return data;
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * @param key the position's Zobrist key
+     * @param move the best move found, packed as in {@link Move}, or 0 for none
+     * @param score the score, with mate scores relative to this position
+     * @param depth the depth searched
+     * @param bound EXACT, LOWER or UPPER
+     */
+    void store(long key, int move, int score, int depth, int bound) {
+        int first = bucket(key);
+        int generation = generation();
+        int replace = first;
+        int replaceWorth = Integer.MAX_VALUE;
+        for (int i = first; i < first + BUCKET_ENTRIES * 2; i += 2) {
+            long data = entries[i + 1];
+            if (data == 0 || (entries[i] ^ data) == key) {
+                replace = i;
+                if (data != 0 && move == 0) {
+                    move = move(data);
+                }
+                break;
+            }
+            int worth = depth(data) - AGE_WEIGHT * ((generation - age(data)) & 0xFF);
+            if (worth < replaceWorth) {
+                replaceWorth = worth;
+                replace = i;
+            }
+        }
+        long data = VALID | (move & ((1L << MOVE_BITS) - 1)) |
+                ((long) (score + 32768) << SCORE_SHIFT) |
+                ((long) Math.min(Math.max(depth, 0), 255) << DEPTH_SHIFT) |
+                ((long) bound << BOUND_SHIFT) |
+                ((long) generation << AGE_SHIFT);
+        entries[replace] = key ^ data;
+        entries[replace + 1] = data;
+    }
+
+    private int bucket(long key) {
+        return ((int) (key >>> 32) & bucketMask) * BUCKET_ENTRIES * 2;
+    }
+
+    static int move(long data) {
+        return (int) (data & ((1L << MOVE_BITS) - 1));
+    }
+
+    static int score(long data) {
+        return (int) ((data >>> SCORE_SHIFT) & 0xFFFF) - 32768;
+    }
+
+    static int depth(long data) {
+        return (int) ((data >>> DEPTH_SHIFT) & 0xFF);
+    }
+
+    static int bound(long data) {
+        return (int) ((data >>> BOUND_SHIFT) & 3);
+    }
+
+    private static int age(long data) {
+        return (int) ((data >>> AGE_SHIFT) & 0xFF);
+    }
+}
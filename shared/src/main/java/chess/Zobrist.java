@@ -0,0 +1,95 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for Zobrist hashing. A position's key is the XOR of one key per piece on its
+ * square, plus keys for the side to move, the castling rights and the en passant column, so a
+ * move only has to XOR in and out the keys of what it changed.
+ * <p>
+ * The keys come from a fixed seed so the same position hashes to the same key in every JVM.
+ */
+final class Zobrist {
+    /** Keys indexed by team ordinal * 6 + piece type ordinal, then by square */
+    static final long[][] PIECE_SQUARE = new long[12][64];
+    static final long BLACK_TO_MOVE;
+    /** Keys indexed by a 4-bit castling rights mask, see {@link #castlingRights} */
+    static final long[] CASTLING = new long[16];
+    /** Keys indexed by the en passant column 1 through 8; index 0 means no en passant and is 0 */
+    static final long[] EN_PASSANT_COLUMN = new long[9];
+
+    static final int WHITE_KING_SIDE = 1;
+    static final int WHITE_QUEEN_SIDE = 2;
+    static final int BLACK_KING_SIDE = 4;
+    static final int BLACK_QUEEN_SIDE = 8;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x2F6B_3C1D_9A45_E807L);
+        for (long[] keys : PIECE_SQUARE) {
+            for (int square = 0; square < 64; square++) {
+                keys[square] = random.nextLong();
+            }
+        }
+        BLACK_TO_MOVE = random.nextLong();
+        long[] rightKeys = new long[4];
+        for (int i = 0; i < rightKeys.length; i++) {
+            rightKeys[i] = random.nextLong();
+        }
+        for (int rights = 0; rights < CASTLING.length; rights++) {
+            for (int i = 0; i < rightKeys.length; i++) {
+                if ((rights & (1 << i)) != 0) {
+                    CASTLING[rights] ^= rightKeys[i];
+                }
+            }
+        }
+        for (int col = 1; col <= 8; col++) {
+            EN_PASSANT_COLUMN[col] = random.nextLong();
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * @param teamColor the piece's team
+     * @param type the piece's type
+     * @param square the square index, 0 through 63
+     * @return the key for that piece standing on that square
+     */
+    static long pieceKey(ChessGame.TeamColor teamColor, ChessPiece.PieceType type, int square) {
+        return PIECE_SQUARE[teamColor.ordinal() * 6 + type.ordinal()][square];
+    }
+
+    /**
+     * Reads castling rights off the board: a side may still castle while its king and that
+     * corner's rook are on their home squares and have not moved
+     * @param board the board to read
+     * @return a mask of WHITE_KING_SIDE, WHITE_QUEEN_SIDE, BLACK_KING_SIDE and BLACK_QUEEN_SIDE
+     */
+    static int castlingRights(ChessBoard board) {
+        return castlingRights(board, ChessGame.TeamColor.WHITE, 1, WHITE_KING_SIDE, WHITE_QUEEN_SIDE)
+                | castlingRights(board, ChessGame.TeamColor.BLACK, 8, BLACK_KING_SIDE, BLACK_QUEEN_SIDE);
+    }
+
+    private static int castlingRights(ChessBoard board, ChessGame.TeamColor teamColor, int row,
+                                      int kingSide, int queenSide) {
+        if (!isUnmoved(board, Bitboards.square(row, 5), teamColor, ChessPiece.PieceType.KING)) {
+            return 0;
+        }
+        int rights = 0;
+        if (isUnmoved(board, Bitboards.square(row, 8), teamColor, ChessPiece.PieceType.ROOK)) {
+            rights |= kingSide;
+        }
+        if (isUnmoved(board, Bitboards.square(row, 1), teamColor, ChessPiece.PieceType.ROOK)) {
+            rights |= queenSide;
+        }
+        return rights;
+    }
+
+    private static boolean isUnmoved(ChessBoard board, int square, ChessGame.TeamColor teamColor,
+                                     ChessPiece.PieceType type) {
+        ChessPiece piece = board.pieceAt(square);
+        return piece != null && piece.getTeamColor() == teamColor && piece.getPieceType() == type &&
+                board.isUnmoved(square);
+    }
+}
@@ -0,0 +1,14 @@
+package model;
+
+import chess.ChessMove;
+
+import java.time.Instant;
+
+/**
+ * One move of a game's history as the move log keeps it
+ * @param ply which move of the game this is, 1 being the first
+ * @param move the move
+ * @param playedAt when the move was saved
+ */
+public record GameMove(int ply, ChessMove move, Instant playedAt) {
+}
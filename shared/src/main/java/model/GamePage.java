@@ -0,0 +1,16 @@
+package model;
+
+import java.util.List;
+
+/**
+ * One page of a game listing
+ * @param games the games on this page, in the order asked for
+ * @param nextCursor the cursor for the page after this one, or null if this is the last page
+ * @param truncated true if more games match than this page holds, so a caller that expected the
+ * whole listing can tell it did not get it
+ */
+public record GamePage(List<GameSummary> games, String nextCursor, boolean truncated) {
+    public GamePage(List<GameSummary> games, String nextCursor) {
+        this(games, nextCursor, nextCursor != null);
+    }
+}
@@ -0,0 +1,84 @@
+package model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Which games a listing returns and in what order, one page at a time.
+ * <p>
+ * Pages are keyset pages: the cursor names the last game of the previous page by its sort key
+ * and game ID, and the next page starts after it, so a page costs the same however deep into
+ * the listing it is and games created meanwhile do not shift later pages.
+ * @param cursor where the page starts, from {@link GamePage#nextCursor}, or null for the first page
+ * @param limit the most games on the page
+ * @param openOnly only games with an empty seat
+ * @param player only games this user plays in, or null for any
+ * @param finished only finished games if true, only unfinished games if false, or null for both
+ * @param sort the order of the listing
+ * @param descending whether the order is reversed
+ */
+public record GameQuery(String cursor, int limit, boolean openOnly, String player, Boolean finished,
+                        Sort sort, boolean descending) {
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+
+    public enum Sort { ID, NAME }
+
+    /**
+     * @return the first page of every game by ID, at the default page size
+     */
+    public static GameQuery firstPage() {
+        return new GameQuery(null, DEFAULT_LIMIT, false, null, null, Sort.ID, false);
+    }
+
+    /**
+     * @param nextCursor the cursor of the page just read
+     * @return the same query for the page after it
+     */
+    public GameQuery after(String nextCursor) {
+        return new GameQuery(nextCursor, limit, openOnly, player, finished, sort, descending);
+    }
+
+    /**
+     * @param last the last game of a page
+     * @return the cursor for the page after it
+     */
+    public static String cursorAfter(GameSummary last) {
+        String key = last.gameID() + ":" + last.gameName();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the game ID in the cursor
+     * @throws IllegalArgumentException if the cursor is not one {@link #cursorAfter} made
+     */
+    public int cursorGameID() {
+        String key = decodeCursor();
+        try {
+            return Integer.parseInt(key.substring(0, key.indexOf(':')));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Bad cursor: " + cursor);
+        }
+    }
+
+    /**
+     * @return the game name in the cursor
+     * @throws IllegalArgumentException if the cursor is not one {@link #cursorAfter} made
+     */
+    public String cursorGameName() {
+        String key = decodeCursor();
+        int colon = key.indexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("Bad cursor: " + cursor);
+        }
+        return key.substring(colon + 1);
+    }
+
+    private String decodeCursor() {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Bad cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package model;
+
+/**
+ * What a game listing shows about a game, without the game itself
+ */
+public record GameSummary(int gameID, String whiteUsername, String blackUsername, String gameName, boolean gameIsOver) {
+}
@@ -7,6 +7,7 @@ import model.*;
 
 import java.io.*;
 import java.net.*;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 public class ServerFacade {
@@ -128,10 +129,47 @@ public class ServerFacade {
      * @return a list of games
      * @throws ResponseException if call comes back bad
      */
-    public List<GameData> listGames(String authToken) throws ResponseException {
-        var path = "/game";
-        GameListResponse result = makeRequest("GET", path, authToken, null, GameListResponse.class);
-        return result.games;
+    public List<GameSummary> listGames(String authToken) throws ResponseException {
+        return listGames(authToken, GameQuery.firstPage()).games();
+    }
+
+    /**
+     *
+     * @param authToken used for verification
+     * @param query which games, in what order, and where the page starts
+     * @return one page of games
+     * @throws ResponseException if call comes back bad
+     */
+    public GamePage listGames(String authToken, GameQuery query) throws ResponseException {
+        var path = new StringBuilder("/game?limit=").append(query.limit());
+        if (query.cursor() != null) {
+            path.append("&cursor=").append(URLEncoder.encode(query.cursor(), StandardCharsets.UTF_8));
+        }
+        if (query.openOnly()) {
+            path.append("&open=true");
+        }
+        if (query.player() != null) {
+            path.append("&player=").append(URLEncoder.encode(query.player(), StandardCharsets.UTF_8));
+        }
+        if (query.finished() != null) {
+            path.append("&status=").append(query.finished() ? "finished" : "active");
+        }
+        path.append("&sort=").append(query.sort().name().toLowerCase());
+        path.append("&order=").append(query.descending() ? "desc" : "asc");
+        GamePage page = makeRequest("GET", path.toString(), authToken, null, GamePage.class);
+        return (page.games() == null) ? new GamePage(List.of(), null) : page;
+    }
+
+    /**
+     *
+     * @param authToken used for verification
+     * @param gameID the game to load
+     * @return the game with its players and board
+     * @throws ResponseException if call comes back bad
+     */
+    public GameData getGame(String authToken, int gameID) throws ResponseException {
+        var path = "/game/" + gameID;
+        return makeRequest("GET", path, authToken, null, GameData.class);
     }
 
     /**
@@ -235,13 +273,6 @@ class CreateGameRequest {
 }
 
 
-/**
- * Creates a list response
- */
-class GameListResponse {
-    public List<GameData> games;
-}
-
 /**
  * Creates a game response
  */
@@ -0,0 +1,112 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ChessGameCodecTests {
+
+    @Test
+    @DisplayName("Round Trip Keeps The Whole Position")
+    public void roundTrip() {
+        for (Perft.Position position : Perft.REFERENCE_POSITIONS) {
+            ChessGame game = ChessGame.fromFen(position.fen());
+            byte[] bytes = ChessGameCodec.encode(game);
+            Assertions.assertEquals(ChessGameCodec.LENGTH, bytes.length);
+            assertSamePosition(game, ChessGameCodec.decode(bytes));
+        }
+    }
+
+    @Test
+    @DisplayName("Round Trip Keeps Castling And En Passant")
+    public void roundTripAfterMoves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        game.makeMove(new ChessMove(ChessPosition.of(7, 1), ChessPosition.of(6, 1), null));
+        game.makeMove(new ChessMove(ChessPosition.of(1, 5), ChessPosition.of(2, 5), null));
+        game.makeMove(new ChessMove(ChessPosition.of(6, 1), ChessPosition.of(5, 1), null));
+        game.makeMove(new ChessMove(ChessPosition.of(4, 5), ChessPosition.of(5, 5), null));
+        game.makeMove(new ChessMove(ChessPosition.of(7, 4), ChessPosition.of(5, 4), null));
+
+        ChessGame decoded = ChessGameCodec.decode(ChessGameCodec.encode(game));
+        assertSamePosition(game, decoded);
+        Assertions.assertTrue(decoded.getCanEnPassant());
+        Assertions.assertEquals(4, decoded.getEnPassantCol());
+        Assertions.assertTrue(decoded.getBoard().isUnmoved(Bitboards.square(8, 5)));
+        Assertions.assertFalse(decoded.getBoard().isUnmoved(Bitboards.square(1, 5)));
+        Assertions.assertEquals(0, decoded.getMoveCount());
+    }
+
+    @Test
+    @DisplayName("Snapshot And Later Moves Rebuild The Game")
+    public void snapshotAndTail() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        game.makeMove(new ChessMove(ChessPosition.of(7, 4), ChessPosition.of(5, 4), null));
+        byte[] snapshot = ChessGameCodec.encode(game);
+        Assertions.assertEquals(ChessGameCodec.LENGTH, snapshot.length);
+        game.makeMove(new ChessMove(ChessPosition.of(4, 5), ChessPosition.of(5, 4), null));
+        game.makeMove(new ChessMove(ChessPosition.of(8, 4), ChessPosition.of(5, 4), null));
+
+        int[] moves = ChessGameCodec.encodeMoves(game);
+        Assertions.assertEquals(4, moves.length);
+        ChessGame rebuilt = ChessGameCodec.decode(snapshot);
+        for (int i = 2; i < moves.length; i++) {
+            ChessGameCodec.playMove(rebuilt, moves[i]);
+        }
+        assertSamePosition(game, rebuilt);
+        Assertions.assertEquals(game.getMoveHistory().subList(2, 4), rebuilt.getMoveHistory());
+        Assertions.assertArrayEquals(ChessGameCodec.encode(new ChessGame()), ChessGameCodec.encodeStart(game));
+        Assertions.assertArrayEquals(snapshot, ChessGameCodec.encodeAt(game, 2));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGameCodec.encodeAt(game, 5));
+        Assertions.assertEquals(4, game.getMoveCount());
+        Assertions.assertEquals(game.getMoveHistory().get(2), ChessGameCodec.decodeMove(moves[2]));
+        Assertions.assertEquals(moves[2], ChessGameCodec.encodeMove(game.getMoveHistory().get(2)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGameCodec.playMove(rebuilt, moves[0]));
+    }
+
+    @Test
+    @DisplayName("Unknown Versions Are Rejected")
+    public void rejectsUnknownVersion() {
+        byte[] bytes = ChessGameCodec.encode(new ChessGame());
+        bytes[0] = 99;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGameCodec.decode(bytes));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGameCodec.decode(new byte[]{1, 2, 3}));
+    }
+
+    @Test
+    @DisplayName("Reads Current And Original JSON")
+    public void readsJson() {
+        ChessGame game = ChessGame.fromFen(Perft.REFERENCE_POSITIONS.get(1).fen());
+        assertSamePosition(game, ChessGameCodec.fromJson(new com.google.gson.Gson().toJson(game)));
+
+        StringBuilder grid = new StringBuilder("[");
+        for (int row = 0; row <= 8; row++) {
+            grid.append(row == 0 ? "[" : ",[");
+            for (int col = 0; col <= 8; col++) {
+                grid.append(col == 0 ? "" : ",");
+                ChessPiece piece = (row == 0 || col == 0) ? null : game.getBoard().getPiece(ChessPosition.of(row, col));
+                if (piece == null) {
+                    grid.append("null");
+                } else {
+                    grid.append(String.format("{\"pieceColor\":\"%s\",\"type\":\"%s\",\"hasNotMoved\":%b}",
+                            piece.getTeamColor(), piece.getPieceType(),
+                            game.getBoard().isUnmoved(Bitboards.square(row, col))));
+                }
+            }
+            grid.append("]");
+        }
+        grid.append("]");
+        String original = "{\"teamTurn\":\"WHITE\",\"chessBoard\":{\"chessBoard\":" + grid +
+                "},\"canEnPassant\":false,\"enPassantCol\":0}";
+        assertSamePosition(game, ChessGameCodec.fromJson(original));
+    }
+
+    private static void assertSamePosition(ChessGame expected, ChessGame actual) {
+        Assertions.assertEquals(expected, actual);
+        Assertions.assertEquals(expected.getCanEnPassant(), actual.getCanEnPassant());
+        Assertions.assertEquals(expected.getEnPassantCol(), actual.getEnPassantCol());
+        Assertions.assertEquals(expected.getZobristKey(), actual.getZobristKey());
+        Assertions.assertEquals(expected.getBoard().unmovedState(), actual.getBoard().unmovedState());
+    }
+}
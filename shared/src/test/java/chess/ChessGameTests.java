@@ -0,0 +1,132 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ChessGameTests {
+
+    @Test
+    @DisplayName("Game Status Of Each Kind")
+    public void gameStatus() {
+        Assertions.assertEquals(ChessGame.GameStatus.NORMAL,
+                new ChessGame().getGameStatus(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(ChessGame.GameStatus.CHECK,
+                ChessGame.fromFen("4k3/8/8/8/8/8/4r3/4K3 w - - 0 1").getGameStatus(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(ChessGame.GameStatus.CHECKMATE,
+                ChessGame.fromFen("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3")
+                        .getGameStatus(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(ChessGame.GameStatus.STALEMATE,
+                ChessGame.fromFen("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1").getGameStatus(ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    @DisplayName("Game Status Agrees With The Separate Checks")
+    public void gameStatusMatchesChecks() {
+        for (Perft.Position position : Perft.REFERENCE_POSITIONS) {
+            ChessGame game = ChessGame.fromFen(position.fen());
+            for (ChessGame.TeamColor team : ChessGame.TeamColor.values()) {
+                ChessGame.GameStatus status = game.getGameStatus(team);
+                Assertions.assertEquals(game.isInCheck(team),
+                        status == ChessGame.GameStatus.CHECK || status == ChessGame.GameStatus.CHECKMATE);
+                Assertions.assertEquals(game.isInCheckmate(team), status == ChessGame.GameStatus.CHECKMATE);
+                Assertions.assertEquals(game.isInStalemate(team), status == ChessGame.GameStatus.STALEMATE);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Make Move Rejections Keep Their Messages")
+    public void makeMoveMessages() {
+        ChessGame game = new ChessGame();
+        assertRejected(game, new ChessMove(ChessPosition.of(4, 4), ChessPosition.of(5, 4), null), "No piece to move");
+        assertRejected(game, new ChessMove(ChessPosition.of(7, 4), ChessPosition.of(6, 4), null), "Not that teams turn");
+        assertRejected(game, new ChessMove(ChessPosition.of(1, 1), ChessPosition.of(3, 1), null),
+                "No valid moves for that piece");
+        assertRejected(game, new ChessMove(ChessPosition.of(2, 4), ChessPosition.of(5, 4), null),
+                "Not a valid location to move to");
+        assertRejected(game, new ChessMove(ChessPosition.of(2, 4), ChessPosition.of(9, 4), null),
+                "Not a valid location to move to");
+
+        ChessGame pinned = ChessGame.fromFen("4k3/4r3/8/8/8/8/4B3/4K3 w - - 0 1");
+        assertRejected(pinned, new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(3, 4), null),
+                "No valid moves for that piece");
+    }
+
+    @Test
+    @DisplayName("FEN Round Trips Through A Game")
+    public void fenRoundTrip() {
+        for (Perft.Position position : Perft.REFERENCE_POSITIONS) {
+            String fen = ChessGame.fromFen(position.fen()).toFen();
+            Assertions.assertEquals(withoutCounters(position.fen()), withoutCounters(fen), position.name());
+            Assertions.assertEquals(ChessGame.fromFen(position.fen()).getZobristKey(), ChessGame.fromFen(fen).getZobristKey());
+        }
+        Assertions.assertEquals(new ChessGame().toFen(), Perft.REFERENCE_POSITIONS.get(0).fen());
+        Assertions.assertEquals(new ChessBoard().toFen(), "8/8/8/8/8/8/8/8");
+    }
+
+    @Test
+    @DisplayName("FEN Follows Moves")
+    public void fenAfterMoves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1", game.toFen());
+        game.makeMove(new ChessMove(ChessPosition.of(7, 1), ChessPosition.of(6, 1), null));
+        game.makeMove(new ChessMove(ChessPosition.of(1, 5), ChessPosition.of(2, 5), null));
+        Assertions.assertEquals("rnbqkbnr/1ppppppp/p7/8/4P3/8/PPPPKPPP/RNBQ1BNR b kq - 0 1", game.toFen());
+        game.makeMove(new ChessMove(ChessPosition.of(6, 1), ChessPosition.of(5, 1), null));
+        game.makeMove(new ChessMove(ChessPosition.of(4, 5), ChessPosition.of(5, 5), null));
+        game.makeMove(new ChessMove(ChessPosition.of(7, 4), ChessPosition.of(5, 4), null));
+        Assertions.assertEquals("rnbqkbnr/1pp1pppp/8/p2pP3/8/8/PPPPKPPP/RNBQ1BNR w kq d6 0 1", game.toFen());
+        Assertions.assertEquals(game.getZobristKey(), ChessGame.fromFen(game.toFen()).getZobristKey());
+    }
+
+    @Test
+    @DisplayName("FEN En Passant Squares Count Only When A Pawn Can Take")
+    public void fenEnPassantMatchesMoves() throws InvalidMoveException {
+        ChessGame played = new ChessGame();
+        played.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        ChessGame loaded = ChessGame.fromFen("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1");
+        Assertions.assertEquals(played, loaded);
+        Assertions.assertEquals(played.getZobristKey(), loaded.getZobristKey());
+        Assertions.assertFalse(loaded.getCanEnPassant());
+        Assertions.assertEquals(played.toFen(), loaded.toFen());
+
+        played.makeMove(new ChessMove(ChessPosition.of(7, 1), ChessPosition.of(6, 1), null));
+        played.makeMove(new ChessMove(ChessPosition.of(4, 5), ChessPosition.of(5, 5), null));
+        played.makeMove(new ChessMove(ChessPosition.of(7, 4), ChessPosition.of(5, 4), null));
+        loaded = ChessGame.fromFen("rnbqkbnr/1pp1pppp/p7/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 3");
+        Assertions.assertTrue(loaded.getCanEnPassant());
+        Assertions.assertEquals(played.getZobristKey(), loaded.getZobristKey());
+        Assertions.assertEquals(played.toFen(), loaded.toFen());
+    }
+
+    @Test
+    @DisplayName("Malformed FEN Is Rejected")
+    public void malformedFen() {
+        String[] bad = {
+                "",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                "rnbqkbnr/ppppXppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkx - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq e4 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - x 1"
+        };
+        for (String fen : bad) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen(fen), fen);
+        }
+    }
+
+    private static String withoutCounters(String fen) {
+        String[] fields = fen.split(" ");
+        return String.join(" ", fields[0], fields[1], fields[2], fields[3]);
+    }
+
+    private static void assertRejected(ChessGame game, ChessMove move, String message) {
+        InvalidMoveException e = Assertions.assertThrows(InvalidMoveException.class, () -> game.makeMove(move));
+        Assertions.assertEquals(message, e.getMessage());
+    }
+}
@@ -0,0 +1,74 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class EvaluationTests {
+
+    @Test
+    @DisplayName("Running Totals Match A Full Rescan Through Moves And Undos")
+    public void incrementalMatchesRescan() {
+        Random random = new Random(19);
+        for (Perft.Position position : Perft.REFERENCE_POSITIONS) {
+            ChessGame game = ChessGame.fromFen(position.fen());
+            int startScore = Evaluation.evaluate(game);
+            int played = 0;
+            for (int ply = 0; ply < 80; ply++) {
+                MoveList moves = new MoveList();
+                new LegalMoveGenerator(game, game.getTeamTurn()).generate(moves);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                game.doMove(moves.get(random.nextInt(moves.size())));
+                played++;
+                assertMatchesRescan(game, position.name() + " ply " + ply);
+            }
+            for (int i = 0; i < played; i++) {
+                game.undoMove();
+                assertMatchesRescan(game, position.name() + " undo " + i);
+            }
+            Assertions.assertEquals(startScore, Evaluation.evaluate(game), position.name());
+        }
+    }
+
+    @Test
+    @DisplayName("Scores Are From The Side To Move")
+    public void sideToMove() {
+        Assertions.assertEquals(0, Evaluation.evaluate(new ChessGame()));
+
+        ChessGame whiteUp = ChessGame.fromFen("4k3/8/8/8/8/8/8/3QK3 w - - 0 1");
+        ChessGame blackToMove = ChessGame.fromFen("4k3/8/8/8/8/8/8/3QK3 b - - 0 1");
+        Assertions.assertTrue(Evaluation.evaluate(whiteUp) > 800);
+        Assertions.assertEquals(-Evaluation.evaluate(whiteUp), Evaluation.evaluate(blackToMove));
+    }
+
+    @Test
+    @DisplayName("Kings Centralize Once The Pieces Are Off")
+    public void tapersToEndgame() {
+        ChessGame central = ChessGame.fromFen("4k3/8/8/8/3K4/8/8/8 w - - 0 1");
+        ChessGame corner = ChessGame.fromFen("4k3/8/8/8/8/8/8/K7 w - - 0 1");
+        Assertions.assertTrue(Evaluation.evaluate(central) > Evaluation.evaluate(corner));
+
+        ChessGame castledMiddlegame = ChessGame.fromFen("r2q1rk1/8/8/8/8/8/8/R2Q1RK1 w - - 0 1");
+        ChessGame centralMiddlegame = ChessGame.fromFen("r2q1rk1/8/8/8/3K4/8/8/R2Q1R2 w - - 0 1");
+        Assertions.assertTrue(Evaluation.evaluate(castledMiddlegame) > Evaluation.evaluate(centralMiddlegame));
+    }
+
+    @Test
+    @DisplayName("Totals Survive A JSON Round Trip")
+    public void jsonRoundTrip() {
+        ChessGame game = ChessGame.fromFen(Perft.REFERENCE_POSITIONS.get(1).fen());
+        ChessGame copy = new Gson().fromJson(new Gson().toJson(game), ChessGame.class);
+        Assertions.assertEquals(Evaluation.evaluate(game), Evaluation.evaluate(copy));
+    }
+
+    private static void assertMatchesRescan(ChessGame game, String message) {
+        int rescan = Evaluation.rescan(game.getBoard());
+        int expected = (game.getTeamTurn() == ChessGame.TeamColor.WHITE) ? rescan : -rescan;
+        Assertions.assertEquals(expected, Evaluation.evaluate(game), message);
+    }
+}
@@ -0,0 +1,24 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class MagicBitboardsTests {
+
+    @Test
+    @DisplayName("A Colliding Magic Is Rejected And Replaced")
+    public void rejectsCollidingMagic() {
+        int square = Bitboards.square(4, 4);
+        long mask = MagicBitboards.relevantOccupancy(square, MagicBitboards.ROOK_DIRECTIONS);
+        int bits = Long.bitCount(mask);
+        Assertions.assertNull(MagicBitboards.fillTable(square, MagicBitboards.ROOK_DIRECTIONS, mask, bits, 1L));
+
+        long magic = MagicBitboards.findMagic(square, MagicBitboards.ROOK_DIRECTIONS, mask, bits);
+        long[] table = MagicBitboards.fillTable(square, MagicBitboards.ROOK_DIRECTIONS, mask, bits, magic);
+        Assertions.assertNotNull(table);
+        long blockers = (1L << Bitboards.square(4, 6)) | (1L << Bitboards.square(2, 4));
+        int index = (int) (((blockers & mask) * magic) >>> (64 - bits));
+        Assertions.assertEquals(MagicBitboards.rookAttacks(square, blockers), table[index]);
+    }
+}
@@ -0,0 +1,133 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+public class OpeningBookTests {
+    private static final ChessMove E4 = move(2, 5, 4, 5);
+    private static final ChessMove D4 = move(2, 4, 4, 4);
+
+    @Test
+    @DisplayName("A Written Book Maps And Finds Its Moves")
+    public void writeAndOpen(@TempDir Path directory) throws IOException, InvalidMoveException {
+        OpeningBookWriter writer = new OpeningBookWriter();
+        writer.add(new ChessGame(), E4, 3);
+        writer.add(new ChessGame(), D4, 1);
+        writer.add(new ChessGame(), E4, 2);
+        ChessGame afterE4 = new ChessGame();
+        afterE4.makeMove(E4);
+        writer.add(afterE4, move(7, 3, 5, 3), 1);
+        Assertions.assertEquals(3, writer.size());
+
+        Path path = directory.resolve("book.bin");
+        writer.write(path);
+        Assertions.assertEquals(3L * OpeningBook.ENTRY_BYTES, Files.size(path));
+
+        OpeningBook book = OpeningBook.open(path);
+        Assertions.assertEquals(3, book.size());
+        Assertions.assertEquals(List.of(new OpeningBook.Entry(E4, 5), new OpeningBook.Entry(D4, 1)),
+                book.lookup(new ChessGame()));
+        Assertions.assertEquals(List.of(new OpeningBook.Entry(move(7, 3, 5, 3), 1)), book.lookup(afterE4));
+        ChessGame outOfBook = ChessGame.fromFen("4k3/8/8/8/8/8/8/4K3 w - - 0 1");
+        Assertions.assertTrue(book.lookup(outOfBook).isEmpty());
+        Assertions.assertNull(book.pick(outOfBook, new Random(1)));
+    }
+
+    @Test
+    @DisplayName("Picks Moves In Proportion To Their Weights")
+    public void weightedPick() throws IOException, InvalidMoveException {
+        OpeningBookWriter writer = new OpeningBookWriter();
+        writer.add(new ChessGame(), E4, 3);
+        writer.add(new ChessGame(), D4, 1);
+        OpeningBook book = OpeningBook.of(bytes(writer));
+
+        Random random = new Random(20);
+        int e4 = 0;
+        for (int i = 0; i < 4000; i++) {
+            ChessMove picked = book.pick(new ChessGame(), random);
+            Assertions.assertTrue(picked.equals(E4) || picked.equals(D4));
+            if (picked.equals(E4)) {
+                e4++;
+            }
+        }
+        Assertions.assertTrue(e4 > 2800 && e4 < 3200, "e4 picked " + e4 + " times");
+    }
+
+    @Test
+    @DisplayName("Castling And Promotions Survive The Book Encoding")
+    public void specialMoves() throws IOException, InvalidMoveException {
+        ChessGame kiwipete = ChessGame.fromFen(Perft.REFERENCE_POSITIONS.get(1).fen());
+        ChessGame promotion = ChessGame.fromFen("4k3/1P6/8/8/8/8/8/4K3 w - - 0 1");
+        OpeningBookWriter writer = new OpeningBookWriter();
+        writer.add(kiwipete, move(1, 5, 1, 7), 1);
+        writer.add(kiwipete, move(1, 5, 1, 3), 1);
+        writer.add(promotion, new ChessMove(ChessPosition.of(7, 2), ChessPosition.of(8, 2), ChessPiece.PieceType.KNIGHT), 1);
+        Assertions.assertThrows(InvalidMoveException.class, () -> writer.add(new ChessGame(), move(2, 5, 5, 5), 1));
+
+        OpeningBook book = OpeningBook.of(bytes(writer));
+        List<ChessMove> castles = book.lookup(kiwipete).stream().map(OpeningBook.Entry::move).toList();
+        Assertions.assertTrue(castles.contains(move(1, 5, 1, 7)), castles.toString());
+        Assertions.assertTrue(castles.contains(move(1, 5, 1, 3)), castles.toString());
+        Assertions.assertEquals(ChessPiece.PieceType.KNIGHT, book.pick(promotion, new Random()).getPromotionPiece());
+    }
+
+    @Test
+    @DisplayName("Reads Entries Keyed And Encoded As Polyglot Writes Them")
+    public void polyglotEntries() {
+        ChessGame kiwipete = ChessGame.fromFen(Perft.REFERENCE_POSITIONS.get(1).fen());
+        long[] keys = {0x463b96181691fc9cL, PolyglotKey.of(kiwipete)};
+        int[] moves = {12 << 6 | 28, 4 << 6 | 7};
+        ByteBuffer buffer = ByteBuffer.allocate(2 * OpeningBook.ENTRY_BYTES);
+        int first = Long.compareUnsigned(keys[0], keys[1]) < 0 ? 0 : 1;
+        for (int i : new int[] {first, 1 - first}) {
+            buffer.putLong(keys[i]).putShort((short) moves[i]).putShort((short) 1).putInt(0);
+        }
+
+        OpeningBook book = OpeningBook.of(buffer.array());
+        Assertions.assertEquals(List.of(new OpeningBook.Entry(E4, 1)), book.lookup(new ChessGame()));
+        Assertions.assertEquals(List.of(new OpeningBook.Entry(move(1, 5, 1, 7), 1)), book.lookup(kiwipete));
+    }
+
+    @Test
+    @DisplayName("Whole Games Add Their Opening Moves")
+    public void addGame() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(E4);
+        game.makeMove(move(7, 5, 5, 5));
+        game.makeMove(move(1, 7, 3, 6));
+        String fen = game.toFen();
+        OpeningBookWriter writer = new OpeningBookWriter();
+        writer.addGame(game, 2, 1);
+        Assertions.assertEquals(2, writer.size());
+        Assertions.assertEquals(fen, game.toFen());
+        Assertions.assertEquals(3, game.getMoveCount());
+    }
+
+    @Test
+    @DisplayName("Rejects Files That Are Not Whole Entries")
+    public void badFile(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("bad.bin");
+        Files.write(path, new byte[OpeningBook.ENTRY_BYTES + 1]);
+        Assertions.assertThrows(IOException.class, () -> OpeningBook.open(path));
+    }
+
+    private static byte[] bytes(OpeningBookWriter writer) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.write(out);
+        return out.toByteArray();
+    }
+
+    private static ChessMove move(int fromRow, int fromCol, int toRow, int toCol) {
+        return new ChessMove(ChessPosition.of(fromRow, fromCol), ChessPosition.of(toRow, toCol), null);
+    }
+}
@@ -0,0 +1,88 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+
+public class PerftTests {
+
+    /** Keeps the suite to a second or two; run Perft's main for the deeper counts */
+    private static final long MAX_TEST_NODES = 200_000;
+
+    @Test
+    @DisplayName("Reference Positions Match Published Counts")
+    public void referencePositions() {
+        for (Perft.Position position : Perft.REFERENCE_POSITIONS) {
+            for (int depth = 1; depth <= position.nodes().length; depth++) {
+                long expected = position.nodes()[depth - 1];
+                if (expected > MAX_TEST_NODES) {
+                    break;
+                }
+                Assertions.assertEquals(expected, Perft.perft(ChessGame.fromFen(position.fen()), depth),
+                        position.name() + " at depth " + depth);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Perft Leaves The Game Unchanged")
+    public void perftRestoresGame() {
+        ChessGame game = ChessGame.fromFen(Perft.REFERENCE_POSITIONS.get(1).fen());
+        ChessGame copy = ChessGame.fromFen(Perft.REFERENCE_POSITIONS.get(1).fen());
+        Perft.perft(game, 3);
+        Assertions.assertEquals(copy, game);
+        Assertions.assertEquals(copy.getZobristKey(), game.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("Divide Sums To Perft")
+    public void divideSumsToPerft() {
+        ChessGame game = ChessGame.fromFen(Perft.REFERENCE_POSITIONS.get(1).fen());
+        Map<String, Long> divide = Perft.divide(game, 2);
+        Assertions.assertEquals(48, divide.size());
+        Assertions.assertEquals(2039, divide.values().stream().mapToLong(Long::longValue).sum());
+        Assertions.assertEquals(43, divide.get("e1g1"));
+    }
+
+    @Test
+    @DisplayName("Public API Agrees With Perft")
+    public void validMovesAgreesWithPerft() {
+        for (Perft.Position position : Perft.REFERENCE_POSITIONS) {
+            ChessGame game = ChessGame.fromFen(position.fen());
+            Assertions.assertEquals(position.nodes()[1], validMovesPerft(game, 2), position.name());
+        }
+    }
+
+    /**
+     * Counts the same tree through validMoves and makeMove, the path the server uses
+     */
+    private long validMovesPerft(ChessGame game, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        Collection<ChessMove> moves = new ArrayList<>();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = game.getBoard().getPiece(new ChessPosition(row, col));
+                if (piece != null && piece.getTeamColor() == game.getTeamTurn()) {
+                    moves.addAll(game.validMoves(new ChessPosition(row, col)));
+                }
+            }
+        }
+        long nodes = 0;
+        for (ChessMove move : moves) {
+            try {
+                game.makeMove(move);
+            } catch (InvalidMoveException e) {
+                Assertions.fail("validMoves returned a move makeMove rejected: " + move);
+            }
+            nodes += validMovesPerft(game, depth - 1);
+            game.undoMove();
+        }
+        return nodes;
+    }
+}
@@ -0,0 +1,130 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class PgnTests {
+    private static final String OPERA_GAME = """
+            [Event "Paris"]
+            [Site "Paris FRA"]
+            [Date "1858.??.??"]
+            [Round "?"]
+            [White "Paul Morphy"]
+            [Black "Duke Karl / Count Isouard"]
+            [Result "1-0"]
+
+            1. e4 e5 2. Nf3 d6 3. d4 Bg4 {This is a weak move already.} 4. dxe5 Bxf3
+            5. Qxf3 dxe5 6. Bc4 Nf6 7. Qb3 Qe7 8. Nc3 (8. Qxb7 Qb4+ 9. Qxb4 Bxb4+) c6
+            9. Bg5 $1 b5 10. Nxb5! cxb5 11. Bxb5+ Nbd7 12. O-O-O Rd8 13. Rxd7 Rxd7
+            14. Rd1 Qe6 15. Bxd7+ Nxd7 16. Qb8+ Nxb8 17. Rd8# 1-0
+            """;
+
+    @Test
+    @DisplayName("SAN Names Every Legal Move Uniquely")
+    public void sanRoundTrip() throws InvalidMoveException {
+        for (Perft.Position position : Perft.REFERENCE_POSITIONS) {
+            ChessGame game = ChessGame.fromFen(position.fen());
+            MoveList legal = new MoveList();
+            new LegalMoveGenerator(game, game.getTeamTurn()).generate(legal);
+            for (int i = 0; i < legal.size(); i++) {
+                ChessMove move = Move.toChessMove(legal.get(i));
+                String san = San.toSan(game, move);
+                Assertions.assertEquals(move, San.fromSan(game, san), position.name() + " " + san);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("SAN Disambiguates, Captures, Castles And Marks Checks")
+    public void sanSpellings() throws InvalidMoveException {
+        ChessGame kiwipete = ChessGame.fromFen(Perft.REFERENCE_POSITIONS.get(1).fen());
+        Assertions.assertEquals("O-O", San.toSan(kiwipete, move(1, 5, 1, 7, null)));
+        Assertions.assertEquals("O-O-O", San.toSan(kiwipete, move(1, 5, 1, 3, null)));
+        Assertions.assertEquals("Nxf7", San.toSan(kiwipete, move(5, 5, 7, 6, null)));
+        Assertions.assertEquals("dxe6", San.toSan(kiwipete, move(5, 4, 6, 5, null)));
+        Assertions.assertEquals("Rb1", San.toSan(kiwipete, move(1, 1, 1, 2, null)));
+
+        ChessGame knights = ChessGame.fromFen("4k3/8/8/8/8/8/8/N3KN1N w - - 0 1");
+        Assertions.assertEquals("Nfg3", San.toSan(knights, move(1, 6, 3, 7, null)));
+        Assertions.assertEquals("Nhg3", San.toSan(knights, move(1, 8, 3, 7, null)));
+        Assertions.assertEquals("Nb3", San.toSan(knights, move(1, 1, 3, 2, null)));
+
+        ChessGame promotion = ChessGame.fromFen("4k3/1P6/8/8/8/8/8/4K3 w - - 0 1");
+        Assertions.assertEquals("b8=Q+", San.toSan(promotion, move(7, 2, 8, 2, ChessPiece.PieceType.QUEEN)));
+        Assertions.assertEquals(move(7, 2, 8, 2, ChessPiece.PieceType.KNIGHT), San.fromSan(promotion, "b8N"));
+
+        Assertions.assertThrows(InvalidMoveException.class, () -> San.fromSan(new ChessGame(), "e5"));
+        Assertions.assertThrows(InvalidMoveException.class, () -> San.fromSan(knights, "Ng3"));
+        Assertions.assertThrows(InvalidMoveException.class, () -> San.fromSan(new ChessGame(), "Zz9"));
+    }
+
+    @Test
+    @DisplayName("Reads A Game With Comments And Variations")
+    public void readsGame() throws IOException {
+        PgnReader reader = new PgnReader(new StringReader(OPERA_GAME));
+        PgnGame pgnGame = reader.next();
+        Assertions.assertNotNull(pgnGame);
+        Assertions.assertEquals("Paul Morphy", pgnGame.tags().get("White"));
+        Assertions.assertEquals(PgnGame.WHITE_WINS, pgnGame.result());
+        Assertions.assertEquals(33, pgnGame.game().getMoveCount());
+        Assertions.assertEquals(ChessGame.GameStatus.CHECKMATE,
+                pgnGame.game().getGameStatus(ChessGame.TeamColor.BLACK));
+        Assertions.assertNull(reader.next());
+    }
+
+    @Test
+    @DisplayName("Written Games Read Back The Same")
+    public void writeThenRead() throws IOException {
+        PgnGame original = new PgnReader(new StringReader(OPERA_GAME)).next();
+        StringWriter out = new StringWriter();
+        new PgnWriter(out).write(original);
+        Assertions.assertTrue(out.toString().contains("12. O-O-O Rd8"), out.toString());
+        Assertions.assertTrue(out.toString().lines().allMatch(line -> line.length() <= 80));
+
+        PgnGame copy = new PgnReader(new StringReader(out.toString())).next();
+        Assertions.assertEquals(original.tags(), copy.tags());
+        Assertions.assertEquals(original.game().getMoveHistory(), copy.game().getMoveHistory());
+        Assertions.assertEquals(original.game(), copy.game());
+    }
+
+    @Test
+    @DisplayName("Games From A Set Up Position Keep Their FEN")
+    public void setUpPosition() throws IOException, InvalidMoveException {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/8/8/8/4P3/4K3 b - - 0 1");
+        game.makeMove(San.fromSan(game, "Kd7"));
+        game.makeMove(San.fromSan(game, "e4"));
+        Map<String, String> tags = new LinkedHashMap<>();
+        tags.put("Event", "Endgame");
+        StringWriter out = new StringWriter();
+        new PgnWriter(out).write(new PgnGame(tags, game, PgnGame.UNFINISHED));
+        Assertions.assertTrue(out.toString().contains("[FEN \"4k3/8/8/8/8/8/4P3/4K3 b - - 0 1\"]"), out.toString());
+        Assertions.assertTrue(out.toString().contains("1... Kd7 2. e4 *"), out.toString());
+
+        PgnGame copy = new PgnReader(new StringReader(out.toString())).next();
+        Assertions.assertEquals(game, copy.game());
+    }
+
+    @Test
+    @DisplayName("A Bad Game Is Reported And Skipped")
+    public void skipsBadGame() throws IOException {
+        String pgn = "[Event \"bad\"]\n\n1. e4 e5 2. Ke3 Nc6 1-0\n\n[Event \"good\"]\n\n1. d4 d5 1/2-1/2\n";
+        PgnReader reader = new PgnReader(new StringReader(pgn));
+        IllegalArgumentException e = Assertions.assertThrows(IllegalArgumentException.class, reader::next);
+        Assertions.assertTrue(e.getMessage().contains("Ke3"), e.getMessage());
+        PgnGame good = reader.next();
+        Assertions.assertEquals("good", good.tags().get("Event"));
+        Assertions.assertEquals(PgnGame.DRAW, good.result());
+        Assertions.assertNull(reader.next());
+    }
+
+    private static ChessMove move(int fromRow, int fromCol, int toRow, int toCol, ChessPiece.PieceType promotion) {
+        return new ChessMove(ChessPosition.of(fromRow, fromCol), ChessPosition.of(toRow, toCol), promotion);
+    }
+}
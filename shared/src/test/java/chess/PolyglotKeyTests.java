@@ -0,0 +1,59 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class PolyglotKeyTests {
+
+    @Test
+    @DisplayName("Start Position Has Polyglot's Published Key")
+    public void startPosition() {
+        Assertions.assertEquals(0x463b96181691fc9cL, PolyglotKey.of(new ChessGame()));
+    }
+
+    @Test
+    @DisplayName("Played Moves Give Polyglot's Published Keys")
+    public void publishedKeys() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(move(2, 5, 4, 5));
+        Assertions.assertEquals(0x823c9b50fd114196L, PolyglotKey.of(game));
+        game.makeMove(move(7, 4, 5, 4));
+        Assertions.assertEquals(0x0756b94461c50fb0L, PolyglotKey.of(game));
+        game.makeMove(move(4, 5, 5, 5));
+        Assertions.assertEquals(0x662fafb965db29d4L, PolyglotKey.of(game));
+        game.makeMove(move(7, 6, 5, 6));
+        Assertions.assertEquals(0x22a48b5a8e47ff78L, PolyglotKey.of(game));
+        game.makeMove(move(1, 5, 2, 5));
+        Assertions.assertEquals(0x652a607ca3f242c1L, PolyglotKey.of(game));
+        game.makeMove(move(8, 5, 7, 6));
+        Assertions.assertEquals(0x00fdd303c946bdd9L, PolyglotKey.of(game));
+
+        game = new ChessGame();
+        game.makeMove(move(2, 1, 4, 1));
+        game.makeMove(move(7, 2, 5, 2));
+        game.makeMove(move(2, 8, 4, 8));
+        game.makeMove(move(5, 2, 4, 2));
+        game.makeMove(move(2, 3, 4, 3));
+        Assertions.assertEquals(0x3c8123ea7b067637L, PolyglotKey.of(game));
+        game.makeMove(move(4, 2, 3, 3));
+        game.makeMove(move(1, 1, 3, 1));
+        Assertions.assertEquals(0x5c3f9b829b279560L, PolyglotKey.of(game));
+    }
+
+    @Test
+    @DisplayName("En Passant Counts Only When A Pawn Can Take")
+    public void enPassantNeedsACapturer() {
+        ChessGame noCapturer = ChessGame.fromFen("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1");
+        ChessGame noEnPassant = ChessGame.fromFen("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1");
+        Assertions.assertEquals(PolyglotKey.of(noEnPassant), PolyglotKey.of(noCapturer));
+
+        ChessGame capturer = ChessGame.fromFen("rnbqkbnr/pppp1ppp/8/8/3Pp3/8/PPP1PPPP/RNBQKBNR b KQkq d3 0 1");
+        ChessGame capturerWithout = ChessGame.fromFen("rnbqkbnr/pppp1ppp/8/8/3Pp3/8/PPP1PPPP/RNBQKBNR b KQkq - 0 1");
+        Assertions.assertNotEquals(PolyglotKey.of(capturerWithout), PolyglotKey.of(capturer));
+    }
+
+    private static ChessMove move(int fromRow, int fromCol, int toRow, int toCol) {
+        return new ChessMove(ChessPosition.of(fromRow, fromCol), ChessPosition.of(toRow, toCol), null);
+    }
+}
@@ -0,0 +1,88 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SearchTests {
+
+    @Test
+    @DisplayName("Finds Mate In One")
+    public void mateInOne() {
+        ChessGame game = ChessGame.fromFen("r1bqkbnr/pppp1ppp/2n5/4p2Q/2B1P3/8/PPPP1PPP/RNB1K1NR w KQkq - 0 1");
+        Search.Result result = new Search(game).search(Search.Limits.ofDepth(4));
+        Assertions.assertEquals(move(5, 8, 7, 6), result.bestMove());
+        Assertions.assertTrue(result.isMate());
+        Assertions.assertEquals(Search.MATE - 1, result.score());
+    }
+
+    @Test
+    @DisplayName("Finds Mate In Two")
+    public void mateInTwo() {
+        ChessGame game = ChessGame.fromFen("kbK5/pp6/1P6/8/8/8/8/R7 w - - 0 1");
+        Search.Result result = new Search(game).search(Search.Limits.ofDepth(6));
+        Assertions.assertEquals(move(1, 1, 6, 1), result.bestMove());
+        Assertions.assertEquals(Search.MATE - 3, result.score());
+    }
+
+    @Test
+    @DisplayName("Takes A Hanging Queen")
+    public void takesHangingQueen() {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/3q4/8/2N5/8/4K3 w - - 0 1");
+        Search.Result result = new Search(game).search(Search.Limits.ofDepth(3));
+        Assertions.assertEquals(move(3, 3, 5, 4), result.bestMove());
+        Assertions.assertTrue(result.score() > 200);
+    }
+
+    @Test
+    @DisplayName("Leaves The Game As It Found It")
+    public void gameUnchanged() {
+        for (Perft.Position position : Perft.REFERENCE_POSITIONS) {
+            ChessGame game = ChessGame.fromFen(position.fen());
+            long key = game.getZobristKey();
+            String fen = game.toFen();
+            Search.Result result = new Search(game).search(Search.Limits.ofNodes(20_000));
+            Assertions.assertEquals(key, game.getZobristKey(), position.name());
+            Assertions.assertEquals(fen, game.toFen());
+            Assertions.assertTrue(game.validMoves(result.bestMove().getStartPosition()).contains(result.bestMove()));
+            Assertions.assertTrue(result.nodes() < 40_000, position.name() + " " + result.nodes());
+        }
+    }
+
+    @Test
+    @DisplayName("Threads Search Together And Stop Together")
+    public void parallelSearch() {
+        ChessGame game = ChessGame.fromFen("kbK5/pp6/1P6/8/8/8/8/R7 w - - 0 1");
+        Search.Result result = new Search(game).search(Search.Limits.ofDepth(6).withThreads(4));
+        Assertions.assertEquals(move(1, 1, 6, 1), result.bestMove());
+        Assertions.assertEquals(Search.MATE - 3, result.score());
+
+        TranspositionTable table = new TranspositionTable(1);
+        new Search(ChessGame.fromFen("kbK5/pp6/1P6/8/8/8/8/R7 w - - 0 1"), table)
+                .search(Search.Limits.ofDepth(4).withThreads(4));
+        Assertions.assertEquals(1, table.generation());
+
+        ChessGame start = new ChessGame();
+        String fen = start.toFen();
+        long began = System.nanoTime();
+        Search.Result timed = new Search(start).search(Search.Limits.ofMillis(100).withThreads(3));
+        Assertions.assertTrue(System.nanoTime() - began < 2_000_000_000L);
+        Assertions.assertNotNull(timed.bestMove());
+        Assertions.assertEquals(fen, start.toFen());
+    }
+
+    @Test
+    @DisplayName("Reports Games With No Moves")
+    public void noMoves() {
+        Search.Result mated = new Search(ChessGame.fromFen("7k/6Q1/6K1/8/8/8/8/8 b - - 0 1")).search(Search.Limits.ofDepth(3));
+        Assertions.assertNull(mated.bestMove());
+        Assertions.assertEquals(-Search.MATE, mated.score());
+        Search.Result stalemate = new Search(ChessGame.fromFen("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1")).search(Search.Limits.ofDepth(3));
+        Assertions.assertNull(stalemate.bestMove());
+        Assertions.assertEquals(0, stalemate.score());
+    }
+
+    private static ChessMove move(int fromRow, int fromCol, int toRow, int toCol) {
+        return new ChessMove(ChessPosition.of(fromRow, fromCol), ChessPosition.of(toRow, toCol), null);
+    }
+}
@@ -0,0 +1,76 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class TranspositionTableTests {
+
+    @Test
+    @DisplayName("Size Is Rounded Down To Whole Buckets")
+    public void sizing() {
+        TranspositionTable table = new TranspositionTable(3);
+        Assertions.assertEquals(2L << 20, table.sizeInBytes());
+        Assertions.assertEquals((2 << 20) / TranspositionTable.ENTRY_BYTES, table.capacity());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+    }
+
+    @Test
+    @DisplayName("Stored Results Read Back Only For Their Key")
+    public void storeAndProbe() {
+        TranspositionTable table = new TranspositionTable(1);
+        int move = Move.encode(12, 28, null, Move.DOUBLE_PUSH);
+        long key = 0x1234_5678_9ABC_DEF0L;
+        table.store(key, move, -Search.MATE + 3, 7, TranspositionTable.LOWER);
+
+        long data = table.probe(key);
+        Assertions.assertEquals(move, TranspositionTable.move(data));
+        Assertions.assertEquals(-Search.MATE + 3, TranspositionTable.score(data));
+        Assertions.assertEquals(7, TranspositionTable.depth(data));
+        Assertions.assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(data));
+        Assertions.assertEquals(0L, table.probe(key ^ 1));
+
+        table.store(key, 0, 15, 8, TranspositionTable.EXACT);
+        Assertions.assertEquals(move, TranspositionTable.move(table.probe(key)));
+        table.clear();
+        Assertions.assertEquals(0L, table.probe(key));
+    }
+
+    @Test
+    @DisplayName("A Full Bucket Replaces Its Shallowest Entry")
+    public void replacement() {
+        TranspositionTable table = new TranspositionTable(1);
+        long bucket = 5L << 32;
+        for (int i = 0; i < 4; i++) {
+            table.store(bucket | i, 0, 0, 10 + i, TranspositionTable.EXACT);
+        }
+        table.store(bucket | 9, 0, 0, 1, TranspositionTable.EXACT);
+        Assertions.assertEquals(0L, table.probe(bucket));
+        Assertions.assertNotEquals(0L, table.probe(bucket | 3));
+        Assertions.assertNotEquals(0L, table.probe(bucket | 9));
+
+        table.newSearch();
+        table.store(bucket | 10, 0, 0, 1, TranspositionTable.EXACT);
+        Assertions.assertEquals(0L, table.probe(bucket | 9));
+        Assertions.assertNotEquals(0L, table.probe(bucket | 10));
+    }
+
+    @Test
+    @DisplayName("Searches Started At Once Each Count")
+    public void concurrentNewSearch() throws InterruptedException {
+        TranspositionTable table = new TranspositionTable(1);
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    table.newSearch();
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assertions.assertEquals(8000 & 0xFF, table.generation());
+    }
+}